@@ -5,8 +5,13 @@ import com.daleksandrova.springtasks.task1.listener.NeedToRestEventMyListener;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
 /**
  * Главный класс приложения.
  *
@@ -14,7 +19,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
  * @since 2023.11.15
  */
 @SpringBootApplication
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 public class SpringTasksApplication {
 
     /**
@@ -28,6 +33,17 @@ public class SpringTasksApplication {
         return new NeedToRestEventMyListener();
     }
 
+    /**
+     * Поставщик времени для аудита сущностей. Время усекается до микросекунд - точности хранения в БД,
+     * чтобы значения в памяти совпадали с сохраненными без повторного чтения сущности.
+     *
+     * @return поставщик времени
+     */
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(SpringTasksApplication.class);
     }
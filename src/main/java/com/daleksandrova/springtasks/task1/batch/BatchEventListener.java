@@ -0,0 +1,53 @@
+package com.daleksandrova.springtasks.task1.batch;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Метод-слушатель, получающий события пачками.
+ * Метод принимает один параметр - список событий (например, {@code List<NeedToRestEvent>}), тип событий берется
+ * из типа элементов списка. Пачка отдается слушателю, когда набралось batchSize событий или через maxLingerMs
+ * после первого события пачки. Слушатель вызывается в своем потоке, пачки приходят в порядке публикации событий.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BatchEventListener {
+
+    /**
+     * Максимальный размер пачки.
+     *
+     * @return размер пачки
+     */
+    int batchSize() default 100;
+
+    /**
+     * Максимальное время ожидания пачки после ее первого события, мс.
+     *
+     * @return время ожидания
+     */
+    long maxLingerMs() default 100;
+
+    /**
+     * Максимальное количество готовых пачек, ждущих слушателя. Когда их столько, создатель события ждет,
+     * пока слушатель заберет пачку.
+     *
+     * @return количество пачек
+     */
+    int maxPendingBatches() default 16;
+
+    /**
+     * Выражение SpEL, вычисляемое на событии, - ключ схлопывания (например, "message").
+     * Из событий пачки с одинаковым ключом слушатель получит только последнее. Подходит для событий,
+     * повторная обработка которых ничего не меняет. Пусто - события не схлопываются.
+     *
+     * @return ключ схлопывания
+     */
+    String coalesceKey() default "";
+}
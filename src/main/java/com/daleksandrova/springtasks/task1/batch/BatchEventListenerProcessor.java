@@ -0,0 +1,83 @@
+package com.daleksandrova.springtasks.task1.batch;
+
+import org.springframework.aop.framework.autoproxy.AutoProxyUtils;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Регистрация методов, помеченных {@link BatchEventListener}, как слушателей событий.
+ * Как и {@link org.springframework.context.event.EventListenerMethodProcessor}, ищет методы после создания
+ * всех бинов-одиночек и для каждого метода добавляет в контекст {@link EventBatcher}.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+public class BatchEventListenerProcessor implements SmartInitializingSingleton, DisposableBean {
+
+    /**
+     * Контекст приложения.
+     */
+    private final ConfigurableApplicationContext applicationContext;
+
+    /**
+     * Зарегистрированные слушатели пачек.
+     */
+    private final List<EventBatcher> batchers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Конструктор.
+     *
+     * @param applicationContext контекст приложения
+     */
+    public BatchEventListenerProcessor(ConfigurableApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        final ConfigurableListableBeanFactory beanFactory = applicationContext.getBeanFactory();
+        for (String beanName : beanFactory.getBeanNamesForType(Object.class, false, false)) {
+            if (ScopedProxyUtils.isScopedTarget(beanName)) {
+                continue;
+            }
+            final Class<?> type = AutoProxyUtils.determineTargetClass(beanFactory, beanName);
+            if (type == null || type.getName().startsWith("org.springframework.")) {
+                continue;
+            }
+            final Map<Method, BatchEventListener> methods = MethodIntrospector.selectMethods(type,
+                    (MethodIntrospector.MetadataLookup<BatchEventListener>) method ->
+                            AnnotatedElementUtils.findMergedAnnotation(method, BatchEventListener.class));
+            if (methods.isEmpty()) {
+                continue;
+            }
+            final Object bean = beanFactory.getBean(beanName);
+            methods.forEach((method, batchEventListener) -> {
+                final EventBatcher batcher = new EventBatcher(bean, method, batchEventListener.batchSize(),
+                        batchEventListener.maxLingerMs(), batchEventListener.maxPendingBatches(),
+                        batchEventListener.coalesceKey());
+                batchers.add(batcher);
+                applicationContext.addApplicationListener(batcher);
+            });
+        }
+    }
+
+    /**
+     * Отдает слушателям накопленные события и останавливает их потоки.
+     */
+    @Override
+    public void destroy() {
+        batchers.forEach(EventBatcher::close);
+    }
+}
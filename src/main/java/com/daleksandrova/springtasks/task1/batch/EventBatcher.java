@@ -0,0 +1,358 @@
+package com.daleksandrova.springtasks.task1.batch;
+
+import com.daleksandrova.springtasks.task1.multicaster.ListenerInvoker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Слушатель, собирающий события в пачки для метода, помеченного {@link BatchEventListener}.
+ * Создатель события только добавляет его в текущую пачку; готовая пачка передается методу-слушателю в потоке
+ * слушателя. Так вызов слушателя, его логирование и прочие накладные расходы приходятся на пачку, а не на событие.
+ * <p>
+ * Пачка готова, когда в ней набралось batchSize событий или прошло maxLingerMs с ее первого события.
+ * Если задан ключ схлопывания, в пачке остается только последнее событие каждого ключа.
+ * <p>
+ * Готовых пачек, ждущих слушателя, не больше maxPendingBatches. Когда их столько, создатель события ждет,
+ * пока слушатель заберет пачку, как и при заполненной очереди {@link com.daleksandrova.springtasks.task1.multicaster.ExecutorEventMulticaster}.
+ * Поток самого слушателя не ждет, а получает отказ: кроме него, пачки разбирать некому.
+ * После остановки события не принимаются и отбрасываются.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class EventBatcher implements GenericApplicationListener {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(EventBatcher.class);
+
+    /**
+     * Разборщик выражений ключей схлопывания. Выражения компилируются в байт-код после первых вычислений.
+     */
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, EventBatcher.class.getClassLoader()));
+
+    /**
+     * Бин слушателя.
+     */
+    private final Object bean;
+
+    /**
+     * Метод-слушатель.
+     */
+    private final Method method;
+
+    /**
+     * Метод-слушатель, вызываемый у бина через рефлексию.
+     */
+    private final Method invocableMethod;
+
+    /**
+     * Прямой вызов метода-слушателя, пусто - метод вызывается через рефлексию.
+     */
+    private final ListenerInvoker invoker;
+
+    /**
+     * Идентификатор слушателя.
+     */
+    private final String listenerId;
+
+    /**
+     * Тип событий.
+     */
+    private final Class<?> eventType;
+
+    /**
+     * Максимальный размер пачки.
+     */
+    private final int batchSize;
+
+    /**
+     * Максимальное время ожидания пачки, мс.
+     */
+    private final long maxLingerMs;
+
+    /**
+     * Максимальное количество готовых пачек, ждущих слушателя.
+     */
+    private final int maxPendingBatches;
+
+    /**
+     * Ключ схлопывания, пусто - события не схлопываются.
+     */
+    private final Expression coalesceKey;
+
+    /**
+     * Исполнитель в потоке слушателя.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Поток слушателя.
+     */
+    private volatile Thread listenerThread;
+
+    /**
+     * Блокировка текущей пачки.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * События текущей пачки без схлопывания.
+     */
+    private List<ApplicationEvent> pending = new ArrayList<>();
+
+    /**
+     * События текущей пачки по ключам схлопывания.
+     */
+    private Map<Object, ApplicationEvent> pendingByKey = new LinkedHashMap<>();
+
+    /**
+     * Номер текущей пачки.
+     */
+    private long batchNumber;
+
+    /**
+     * Запланирована ли отправка текущей пачки по времени.
+     */
+    private boolean lingerScheduled;
+
+    /**
+     * Готовые пачки, ждущие слушателя. На каждую пачку в исполнителе стоит одна задача доставки.
+     */
+    private final Queue<List<ApplicationEvent>> readyBatches = new ArrayDeque<>();
+
+    /**
+     * Остановлен ли слушатель.
+     */
+    private boolean closed;
+
+    /**
+     * Конструктор.
+     *
+     * @param bean        бин слушателя
+     * @param method      метод-слушатель с одним параметром - списком событий
+     * @param batchSize         максимальный размер пачки
+     * @param maxLingerMs       максимальное время ожидания пачки, мс
+     * @param maxPendingBatches максимальное количество готовых пачек, ждущих слушателя
+     * @param coalesceKey       выражение SpEL ключа схлопывания, пусто - события не схлопываются
+     */
+    public EventBatcher(Object bean, Method method, int batchSize, long maxLingerMs, int maxPendingBatches,
+                        String coalesceKey) {
+        if (method.getParameterCount() != 1 || !method.getParameterTypes()[0].isAssignableFrom(List.class)) {
+            throw new IllegalStateException("Batch event listener must take a single List parameter: " + method);
+        }
+        final Class<?> eventType = ResolvableType.forMethodParameter(method, 0).getGeneric(0).resolve(ApplicationEvent.class);
+        if (!ApplicationEvent.class.isAssignableFrom(eventType)) {
+            throw new IllegalStateException("Batch event listener must take a List of ApplicationEvent: " + method);
+        }
+        if (batchSize <= 0 || maxLingerMs < 0 || maxPendingBatches <= 0) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize + ", linger " + maxLingerMs
+                    + " or pending batches " + maxPendingBatches + " of " + method);
+        }
+        this.bean = bean;
+        this.method = method;
+        this.invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+        ReflectionUtils.makeAccessible(invocableMethod);
+        this.invoker = ListenerInvoker.compileOrNull(method);
+        this.listenerId = ClassUtils.getQualifiedMethodName(method) + "(" + Arrays.stream(method.getParameterTypes())
+                .map(Class::getName).collect(Collectors.joining(",")) + ")";
+        this.eventType = eventType;
+        this.batchSize = batchSize;
+        this.maxLingerMs = maxLingerMs;
+        this.maxPendingBatches = maxPendingBatches;
+        this.coalesceKey = StringUtils.hasText(coalesceKey) ? PARSER.parseExpression(coalesceKey) : null;
+        final String threadName = "event-batch-" + method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            listenerThread = thread;
+            return thread;
+        });
+    }
+
+    @Override
+    public boolean supportsEventType(ResolvableType eventType) {
+        return this.eventType.isAssignableFrom(eventType.toClass());
+    }
+
+    @Override
+    public String getListenerId() {
+        return listenerId;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        // ключ вычисляется до блокировки, чтобы не задерживать других создателей событий
+        final Object key = coalesceKey != null ? coalesceKey.getValue(event) : null;
+        synchronized (lock) {
+            // текущая пачка полна и ждет места среди готовых
+            while (!closed && pendingSize() >= batchSize) {
+                if (Thread.currentThread() == listenerThread) {
+                    throw new RejectedExecutionException("Batches of " + listenerId + " are full, the event is published from its own thread");
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException(ex);
+                }
+            }
+            if (closed) {
+                LOG.warn("Batch listener {} is closed, {} is dropped", listenerId, event.getClass().getSimpleName());
+                return;
+            }
+            if (coalesceKey != null) {
+                // удаление перед вставкой ставит событие в конец пачки: порядок пачки - порядок последних событий ключей
+                pendingByKey.remove(key);
+                pendingByKey.put(key, event);
+            } else {
+                pending.add(event);
+            }
+            if (pendingSize() >= batchSize) {
+                // без места среди готовых пачка остается текущей, пока слушатель не заберет одну из готовых
+                if (readyBatches.size() < maxPendingBatches) {
+                    enqueueBatch();
+                }
+            } else if (!lingerScheduled) {
+                lingerScheduled = true;
+                final long scheduledBatch = batchNumber;
+                executor.schedule(() -> flush(scheduledBatch), maxLingerMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Отдает слушателю накопленные события и останавливает поток слушателя после обработки уже готовых пачек.
+     * События, опубликованные после остановки, отбрасываются.
+     */
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (pendingSize() > 0) {
+                enqueueBatch();
+            }
+            executor.shutdown();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Отдает слушателю пачку по истечении времени ожидания, если она еще не ушла по размеру.
+     * Выполняется в потоке слушателя, который не может ждать места сам у себя, поэтому пачка становится готовой
+     * сверх ограничения.
+     *
+     * @param expectedBatch номер пачки, для которой запланирована отправка
+     */
+    private void flush(long expectedBatch) {
+        synchronized (lock) {
+            if (batchNumber == expectedBatch && !closed) {
+                enqueueBatch();
+            }
+        }
+    }
+
+    /**
+     * Отдает слушателю следующую готовую пачку и освобождает место для текущей, если та уже полна.
+     */
+    private void deliverNext() {
+        final List<ApplicationEvent> batch;
+        synchronized (lock) {
+            batch = readyBatches.poll();
+            if (!closed && pendingSize() >= batchSize) {
+                enqueueBatch();
+            }
+            lock.notifyAll();
+        }
+        if (batch != null) {
+            deliver(batch);
+        }
+    }
+
+    /**
+     * Делает текущую пачку готовой и ставит ее доставку в поток слушателя. Вызывается под блокировкой.
+     */
+    private void enqueueBatch() {
+        readyBatches.add(takeBatch());
+        executor.execute(this::deliverNext);
+    }
+
+    /**
+     * Возвращает размер текущей пачки. Вызывается под блокировкой.
+     *
+     * @return количество событий
+     */
+    private int pendingSize() {
+        return coalesceKey != null ? pendingByKey.size() : pending.size();
+    }
+
+    /**
+     * Забирает текущую пачку и начинает следующую. Вызывается под блокировкой.
+     *
+     * @return события пачки
+     */
+    private List<ApplicationEvent> takeBatch() {
+        final List<ApplicationEvent> batch;
+        if (coalesceKey != null) {
+            batch = new ArrayList<>(pendingByKey.values());
+            pendingByKey = new LinkedHashMap<>();
+        } else {
+            batch = pending;
+            pending = new ArrayList<>(Math.min(batchSize, 1024));
+        }
+        batchNumber++;
+        lingerScheduled = false;
+        return Collections.unmodifiableList(batch);
+    }
+
+    /**
+     * Вызывает метод-слушатель с пачкой событий. Ошибка слушателя не может дойти до создателей событий,
+     * поэтому логируется.
+     *
+     * @param batch события пачки
+     */
+    private void deliver(List<ApplicationEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            if (invoker != null && method.getDeclaringClass().isInstance(bean)) {
+                invoker.invoke(bean, batch);
+            } else {
+                ReflectionUtils.invokeMethod(invocableMethod, bean, batch);
+            }
+        } catch (RuntimeException | Error ex) {
+            LOG.error("Batch listener {} failed on {} events", listenerId, batch.size(), ex);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.daleksandrova.springtasks.task1.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Кольцевой буфер событий в духе LMAX Disruptor.
+ * Ячейки создаются заранее. Создатель события занимает номер, заполняет ячейку и публикует ее; создателей может быть
+ * несколько. Каждый обработчик работает в своем потоке и забирает пачкой все опубликованные события, до которых дошел.
+ * Создатель ждет, если буфер заполнен и самый медленный обработчик еще не освободил ячейку.
+ * Ни публикация, ни обработка не создают объектов.
+ * <p>
+ * После остановки буфер не принимает событий: ждать освобождения ячеек было бы некому.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class MessageRingBuffer {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(MessageRingBuffer.class);
+
+    /**
+     * Количество активных проверок перед тем, как поток ожидания засыпает.
+     */
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * Время сна потока ожидания, нс.
+     */
+    private static final long PARK_NANOS = 50_000;
+
+    /**
+     * Время ожидания завершения потоков обработчиков при остановке, мс.
+     */
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    /**
+     * Имя буфера для имен потоков.
+     */
+    private final String name;
+
+    /**
+     * Ячейки.
+     */
+    private final MessageSlot[] slots;
+
+    /**
+     * Маска индекса ячейки по номеру события.
+     */
+    private final int mask;
+
+    /**
+     * Сдвиг, дающий номер круга по номеру события.
+     */
+    private final int indexShift;
+
+    /**
+     * Номер круга, на котором опубликована каждая ячейка.
+     */
+    private final AtomicIntegerArray publishedRounds;
+
+    /**
+     * Последний занятый номер события.
+     */
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    /**
+     * Обработчики.
+     */
+    private final List<Consumer> consumers = new ArrayList<>();
+
+    /**
+     * Потоки обработчиков.
+     */
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * Запущен ли буфер.
+     */
+    private volatile boolean running;
+
+    /**
+     * Остановлен ли буфер.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Конструктор.
+     *
+     * @param name       имя буфера
+     * @param bufferSize количество ячеек, степень двойки
+     */
+    public MessageRingBuffer(String name, int bufferSize) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of 2: " + bufferSize);
+        }
+        this.name = name;
+        this.slots = new MessageSlot[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            slots[i] = new MessageSlot();
+        }
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.publishedRounds = new AtomicIntegerArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            publishedRounds.set(i, -1);
+        }
+    }
+
+    /**
+     * Добавляет обработчик. Вызывается до {@link #start()}.
+     *
+     * @param handler обработчик
+     */
+    public synchronized void addHandler(RingEventHandler handler) {
+        if (running) {
+            throw new IllegalStateException("Ring buffer " + name + " is already started");
+        }
+        consumers.add(new Consumer(handler));
+    }
+
+    /**
+     * Запускает потоки обработчиков.
+     */
+    public synchronized void start() {
+        running = true;
+        for (int i = 0; i < consumers.size(); i++) {
+            final Thread thread = new Thread(consumers.get(i), "ring-" + name + "-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Останавливает потоки обработчиков после обработки уже опубликованных событий и ждет их завершения.
+     * Событие, опубликованное одновременно с остановкой, может быть не обработано.
+     */
+    public synchronized void close() {
+        closed = true;
+        running = false;
+        try {
+            for (Thread thread : threads) {
+                thread.join(CLOSE_TIMEOUT_MS);
+                if (thread.isAlive()) {
+                    LOG.warn("Ring buffer {} handler thread {} did not stop in {} ms", name, thread.getName(), CLOSE_TIMEOUT_MS);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Публикует событие.
+     *
+     * @param message сообщение события
+     * @throws IllegalStateException если буфер остановлен
+     */
+    public void publish(String message) {
+        checkNotClosed();
+        final long sequence = claimed.incrementAndGet();
+        // ячейку можно занять, когда ее прошлое событие обработали все обработчики
+        final long wrapPoint = sequence - slots.length;
+        int tries = 0;
+        while (wrapPoint > minConsumedSequence()) {
+            checkNotClosed();
+            tries = idle(tries);
+        }
+        slots[(int) sequence & mask].setMessage(message);
+        publishedRounds.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+    }
+
+    /**
+     * Возвращает количество событий, опубликованных, но еще не обработанных самым медленным обработчиком.
+     *
+     * @return количество событий
+     */
+    public long getBacklog() {
+        return claimed.get() - minConsumedSequence();
+    }
+
+    /**
+     * Проверяет, что буфер не остановлен.
+     *
+     * @throws IllegalStateException если буфер остановлен
+     */
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("Ring buffer " + name + " is closed");
+        }
+    }
+
+    /**
+     * Возвращает номер последнего события, обработанного самым медленным обработчиком.
+     *
+     * @return номер события
+     */
+    private long minConsumedSequence() {
+        long min = claimed.get();
+        for (Consumer consumer : consumers) {
+            min = Math.min(min, consumer.sequence.get());
+        }
+        return min;
+    }
+
+    /**
+     * Проверяет, опубликовано ли событие.
+     *
+     * @param sequence номер события
+     * @return опубликовано/нет
+     */
+    private boolean isPublished(long sequence) {
+        return publishedRounds.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * Ожидание: сначала активное, потом со сном.
+     *
+     * @param tries количество уже сделанных проверок
+     * @return количество проверок с учетом текущей
+     */
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return tries + 1;
+    }
+
+    /**
+     * Обработчик событий в своем потоке.
+     */
+    private final class Consumer implements Runnable {
+
+        /**
+         * Обработчик.
+         */
+        private final RingEventHandler handler;
+
+        /**
+         * Номер последнего обработанного события.
+         */
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        /**
+         * Конструктор.
+         *
+         * @param handler обработчик
+         */
+        private Consumer(RingEventHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int tries = 0;
+            while (true) {
+                // флаг читается до поиска событий: все, что опубликовано до остановки, будет найдено
+                final boolean wasRunning = running;
+                // пачка - все подряд опубликованные события, начиная со следующего
+                long available = next - 1;
+                final long last = claimed.get();
+                while (available < last && isPublished(available + 1)) {
+                    available++;
+                }
+                if (available < next) {
+                    if (!wasRunning) {
+                        // номер, занятый, но не опубликованный при остановке, ждать бесполезно
+                        break;
+                    }
+                    tries = idle(tries);
+                    continue;
+                }
+                tries = 0;
+                for (long current = next; current <= available; current++) {
+                    try {
+                        handler.onEvent(slots[(int) current & mask], current, current == available);
+                    } catch (RuntimeException ex) {
+                        LOG.error("Ring buffer {} handler failed on event {}", name, current, ex);
+                    }
+                }
+                sequence.lazySet(available);
+                next = available + 1;
+            }
+        }
+    }
+}
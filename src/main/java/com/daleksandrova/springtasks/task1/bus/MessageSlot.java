@@ -0,0 +1,34 @@
+package com.daleksandrova.springtasks.task1.bus;
+
+/**
+ * Ячейка кольцевого буфера с сообщением события. Ячейки создаются один раз и переиспользуются,
+ * поэтому публикация события ничего не создает.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class MessageSlot {
+
+    /**
+     * Сообщение события.
+     */
+    private String message;
+
+    /**
+     * Возвращает сообщение события.
+     *
+     * @return сообщение
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Задает сообщение события.
+     *
+     * @param message сообщение
+     */
+    void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,99 @@
+package com.daleksandrova.springtasks.task1.bus;
+
+import com.daleksandrova.springtasks.task1.event.NeedToPassSpringExamEvent;
+import com.daleksandrova.springtasks.task1.event.NeedToRestEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+
+/**
+ * Шина событий "Нужно отдохнуть" и "Нужно сдать экзамен по Spring" на кольцевых буферах.
+ * Альтернатива {@link org.springframework.context.ApplicationEventPublisher} для высокой частоты событий:
+ * публикация не создает объектов событий и не ищет слушателей, а обработчики ({@link RingEventHandler})
+ * работают в своих потоках и получают события пачками. Создатели событий task1 публикуют в шину, когда она включена.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+@ConditionalOnProperty(name = "task1.bus.enabled", havingValue = "true")
+public class RingEventBus {
+
+    /**
+     * Буфер событий "Нужно отдохнуть".
+     */
+    private final MessageRingBuffer needToRestBuffer;
+
+    /**
+     * Буфер событий "Нужно сдать экзамен по Spring".
+     */
+    private final MessageRingBuffer needToPassSpringExamBuffer;
+
+    /**
+     * Обработчики событий.
+     */
+    private final List<RingEventHandler> handlers;
+
+    /**
+     * Конструктор.
+     *
+     * @param handlers   обработчики событий
+     * @param bufferSize количество ячеек буфера каждого типа событий, степень двойки
+     */
+    public RingEventBus(List<RingEventHandler> handlers, @Value("${task1.bus.bufferSize:65536}") int bufferSize) {
+        this.handlers = handlers;
+        this.needToRestBuffer = new MessageRingBuffer("need-to-rest", bufferSize);
+        this.needToPassSpringExamBuffer = new MessageRingBuffer("need-to-pass-spring-exam", bufferSize);
+    }
+
+    /**
+     * Подключение обработчиков к буферам и запуск их потоков.
+     */
+    @PostConstruct
+    public void postConstruct() {
+        for (RingEventHandler handler : handlers) {
+            if (handler.getEventType() == NeedToRestEvent.class) {
+                needToRestBuffer.addHandler(handler);
+            } else if (handler.getEventType() == NeedToPassSpringExamEvent.class) {
+                needToPassSpringExamBuffer.addHandler(handler);
+            } else {
+                throw new IllegalStateException("Unsupported ring event type " + handler.getEventType().getName());
+            }
+        }
+        needToRestBuffer.start();
+        needToPassSpringExamBuffer.start();
+    }
+
+    /**
+     * Остановка потоков обработчиков: уже опубликованные события обрабатываются, новые не принимаются.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        needToRestBuffer.close();
+        needToPassSpringExamBuffer.close();
+    }
+
+    /**
+     * Публикует событие "Нужно отдохнуть".
+     *
+     * @param message сообщение
+     * @throws IllegalStateException если шина остановлена
+     */
+    public void publishNeedToRestEvent(final String message) {
+        needToRestBuffer.publish(message);
+    }
+
+    /**
+     * Публикует событие "Нужно сдать экзамен по Spring".
+     *
+     * @param message сообщение
+     * @throws IllegalStateException если шина остановлена
+     */
+    public void publishNeedToPassSpringExamEvent(final String message) {
+        needToPassSpringExamBuffer.publish(message);
+    }
+}
@@ -0,0 +1,27 @@
+package com.daleksandrova.springtasks.task1.bus;
+
+/**
+ * Обработчик событий шины на кольцевом буфере. Каждый обработчик получает все события своего типа
+ * в порядке публикации в собственном потоке.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public interface RingEventHandler {
+
+    /**
+     * Возвращает тип событий, которые обрабатывает обработчик.
+     *
+     * @return тип событий
+     */
+    Class<?> getEventType();
+
+    /**
+     * Обрабатывает событие. Ячейку нельзя сохранять: после возврата она будет переиспользована.
+     *
+     * @param slot       ячейка с событием
+     * @param sequence   номер события
+     * @param endOfBatch последнее ли это событие в пачке, доступной обработчику
+     */
+    void onEvent(MessageSlot slot, long sequence, boolean endOfBatch);
+}
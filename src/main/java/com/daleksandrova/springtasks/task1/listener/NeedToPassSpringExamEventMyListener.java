@@ -1,5 +1,7 @@
 package com.daleksandrova.springtasks.task1.listener;
 
+import com.daleksandrova.springtasks.task1.bus.MessageSlot;
+import com.daleksandrova.springtasks.task1.bus.RingEventHandler;
 import com.daleksandrova.springtasks.task1.event.NeedToPassSpringExamEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,12 +10,13 @@ import org.springframework.stereotype.Component;
 
 /**
  * Слушатель события "Нужно сдать экзамен по Spring". Написан в этом проекте, его можно кастомизировать.
+ * Если включена шина событий (task1.bus.enabled=true), получает события из нее как {@link RingEventHandler}.
  *
  * @author Darya Alexandrova
  * @since 2023.11.15
  */
 @Component
-public class NeedToPassSpringExamEventMyListener {
+public class NeedToPassSpringExamEventMyListener implements RingEventHandler {
 
     /**
      * Логгер.
@@ -39,4 +42,23 @@ public class NeedToPassSpringExamEventMyListener {
     public void onNeedToPassSpringExamEventForAspect(NeedToPassSpringExamEvent needToPassSpringExamEvent) {
         LOG.info("EventListener NeedToPassSpringExamEventMyListener onNeedToPassSpringExamEventForAspect is working...");
     }
+
+    @Override
+    public Class<?> getEventType() {
+        return NeedToPassSpringExamEvent.class;
+    }
+
+    /**
+     * Обработчик событий "Нужно сдать экзамен по Spring" из шины. Логирует один раз на пачку.
+     *
+     * @param slot       ячейка с событием
+     * @param sequence   номер события
+     * @param endOfBatch последнее ли это событие в пачке
+     */
+    @Override
+    public void onEvent(MessageSlot slot, long sequence, boolean endOfBatch) {
+        if (endOfBatch) {
+            LOG.info("RingEventHandler NeedToPassSpringExamEventMyListener is working, last event {}", sequence);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package com.daleksandrova.springtasks.task1.listener;
+
+import com.daleksandrova.springtasks.task1.batch.BatchEventListener;
+import com.daleksandrova.springtasks.task1.bus.MessageSlot;
+import com.daleksandrova.springtasks.task1.bus.RingEventHandler;
+import com.daleksandrova.springtasks.task1.event.NeedToRestEvent;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Слушатель события "Нужно отдохнуть", получающий события пачками. Подходит для частых событий:
+ * счетчик и логирование выполняются один раз на пачку, а не на каждое событие.
+ * Если включена шина событий (task1.bus.enabled=true), получает пачки из нее как {@link RingEventHandler}.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+@Getter
+public class NeedToRestEventBatchListener implements RingEventHandler {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(NeedToRestEventBatchListener.class);
+
+    /**
+     * Часы отдыха. Изменяются только в потоке слушателя: пачек Spring или шины, смотря по тому, куда публикуются события.
+     */
+    private volatile int hoursOfRest = 0;
+
+    /**
+     * Номер последнего обработанного события шины. Изменяется только в потоке обработчика шины.
+     */
+    @Getter(AccessLevel.NONE)
+    private long lastRingSequence = -1;
+
+    /**
+     * Слушатель пачки событий "Нужно отдохнуть".
+     *
+     * @param needToRestEvents события
+     */
+    @BatchEventListener(batchSize = 1000, maxLingerMs = 50)
+    public void onNeedToRestEvents(List<NeedToRestEvent> needToRestEvents) {
+        LOG.info("BatchEventListener NeedToRestEventBatchListener got {} events", needToRestEvents.size());
+        hoursOfRest += needToRestEvents.size();
+    }
+
+    @Override
+    public Class<?> getEventType() {
+        return NeedToRestEvent.class;
+    }
+
+    /**
+     * Обработчик событий "Нужно отдохнуть" из шины. События считаются по номерам, а учитываются в конце пачки.
+     *
+     * @param slot       ячейка с событием
+     * @param sequence   номер события
+     * @param endOfBatch последнее ли это событие в пачке
+     */
+    @Override
+    public void onEvent(MessageSlot slot, long sequence, boolean endOfBatch) {
+        if (endOfBatch) {
+            final int events = (int) (sequence - lastRingSequence);
+            lastRingSequence = sequence;
+            LOG.info("RingEventHandler NeedToRestEventBatchListener got {} events", events);
+            hoursOfRest += events;
+        }
+    }
+}
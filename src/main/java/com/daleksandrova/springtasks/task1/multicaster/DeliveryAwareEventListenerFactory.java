@@ -0,0 +1,48 @@
+package com.daleksandrova.springtasks.task1.multicaster;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.EventListenerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Фабрика слушателей для методов с {@link org.springframework.context.event.EventListener}.
+ * Заменяет стандартную фабрику Spring, чтобы слушатели знали способ доставки событий.
+ * Стоит сразу перед стандартной, поэтому специальные фабрики (например, для транзакционных слушателей) не затрагивает.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+public class DeliveryAwareEventListenerFactory implements EventListenerFactory, BeanFactoryAware, Ordered {
+
+    /**
+     * Фабрика бинов. Передается через {@link BeanFactoryAware}: фабрики слушателей создаются раньше,
+     * чем начинает работать внедрение зависимостей через конструктор.
+     */
+    private BeanFactory beanFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public boolean supportsMethod(Method method) {
+        return true;
+    }
+
+    @Override
+    public ApplicationListener<?> createApplicationListener(String beanName, Class<?> type, Method method) {
+        return new DeliveryAwareListenerMethodAdapter(beanName, type, method, beanFactory.isSingleton(beanName));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
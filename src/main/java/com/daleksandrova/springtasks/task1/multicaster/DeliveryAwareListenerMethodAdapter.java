@@ -0,0 +1,208 @@
+package com.daleksandrova.springtasks.task1.multicaster;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+
+/**
+ * Адаптер метода-слушателя, знающий способ доставки событий, заданный {@link ListenerDelivery}.
+ * Метод-слушатель вызывается через {@link ListenerInvoker}, сгенерированный при создании адаптера, а не через рефлексию.
+ * Если вызов сгенерировать не удалось или бин не является экземпляром класса метода (например, JDK-прокси),
+ * метод вызывается, как в Spring.
+ * <p>
+ * Если у слушателя нет условия, метод ничего не возвращает и принимает само событие (или ничего), событие передается
+ * методу сразу, минуя разбор аргументов, проверку условия и обработку результата Spring. Бин-одиночка при этом
+ * берется из контекста один раз.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class DeliveryAwareListenerMethodAdapter extends ApplicationListenerMethodAdapter {
+
+    /**
+     * Способ доставки, пусто - не задан.
+     */
+    private final DeliveryMode deliveryMode;
+
+    /**
+     * Имя бина и метода-слушателя через точку.
+     */
+    private final String beanMethodName;
+
+    /**
+     * Класс, в котором объявлен метод-слушатель.
+     */
+    private final Class<?> declaringClass;
+
+    /**
+     * Прямой вызов метода-слушателя, пусто - метод вызывается через рефлексию.
+     */
+    private final ListenerInvoker invoker;
+
+    /**
+     * Является ли бин слушателя одиночкой.
+     */
+    private final boolean singleton;
+
+    /**
+     * Типы событий, которые передаются методу сразу, пусто - события всегда обрабатываются, как в Spring.
+     */
+    private final Class<?>[] directEventTypes;
+
+    /**
+     * Бин-одиночка слушателя, пусто - еще не получен из контекста.
+     */
+    private volatile Object singletonBean;
+
+    /**
+     * Конструктор для слушателя, бин которого каждый раз берется из контекста.
+     *
+     * @param beanName    имя бина слушателя
+     * @param targetClass класс слушателя
+     * @param method      метод-слушатель
+     */
+    public DeliveryAwareListenerMethodAdapter(String beanName, Class<?> targetClass, Method method) {
+        this(beanName, targetClass, method, false);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param beanName    имя бина слушателя
+     * @param targetClass класс слушателя
+     * @param method      метод-слушатель
+     * @param singleton   является ли бин слушателя одиночкой
+     */
+    public DeliveryAwareListenerMethodAdapter(String beanName, Class<?> targetClass, Method method, boolean singleton) {
+        super(beanName, targetClass, method);
+        ListenerDelivery delivery = AnnotatedElementUtils.findMergedAnnotation(method, ListenerDelivery.class);
+        if (delivery == null) {
+            delivery = AnnotatedElementUtils.findMergedAnnotation(targetClass, ListenerDelivery.class);
+        }
+        this.deliveryMode = delivery != null ? delivery.value() : null;
+        this.beanMethodName = beanName + "." + method.getName();
+        final Method invokedMethod = BridgeMethodResolver.findBridgedMethod(method);
+        this.declaringClass = invokedMethod.getDeclaringClass();
+        this.invoker = ListenerInvoker.compileOrNull(invokedMethod);
+        this.singleton = singleton;
+        this.directEventTypes = resolveDirectEventTypes(invokedMethod);
+    }
+
+    @Override
+    public void processEvent(ApplicationEvent event) {
+        if (directEventTypes != null && isDirectEvent(event)) {
+            final Object bean = resolveTargetBean();
+            if (declaringClass.isInstance(bean)) {
+                invoke(bean, event);
+                return;
+            }
+        }
+        super.processEvent(event);
+    }
+
+    @Override
+    protected Object doInvoke(Object... args) {
+        if (invoker != null) {
+            final Object bean = resolveTargetBean();
+            if (declaringClass.isInstance(bean)) {
+                return invoke(bean, args.length > 0 ? args[0] : null);
+            }
+        }
+        return super.doInvoke(args);
+    }
+
+    /**
+     * Возвращает способ доставки событий, заданный аннотацией.
+     *
+     * @return способ доставки, пусто - не задан
+     */
+    public DeliveryMode getDeliveryMode() {
+        return deliveryMode;
+    }
+
+    /**
+     * Возвращает имя бина и метода-слушателя через точку. В отличие от идентификатора слушателя, не зависит
+     * от класса бина, поэтому не меняется, когда бин обернут в прокси.
+     *
+     * @return имя бина и метода
+     */
+    public String getBeanMethodName() {
+        return beanMethodName;
+    }
+
+    /**
+     * Вызывает метод-слушатель напрямую. Проверяемые исключения оборачиваются так же, как при вызове через рефлексию Spring.
+     *
+     * @param bean     бин слушателя
+     * @param argument аргумент метода, пусто - у метода нет параметров
+     * @return результат метода
+     */
+    private Object invoke(Object bean, Object argument) {
+        try {
+            return invoker.invoke(bean, argument);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new UndeclaredThrowableException(ex, "Listener method " + getListenerId() + " threw exception");
+        }
+    }
+
+    /**
+     * Возвращает бин слушателя. Бин-одиночка берется из контекста только при первом вызове.
+     *
+     * @return бин слушателя
+     */
+    private Object resolveTargetBean() {
+        if (!singleton) {
+            return getTargetBean();
+        }
+        Object bean = singletonBean;
+        if (bean == null) {
+            bean = getTargetBean();
+            singletonBean = bean;
+        }
+        return bean;
+    }
+
+    /**
+     * Проверяет, передается ли событие методу сразу: событие должно быть экземпляром одного из объявленных типов.
+     *
+     * @param event событие
+     * @return передается сразу/нет
+     */
+    private boolean isDirectEvent(ApplicationEvent event) {
+        for (Class<?> eventType : directEventTypes) {
+            if (eventType.isInstance(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Определяет типы событий, которые можно передавать методу сразу: у слушателя нет условия, метод вызывается
+     * напрямую, ничего не возвращает, а все объявленные типы - события, а не произвольные объекты.
+     *
+     * @param method метод-слушатель
+     * @return типы событий, пусто - события всегда обрабатываются, как в Spring
+     */
+    private Class<?>[] resolveDirectEventTypes(Method method) {
+        if (invoker == null || StringUtils.hasText(getCondition()) || method.getReturnType() != void.class) {
+            return null;
+        }
+        final EventListener annotation = AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class);
+        final Class<?>[] eventTypes = annotation != null && annotation.classes().length > 0 ? annotation.classes()
+                : method.getParameterTypes();
+        if (eventTypes.length == 0 || !Arrays.stream(eventTypes).allMatch(ApplicationEvent.class::isAssignableFrom)) {
+            return null;
+        }
+        return eventTypes;
+    }
+}
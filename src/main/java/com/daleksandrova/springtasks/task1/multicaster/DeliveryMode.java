@@ -0,0 +1,21 @@
+package com.daleksandrova.springtasks.task1.multicaster;
+
+/**
+ * Способ доставки события слушателю.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public enum DeliveryMode {
+
+    /**
+     * Слушатель вызывается в потоке создателя события, как обычно в Spring.
+     */
+    SYNC,
+
+    /**
+     * Событие ставится в ограниченную очередь слушателя и обрабатывается в отдельном потоке.
+     * Создатель события не ждет слушателя, пока очередь не заполнена.
+     */
+    ASYNC
+}
@@ -0,0 +1,430 @@
+package com.daleksandrova.springtasks.task1.multicaster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Управляющий доставкой событий слушателям, умеющий доставлять события асинхронно.
+ * По умолчанию слушатели вызываются синхронно, как в Spring. Асинхронно вызываются слушатели, помеченные
+ * {@link ListenerDelivery} с {@link DeliveryMode#ASYNC}, и слушатели, идентификаторы которых начинаются с одного
+ * из префиксов task1.events.asyncListeners (так можно отвязать от создателей событий слушателей, код которых менять нельзя).
+ * <p>
+ * У каждого асинхронного слушателя своя ограниченная очередь и свой поток, поэтому события одного типа приходят
+ * ему в порядке публикации. События типов из task1.events.unorderedEventTypes доставляются через общий пул потоков
+ * без сохранения порядка. Когда очередь заполнена, создатель события ждет освобождения места; если же событие
+ * создает поток того же исполнителя (слушатель публикует событие самому себе), ожидание никогда не закончится,
+ * поэтому событие отклоняется {@link RejectedExecutionException}.
+ * <p>
+ * Для каждой пары типа события и типа источника один раз строится неизменяемая таблица доставки: слушатели
+ * и способы доставки в порядке вызова. Публикация события читает готовую таблицу без поиска слушателей и без
+ * копирования списков. При добавлении или удалении слушателей таблицы строятся заново.
+ * Слушатели, отключенные в {@link ListenerRegistry}, в таблицы не попадают.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+public class ExecutorEventMulticaster extends SimpleApplicationEventMulticaster implements DisposableBean {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorEventMulticaster.class);
+
+    /**
+     * Интервал проверки остановки исполнителя при ожидании места в очереди, мс.
+     */
+    private static final long SPACE_WAIT_CHECK_MS = 100;
+
+    /**
+     * Префиксы идентификаторов слушателей, которым события доставляются асинхронно.
+     */
+    private final Set<String> asyncListenerPrefixes;
+
+    /**
+     * Типы событий, порядок доставки которых не важен.
+     */
+    private final Set<String> unorderedEventTypes;
+
+    /**
+     * Размер очереди асинхронного слушателя.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Общий пул потоков для событий, порядок доставки которых не важен.
+     */
+    private final ExecutorService sharedExecutor;
+
+    /**
+     * Реестр отключенных слушателей.
+     */
+    private final ListenerRegistry listenerRegistry;
+
+    /**
+     * Способы доставки по слушателям.
+     */
+    private final Map<ApplicationListener<?>, DeliveryMode> deliveryModes = new ConcurrentHashMap<>();
+
+    /**
+     * Исполнители асинхронных слушателей.
+     */
+    private final Map<ApplicationListener<?>, ExecutorService> listenerExecutors = new ConcurrentHashMap<>();
+
+    /**
+     * Таблицы доставки по типу события и типу источника.
+     */
+    private final Map<Class<?>, Map<Class<?>, DispatchTable>> dispatchTables = new ConcurrentHashMap<>();
+
+    /**
+     * Поколение набора слушателей, увеличивается при каждом его изменении.
+     */
+    private final AtomicInteger listenersGeneration = new AtomicInteger();
+
+    /**
+     * Счетчик потоков слушателей для имен потоков.
+     */
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    /**
+     * Остановлен ли управляющий доставкой.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Конструктор.
+     *
+     * @param asyncListeners      префиксы идентификаторов асинхронных слушателей через запятую
+     * @param unorderedEventTypes типы событий (простые или полные имена классов) через запятую,
+     *                            порядок доставки которых не важен
+     * @param queueCapacity       размер очереди асинхронного слушателя
+     * @param sharedThreads       количество потоков общего пула
+     * @param listenerRegistry    реестр отключенных слушателей
+     */
+    public ExecutorEventMulticaster(@Value("${task1.events.asyncListeners:}") String asyncListeners,
+                                    @Value("${task1.events.unorderedEventTypes:}") String unorderedEventTypes,
+                                    @Value("${task1.events.queueCapacity:1024}") int queueCapacity,
+                                    @Value("${task1.events.sharedThreads:4}") int sharedThreads,
+                                    ListenerRegistry listenerRegistry) {
+        this.asyncListenerPrefixes = StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(asyncListeners));
+        this.unorderedEventTypes = StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(unorderedEventTypes));
+        this.queueCapacity = queueCapacity;
+        this.sharedExecutor = newExecutor(sharedThreads, "event-listener-shared");
+        this.listenerRegistry = listenerRegistry;
+    }
+
+    @Override
+    public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+        final ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        if (!isDispatchCacheable(event, type)) {
+            final ListenerRegistry.Snapshot registrySnapshot = listenerRegistry.getSnapshot();
+            for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+                if (!registrySnapshot.isEnabled(listener)) {
+                    continue;
+                }
+                deliver(listener, deliveryModes.computeIfAbsent(listener, this::resolveDeliveryMode), event);
+            }
+            return;
+        }
+        final DispatchTable table = getDispatchTable(event, type);
+        for (int i = 0; i < table.listeners.length; i++) {
+            deliver(table.listeners[i], table.modes[i], event);
+        }
+    }
+
+    @Override
+    public void addApplicationListener(ApplicationListener<?> listener) {
+        super.addApplicationListener(listener);
+        invalidateDispatchTables();
+    }
+
+    @Override
+    public void addApplicationListenerBean(String listenerBeanName) {
+        super.addApplicationListenerBean(listenerBeanName);
+        invalidateDispatchTables();
+    }
+
+    @Override
+    public void removeApplicationListener(ApplicationListener<?> listener) {
+        super.removeApplicationListener(listener);
+        invalidateDispatchTables();
+        release(listener);
+    }
+
+    @Override
+    public void removeApplicationListenerBean(String listenerBeanName) {
+        super.removeApplicationListenerBean(listenerBeanName);
+        invalidateDispatchTables();
+    }
+
+    @Override
+    public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
+        super.removeApplicationListeners(predicate);
+        invalidateDispatchTables();
+        deliveryModes.keySet().stream().filter(predicate).collect(Collectors.toList()).forEach(this::release);
+    }
+
+    @Override
+    public void removeApplicationListenerBeans(Predicate<String> predicate) {
+        super.removeApplicationListenerBeans(predicate);
+        invalidateDispatchTables();
+    }
+
+    @Override
+    public void removeAllListeners() {
+        super.removeAllListeners();
+        invalidateDispatchTables();
+        new ArrayList<>(deliveryModes.keySet()).forEach(this::release);
+    }
+
+    /**
+     * Останавливает потоки слушателей. Уже поставленные в очереди события дообрабатываются.
+     */
+    @Override
+    public void destroy() {
+        closed = true;
+        listenerExecutors.values().forEach(ExecutorService::shutdown);
+        sharedExecutor.shutdown();
+    }
+
+    /**
+     * Доставляет событие слушателю.
+     *
+     * @param listener слушатель
+     * @param mode     способ доставки
+     * @param event    событие
+     */
+    private void deliver(ApplicationListener<?> listener, DeliveryMode mode, ApplicationEvent event) {
+        if (mode == DeliveryMode.SYNC) {
+            invokeListener(listener, event);
+            return;
+        }
+        if (closed) {
+            throw new RejectedExecutionException("Event multicaster is shut down");
+        }
+        final ExecutorService executor = isOrdered(event)
+                ? listenerExecutors.computeIfAbsent(listener, l -> newExecutor(1, "event-listener-" + threadCounter.incrementAndGet()))
+                : sharedExecutor;
+        if (closed) {
+            // исполнитель создан параллельно с остановкой, и destroy() мог его не увидеть
+            executor.shutdown();
+        }
+        executor.execute(() -> invokeAsync(listener, event));
+    }
+
+    /**
+     * Забывает удаленного слушателя: способ доставки и его исполнитель. Уже поставленные в очередь события дообрабатываются.
+     *
+     * @param listener слушатель
+     */
+    private void release(ApplicationListener<?> listener) {
+        deliveryModes.remove(listener);
+        final ExecutorService executor = listenerExecutors.remove(listener);
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Проверяет, определяется ли набор слушателей события только классом события и классом источника.
+     * Для событий с обобщенными типами (в том числе событий-оберток произвольных объектов) слушатели ищутся каждый раз.
+     *
+     * @param event событие
+     * @param type  тип события
+     * @return можно/нельзя использовать таблицу доставки
+     */
+    private static boolean isDispatchCacheable(ApplicationEvent event, ResolvableType type) {
+        return !(event instanceof PayloadApplicationEvent) && type.resolve() == event.getClass() && !type.hasGenerics();
+    }
+
+    /**
+     * Возвращает таблицу доставки события, при необходимости строит ее.
+     *
+     * @param event событие
+     * @param type  тип события
+     * @return таблица доставки
+     */
+    private DispatchTable getDispatchTable(ApplicationEvent event, ResolvableType type) {
+        final Class<?> sourceType = event.getSource() != null ? event.getSource().getClass() : Void.class;
+        final Map<Class<?>, DispatchTable> bySource = dispatchTables.computeIfAbsent(event.getClass(), c -> new ConcurrentHashMap<>());
+        final int generation = listenersGeneration.get();
+        final ListenerRegistry.Snapshot registrySnapshot = listenerRegistry.getSnapshot();
+        DispatchTable table = bySource.get(sourceType);
+        if (table == null || table.generation != generation || table.registrySnapshot != registrySnapshot) {
+            table = new DispatchTable(generation, registrySnapshot, getApplicationListeners(event, type));
+            bySource.put(sourceType, table);
+        }
+        return table;
+    }
+
+    /**
+     * Сбрасывает таблицы доставки после изменения набора слушателей.
+     */
+    private void invalidateDispatchTables() {
+        // поколение увеличивается до очистки: таблица, построенная параллельно по старому набору, не будет использована
+        listenersGeneration.incrementAndGet();
+        dispatchTables.clear();
+    }
+
+    /**
+     * Вызывает слушателя в его потоке. Ошибка слушателя не может дойти до создателя события, поэтому логируется,
+     * если не задан обработчик ошибок.
+     *
+     * @param listener слушатель
+     * @param event    событие
+     */
+    private void invokeAsync(ApplicationListener<?> listener, ApplicationEvent event) {
+        try {
+            invokeListener(listener, event);
+        } catch (RuntimeException | Error ex) {
+            LOG.error("Async listener {} failed on {}", listener, event.getClass().getSimpleName(), ex);
+        }
+    }
+
+    /**
+     * Определяет способ доставки событий слушателю.
+     *
+     * @param listener слушатель
+     * @return способ доставки
+     */
+    private DeliveryMode resolveDeliveryMode(ApplicationListener<?> listener) {
+        if (listener instanceof DeliveryAwareListenerMethodAdapter
+                && ((DeliveryAwareListenerMethodAdapter) listener).getDeliveryMode() != null) {
+            return ((DeliveryAwareListenerMethodAdapter) listener).getDeliveryMode();
+        }
+        if (listener instanceof SmartApplicationListener) {
+            final String listenerId = ((SmartApplicationListener) listener).getListenerId();
+            for (String prefix : asyncListenerPrefixes) {
+                if (listenerId.startsWith(prefix)) {
+                    return DeliveryMode.ASYNC;
+                }
+            }
+        }
+        return DeliveryMode.SYNC;
+    }
+
+    /**
+     * Проверяет, важен ли порядок доставки событий этого типа.
+     *
+     * @param event событие
+     * @return важен/нет
+     */
+    private boolean isOrdered(ApplicationEvent event) {
+        return unorderedEventTypes.isEmpty() || !(unorderedEventTypes.contains(event.getClass().getSimpleName())
+                || unorderedEventTypes.contains(event.getClass().getName()));
+    }
+
+    /**
+     * Создает исполнитель с ограниченной очередью. Когда очередь заполнена, отправитель ждет освобождения места,
+     * а не выполняет задачу сам, чтобы не нарушить порядок доставки. Ожидание прерывается остановкой исполнителя,
+     * а поток самого исполнителя не ждет вовсе: очередь, кроме него, может быть некому разобрать.
+     *
+     * @param threads    количество потоков
+     * @param threadName имя потоков
+     * @return исполнитель
+     */
+    private ExecutorService newExecutor(int threads, String threadName) {
+        final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+        final RejectedExecutionHandler waitForSpace = (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Event multicaster is shut down");
+            }
+            if (workers.contains(Thread.currentThread())) {
+                throw new RejectedExecutionException("Queue of " + threadName + " is full, the event is published from its own thread");
+            }
+            try {
+                // ожидание по частям: исполнитель могут остановить, пока отправитель ждет места
+                while (!executor.getQueue().offer(task, SPACE_WAIT_CHECK_MS, TimeUnit.MILLISECONDS)) {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Event multicaster is shut down");
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(ex);
+            }
+            // исполнитель остановили сразу после постановки в очередь: его потоки могли уже завершиться
+            if (executor.isShutdown() && executor.getQueue().remove(task)) {
+                throw new RejectedExecutionException("Event multicaster is shut down");
+            }
+        };
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    workers.add(thread);
+                    return thread;
+                }, waitForSpace);
+    }
+
+    /**
+     * Неизменяемая таблица доставки событий одного типа.
+     */
+    private final class DispatchTable {
+
+        /**
+         * Поколение набора слушателей, по которому построена таблица.
+         */
+        private final int generation;
+
+        /**
+         * Снимок отключенных слушателей, по которому построена таблица.
+         */
+        private final ListenerRegistry.Snapshot registrySnapshot;
+
+        /**
+         * Слушатели в порядке вызова.
+         */
+        private final ApplicationListener<?>[] listeners;
+
+        /**
+         * Способы доставки слушателям.
+         */
+        private final DeliveryMode[] modes;
+
+        /**
+         * Конструктор.
+         *
+         * @param generation       поколение набора слушателей
+         * @param registrySnapshot снимок отключенных слушателей
+         * @param listeners        слушатели в порядке вызова
+         */
+        private DispatchTable(int generation, ListenerRegistry.Snapshot registrySnapshot,
+                              Collection<ApplicationListener<?>> listeners) {
+            this.generation = generation;
+            this.registrySnapshot = registrySnapshot;
+            this.listeners = listeners.stream().filter(registrySnapshot::isEnabled).toArray(ApplicationListener<?>[]::new);
+            this.modes = new DeliveryMode[this.listeners.length];
+            for (int i = 0; i < this.listeners.length; i++) {
+                modes[i] = deliveryModes.computeIfAbsent(this.listeners[i], ExecutorEventMulticaster.this::resolveDeliveryMode);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.daleksandrova.springtasks.task1.multicaster;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Способ доставки событий методу-слушателю ({@link org.springframework.context.event.EventListener}).
+ * На классе задает способ доставки для всех его методов-слушателей.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ListenerDelivery {
+
+    /**
+     * Способ доставки.
+     *
+     * @return способ доставки
+     */
+    DeliveryMode value();
+}
@@ -0,0 +1,161 @@
+package com.daleksandrova.springtasks.task1.multicaster;
+
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Прямой вызов метода-слушателя без рефлексии.
+ * Реализация генерируется один раз при создании слушателя через {@link LambdaMetafactory}, после чего вызов
+ * метода - обычный виртуальный вызов, который JIT может встроить.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public interface ListenerInvoker {
+
+    /**
+     * Вызывает метод-слушатель.
+     *
+     * @param bean  бин слушателя
+     * @param event аргумент метода, пусто - у метода нет параметров
+     * @return результат метода, пусто - метод ничего не возвращает
+     */
+    Object invoke(Object bean, Object event);
+
+    /**
+     * Генерирует прямой вызов метода-слушателя.
+     *
+     * @param method метод-слушатель
+     * @return прямой вызов или пусто, если метод так вызвать нельзя (статический или больше одного параметра)
+     * @throws ReflectiveOperationException если метод недоступен
+     */
+    static ListenerInvoker compile(Method method) throws ReflectiveOperationException {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() > 1) {
+            return null;
+        }
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        final MethodHandle target = lookup.unreflect(method);
+        final boolean noArgs = method.getParameterCount() == 0;
+        final boolean returnsVoid = method.getReturnType() == void.class;
+        try {
+            if (returnsVoid) {
+                final MethodType samType = noArgs ? MethodType.methodType(void.class, Object.class)
+                        : MethodType.methodType(void.class, Object.class, Object.class);
+                final CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(noArgs ? NoArgsVoid.class : OneArgVoid.class),
+                        samType, target, target.type());
+                if (noArgs) {
+                    final NoArgsVoid invoker = (NoArgsVoid) callSite.getTarget().invoke();
+                    return (bean, event) -> {
+                        invoker.accept(bean);
+                        return null;
+                    };
+                }
+                final OneArgVoid invoker = (OneArgVoid) callSite.getTarget().invoke();
+                return (bean, event) -> {
+                    invoker.accept(bean, event);
+                    return null;
+                };
+            }
+            final MethodType samType = noArgs ? MethodType.methodType(Object.class, Object.class)
+                    : MethodType.methodType(Object.class, Object.class, Object.class);
+            final CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(noArgs ? NoArgsValue.class : OneArgValue.class),
+                    samType, target, target.type().changeReturnType(method.getReturnType().isPrimitive()
+                            ? target.type().wrap().returnType() : method.getReturnType()));
+            if (noArgs) {
+                final NoArgsValue invoker = (NoArgsValue) callSite.getTarget().invoke();
+                return (bean, event) -> invoker.apply(bean);
+            }
+            final OneArgValue invoker = (OneArgValue) callSite.getTarget().invoke();
+            return invoker::apply;
+        } catch (ReflectiveOperationException | RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to compile invoker for " + method, ex);
+        }
+    }
+
+    /**
+     * Генерирует прямой вызов метода-слушателя, а если это не удалось, логирует причину.
+     *
+     * @param method метод-слушатель
+     * @return прямой вызов, пусто - метод будет вызываться через рефлексию
+     */
+    static ListenerInvoker compileOrNull(Method method) {
+        try {
+            return compile(method);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            LoggerFactory.getLogger(ListenerInvoker.class).debug("Listener method {} will be invoked reflectively", method, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Метод без параметров, ничего не возвращающий.
+     */
+    @FunctionalInterface
+    interface NoArgsVoid {
+
+        /**
+         * Вызов.
+         *
+         * @param bean бин слушателя
+         */
+        void accept(Object bean);
+    }
+
+    /**
+     * Метод с параметром-событием, ничего не возвращающий.
+     */
+    @FunctionalInterface
+    interface OneArgVoid {
+
+        /**
+         * Вызов.
+         *
+         * @param bean  бин слушателя
+         * @param event событие
+         */
+        void accept(Object bean, Object event);
+    }
+
+    /**
+     * Метод без параметров, возвращающий результат.
+     */
+    @FunctionalInterface
+    interface NoArgsValue {
+
+        /**
+         * Вызов.
+         *
+         * @param bean бин слушателя
+         * @return результат
+         */
+        Object apply(Object bean);
+    }
+
+    /**
+     * Метод с параметром-событием, возвращающий результат.
+     */
+    @FunctionalInterface
+    interface OneArgValue {
+
+        /**
+         * Вызов.
+         *
+         * @param bean  бин слушателя
+         * @param event событие
+         * @return результат
+         */
+        Object apply(Object bean, Object event);
+    }
+}
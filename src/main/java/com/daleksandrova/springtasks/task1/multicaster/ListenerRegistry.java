@@ -0,0 +1,157 @@
+package com.daleksandrova.springtasks.task1.multicaster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Реестр отключенных слушателей.
+ * Слушатели отключаются и включаются во время работы приложения по идентификатору (для методов-слушателей - полное
+ * имя метода с параметрами) или его началу. Методы-слушатели можно указывать и как имя бина и метода через точку
+ * (needToRestEventExternalListener.onNeedToRestEvent): такое имя не зависит от прокси вокруг бина.
+ * В отличие от удаления слушателя из {@link org.springframework.context.event.ApplicationEventMulticaster},
+ * отключенного слушателя можно включить обратно, а в отличие от аспекта, отключенный слушатель не вызывается вовсе.
+ * <p>
+ * Набор отключенных слушателей хранится неизменяемым снимком, который заменяется целиком при каждом изменении.
+ * {@link ExecutorEventMulticaster} учитывает снимок при построении таблиц доставки и строит их заново, когда
+ * снимок сменился, поэтому отключенные слушатели ничего не стоят при публикации событий.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+public class ListenerRegistry {
+
+    /**
+     * Текущий снимок отключенных слушателей.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Конструктор.
+     *
+     * @param disabledListeners идентификаторы слушателей, отключенных при запуске, через запятую
+     */
+    public ListenerRegistry(@Value("${task1.events.disabledListeners:}") String disabledListeners) {
+        this.snapshot = new Snapshot(StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(disabledListeners)));
+    }
+
+    /**
+     * Отключает слушателей.
+     *
+     * @param listenerId идентификатор слушателя, его начало или имя бина и метода
+     */
+    public synchronized void disable(String listenerId) {
+        final Set<String> disabled = new LinkedHashSet<>(snapshot.disabledIds);
+        if (disabled.add(listenerId)) {
+            snapshot = new Snapshot(disabled);
+        }
+    }
+
+    /**
+     * Включает слушателей, отключенных ранее с тем же идентификатором.
+     *
+     * @param listenerId идентификатор слушателя, его начало или имя бина и метода, переданный при отключении
+     */
+    public synchronized void enable(String listenerId) {
+        final Set<String> disabled = new LinkedHashSet<>(snapshot.disabledIds);
+        if (disabled.remove(listenerId)) {
+            snapshot = new Snapshot(disabled);
+        }
+    }
+
+    /**
+     * Заменяет одних слушателей другими: отключает первых и включает вторых одновременно,
+     * так что ни одно событие не будет доставлено обоим или ни одному из них.
+     *
+     * @param disabledId идентификатор отключаемых слушателей
+     * @param enabledId  идентификатор включаемых слушателей, переданный при их отключении
+     */
+    public synchronized void swap(String disabledId, String enabledId) {
+        final Set<String> disabled = new LinkedHashSet<>(snapshot.disabledIds);
+        disabled.remove(enabledId);
+        disabled.add(disabledId);
+        snapshot = new Snapshot(disabled);
+    }
+
+    /**
+     * Возвращает идентификаторы (или их начала) отключенных слушателей.
+     *
+     * @return идентификаторы
+     */
+    public Set<String> getDisabledListeners() {
+        return snapshot.disabledIds;
+    }
+
+    /**
+     * Возвращает текущий снимок отключенных слушателей.
+     *
+     * @return снимок
+     */
+    Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Возвращает идентификатор слушателя. У слушателей без идентификатора это имя класса.
+     *
+     * @param listener слушатель
+     * @return идентификатор
+     */
+    static String getListenerId(ApplicationListener<?> listener) {
+        if (listener instanceof SmartApplicationListener) {
+            final String listenerId = ((SmartApplicationListener) listener).getListenerId();
+            if (!listenerId.isEmpty()) {
+                return listenerId;
+            }
+        }
+        return listener.getClass().getName();
+    }
+
+    /**
+     * Неизменяемый снимок отключенных слушателей.
+     */
+    static final class Snapshot {
+
+        /**
+         * Идентификаторы (или их начала) отключенных слушателей.
+         */
+        private final Set<String> disabledIds;
+
+        /**
+         * Конструктор.
+         *
+         * @param disabledIds идентификаторы (или их начала) отключенных слушателей
+         */
+        private Snapshot(Set<String> disabledIds) {
+            this.disabledIds = Collections.unmodifiableSet(new LinkedHashSet<>(disabledIds));
+        }
+
+        /**
+         * Проверяет, включен ли слушатель.
+         *
+         * @param listener слушатель
+         * @return включен/нет
+         */
+        boolean isEnabled(ApplicationListener<?> listener) {
+            if (disabledIds.isEmpty()) {
+                return true;
+            }
+            final String listenerId = getListenerId(listener);
+            final String beanMethodName = listener instanceof DeliveryAwareListenerMethodAdapter
+                    ? ((DeliveryAwareListenerMethodAdapter) listener).getBeanMethodName() : null;
+            for (String disabledId : disabledIds) {
+                if (listenerId.startsWith(disabledId) || disabledId.equals(beanMethodName)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
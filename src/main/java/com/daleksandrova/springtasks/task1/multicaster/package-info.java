@@ -0,0 +1,7 @@
+/**
+ * Пакет доставки событий слушателям.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+package com.daleksandrova.springtasks.task1.multicaster;
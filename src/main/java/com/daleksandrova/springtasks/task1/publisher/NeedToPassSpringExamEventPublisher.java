@@ -1,11 +1,16 @@
 package com.daleksandrova.springtasks.task1.publisher;
 
+import com.daleksandrova.springtasks.task1.bus.RingEventBus;
 import com.daleksandrova.springtasks.task1.event.NeedToPassSpringExamEvent;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 /**
  * Создатель события "Нужно сдать экзамен по Spring".
+ * Если включена шина событий (task1.bus.enabled=true), событие публикуется в нее, а не через Spring:
+ * его получают обработчики шины ({@link com.daleksandrova.springtasks.task1.bus.RingEventHandler}),
+ * но не слушатели с {@link org.springframework.context.event.EventListener}.
  *
  * @author Darya Alexandrova
  * @since 2023.11.15
@@ -18,13 +23,20 @@ public class NeedToPassSpringExamEventPublisher {
      */
     private final ApplicationEventPublisher applicationEventPublisher;
 
+    /**
+     * Шина событий, пусто - выключена.
+     */
+    private final RingEventBus ringEventBus;
+
     /**
      * Конструктор.
      *
      * @param applicationEventPublisher создатель событий приложения
+     * @param ringEventBus              шина событий, если включена
      */
-    public NeedToPassSpringExamEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+    public NeedToPassSpringExamEventPublisher(ApplicationEventPublisher applicationEventPublisher, ObjectProvider<RingEventBus> ringEventBus) {
         this.applicationEventPublisher = applicationEventPublisher;
+        this.ringEventBus = ringEventBus.getIfAvailable();
     }
 
     /**
@@ -33,6 +45,10 @@ public class NeedToPassSpringExamEventPublisher {
      * @param message сообщение
      */
     public void publishNeedToPassSpringExamEvent(final String message) {
+        if (ringEventBus != null) {
+            ringEventBus.publishNeedToPassSpringExamEvent(message);
+            return;
+        }
         NeedToPassSpringExamEvent needToPassSpringExamEvent = new NeedToPassSpringExamEvent(this, message);
         applicationEventPublisher.publishEvent(needToPassSpringExamEvent);
     }
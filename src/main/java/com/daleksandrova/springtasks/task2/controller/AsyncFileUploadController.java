@@ -0,0 +1,105 @@
+package com.daleksandrova.springtasks.task2.controller;
+
+import com.daleksandrova.springtasks.task2.dto.AsyncUploadStats;
+import com.daleksandrova.springtasks.task2.dto.UploadResponse;
+import com.daleksandrova.springtasks.task2.service.AsyncUploadExecutor;
+import com.daleksandrova.springtasks.task2.service.FileService;
+import org.apache.commons.fileupload.FileUploadException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.daleksandrova.springtasks.task2.controller.FileUploadController.FILE_API_PATH;
+
+/**
+ * Контроллер для асинхронной загрузки файлов (включается fileStorage.async.enabled=true).
+ * Поток контейнера сервлетов освобождается сразу: тело запроса читается и сохраняется в хранилище
+ * на исполнителе {@link AsyncUploadExecutor}, поэтому количество одновременных загрузок не ограничено пулом потоков контейнера.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@RestController
+@RequestMapping(FILE_API_PATH)
+@ConditionalOnProperty(name = "fileStorage.async.enabled", havingValue = "true")
+public class AsyncFileUploadController {
+
+    /**
+     * Путь для асинхронной загрузки файлов.
+     */
+    public static final String FILE_ASYNC_UPLOAD_PATH = "/upload/async";
+
+    /**
+     * Путь для статистики асинхронных загрузок.
+     */
+    public static final String FILE_ASYNC_UPLOAD_STATS_PATH = "/upload/async/stats";
+
+    /**
+     * Сервис файлов.
+     */
+    private final FileService fileService;
+
+    /**
+     * Исполнитель асинхронных загрузок.
+     */
+    private final AsyncUploadExecutor asyncUploadExecutor;
+
+    /**
+     * Конструктор.
+     *
+     * @param fileService         сервис файлов
+     * @param asyncUploadExecutor исполнитель асинхронных загрузок
+     */
+    public AsyncFileUploadController(FileService fileService, AsyncUploadExecutor asyncUploadExecutor) {
+        this.fileService = fileService;
+        this.asyncUploadExecutor = asyncUploadExecutor;
+    }
+
+    /**
+     * Загружает файл потоком на исполнителе асинхронных загрузок.
+     * Если превышен лимит одновременных загрузок, отвечает 503.
+     *
+     * @param request  запрос
+     * @param response ответ
+     * @return ответ загрузки
+     */
+    @RequestMapping(value = FILE_ASYNC_UPLOAD_PATH, method = {RequestMethod.POST},
+            consumes = {MediaType.MULTIPART_FORM_DATA_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<UploadResponse> uploadFile(final HttpServletRequest request,
+                                                        final HttpServletResponse response) {
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            return asyncUploadExecutor.submit(() -> {
+                try {
+                    return StreamingMultipartUpload.upload(request, response, fileService);
+                } catch (IOException | FileUploadException ex) {
+                    throw new CompletionException(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        }
+    }
+
+    /**
+     * Возвращает статистику асинхронных загрузок.
+     *
+     * @return статистика
+     */
+    @RequestMapping(value = FILE_ASYNC_UPLOAD_STATS_PATH, method = {RequestMethod.GET}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public AsyncUploadStats stats() {
+        return asyncUploadExecutor.getStats();
+    }
+}
@@ -0,0 +1,180 @@
+package com.daleksandrova.springtasks.task2.controller;
+
+import com.daleksandrova.springtasks.task2.dto.FileProperties;
+import com.daleksandrova.springtasks.task2.dto.UploadResponse;
+import com.daleksandrova.springtasks.task2.dto.UploadSessionDto;
+import com.daleksandrova.springtasks.task2.service.ChunkedUploadService;
+import com.daleksandrova.springtasks.task2.service.UploadSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.daleksandrova.springtasks.task2.controller.FileUploadController.FILE_API_PATH;
+
+/**
+ * Контроллер для загрузки файлов частями.
+ * Клиент начинает сессию, загружает части (в том числе параллельно и повторно) и завершает сессию.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@RestController
+@RequestMapping(FILE_API_PATH)
+public class ChunkedUploadController {
+
+    /**
+     * Путь для работы с сессиями загрузки.
+     */
+    public static final String UPLOAD_SESSIONS_PATH = "/upload/sessions";
+
+    /**
+     * Путь для работы с сессией загрузки.
+     */
+    public static final String UPLOAD_SESSION_PATH = UPLOAD_SESSIONS_PATH + "/{sessionId}";
+
+    /**
+     * Путь для загрузки части файла.
+     */
+    public static final String UPLOAD_CHUNK_PATH = UPLOAD_SESSION_PATH + "/chunks/{index}";
+
+    /**
+     * Путь для завершения загрузки.
+     */
+    public static final String UPLOAD_COMPLETE_PATH = UPLOAD_SESSION_PATH + "/complete";
+
+    /**
+     * Размер части по умолчанию.
+     */
+    private static final String DEFAULT_CHUNK_SIZE = "8388608";
+
+    /**
+     * Сервис загрузки файлов частями.
+     */
+    private final ChunkedUploadService chunkedUploadService;
+
+    /**
+     * Конструктор.
+     *
+     * @param chunkedUploadService сервис загрузки файлов частями
+     */
+    public ChunkedUploadController(ChunkedUploadService chunkedUploadService) {
+        this.chunkedUploadService = chunkedUploadService;
+    }
+
+    /**
+     * Начинает сессию загрузки.
+     *
+     * @param fileProperties свойства загружаемого файла
+     * @param chunkSize      размер части
+     * @return сессия загрузки
+     */
+    @RequestMapping(value = UPLOAD_SESSIONS_PATH, method = {RequestMethod.POST},
+            consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public UploadSessionDto initiate(@RequestBody final FileProperties fileProperties,
+                                     @RequestParam(value = "chunkSize", defaultValue = DEFAULT_CHUNK_SIZE) final long chunkSize) {
+        return chunkedUploadService.initiate(fileProperties, chunkSize).toDto();
+    }
+
+    /**
+     * Возвращает состояние сессии загрузки, в том числе полученные части, чтобы возобновить загрузку.
+     *
+     * @param sessionId идентификатор сессии
+     * @return сессия загрузки
+     */
+    @RequestMapping(value = UPLOAD_SESSION_PATH, method = {RequestMethod.GET}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public UploadSessionDto status(@PathVariable("sessionId") final String sessionId) {
+        return getSession(sessionId).toDto();
+    }
+
+    /**
+     * Загружает часть файла.
+     *
+     * @param sessionId идентификатор сессии
+     * @param index     номер части
+     * @param request   запрос
+     * @return ответ загрузки
+     * @throws IOException исключение
+     */
+    @RequestMapping(value = UPLOAD_CHUNK_PATH, method = {RequestMethod.PUT},
+            consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public UploadResponse uploadChunk(@PathVariable("sessionId") final String sessionId,
+                                      @PathVariable("index") final int index,
+                                      final HttpServletRequest request) throws IOException {
+        final UploadSession session = getSession(sessionId);
+        try (final InputStream inputStream = request.getInputStream()) {
+            chunkedUploadService.writeChunk(session, index, inputStream);
+        }
+        return new UploadResponse(true, "CHUNK OK");
+    }
+
+    /**
+     * Завершает загрузку.
+     *
+     * @param sessionId идентификатор сессии
+     * @return ответ загрузки
+     */
+    @RequestMapping(value = UPLOAD_COMPLETE_PATH, method = {RequestMethod.POST}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public UploadResponse complete(@PathVariable("sessionId") final String sessionId) {
+        final String fileId = chunkedUploadService.complete(getSession(sessionId));
+        return new UploadResponse(true, "UPLOAD OK", fileId);
+    }
+
+    /**
+     * Прерывает загрузку.
+     *
+     * @param sessionId идентификатор сессии
+     * @return ответ загрузки
+     */
+    @RequestMapping(value = UPLOAD_SESSION_PATH, method = {RequestMethod.DELETE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public UploadResponse abort(@PathVariable("sessionId") final String sessionId) {
+        chunkedUploadService.abort(getSession(sessionId));
+        return new UploadResponse(true, "UPLOAD ABORTED");
+    }
+
+    /**
+     * Обрабатывает некорректные параметры загрузки.
+     *
+     * @param ex исключение
+     * @return ответ загрузки
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public UploadResponse handleIllegalArgument(IllegalArgumentException ex) {
+        return new UploadResponse(false, ex.getMessage());
+    }
+
+    /**
+     * Обрабатывает попытку завершить незаконченную или уже завершенную загрузку.
+     *
+     * @param ex исключение
+     * @return ответ загрузки
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public UploadResponse handleIllegalState(IllegalStateException ex) {
+        return new UploadResponse(false, ex.getMessage());
+    }
+
+    /**
+     * Возвращает сессию загрузки.
+     *
+     * @param sessionId идентификатор сессии
+     * @return сессия загрузки
+     */
+    private UploadSession getSession(String sessionId) {
+        return chunkedUploadService.findSession(sessionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session " + sessionId + " is not found"));
+    }
+}
@@ -0,0 +1,250 @@
+package com.daleksandrova.springtasks.task2.controller;
+
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
+import com.daleksandrova.springtasks.task2.io.ContentCodec;
+import com.daleksandrova.springtasks.task2.service.FileManager;
+import com.daleksandrova.springtasks.task2.service.FileService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static com.daleksandrova.springtasks.task2.controller.FileUploadController.FILE_API_PATH;
+
+/**
+ * Контроллер для скачивания файлов.
+ * Поддерживает частичную загрузку (Range) и условные запросы (ETag, If-None-Match, If-Range).
+ * Без копирования через кучу контент отдается только средствами sendfile контейнера сервлетов, если он это
+ * поддерживает и ответ не меньше порога. Иначе контент пишется в поток ответа сервлета через менеджер файлов
+ * и копируется в массив в куче: поток ответа не файловый канал и не сокет. Небольшие файлы, хранящиеся прямо в БД,
+ * отдаются из БД, сжатые - распаковываются на лету.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@RestController
+@RequestMapping(FILE_API_PATH)
+public class FileDownloadController {
+
+    /**
+     * Путь для скачивания файлов.
+     */
+    public static final String FILE_DOWNLOAD_PATH = "/download/{fileId}";
+
+    /**
+     * Атрибут запроса, которым Tomcat сообщает о поддержке sendfile.
+     */
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+    /**
+     * Атрибут запроса с путем к файлу для sendfile.
+     */
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+    /**
+     * Атрибут запроса с позицией начала для sendfile.
+     */
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+    /**
+     * Атрибут запроса с позицией конца (не включительно) для sendfile.
+     */
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Минимальный размер ответа, начиная с которого используется sendfile (как у DefaultServlet Tomcat).
+     */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    /**
+     * Сервис файлов.
+     */
+    private final FileService fileService;
+
+    /**
+     * Менеджер файлов.
+     */
+    private final FileManager fileManager;
+
+    /**
+     * Конструктор.
+     *
+     * @param fileService сервис файлов
+     * @param fileManager менеджер файлов
+     */
+    public FileDownloadController(FileService fileService, FileManager fileManager) {
+        this.fileService = fileService;
+        this.fileManager = fileManager;
+    }
+
+    /**
+     * Скачивает файл целиком или его часть.
+     *
+     * @param fileId   идентификатор файла
+     * @param request  запрос
+     * @param response ответ
+     * @throws IOException исключение
+     */
+    @RequestMapping(value = FILE_DOWNLOAD_PATH, method = {RequestMethod.GET})
+    public void downloadFile(@PathVariable("fileId") final String fileId,
+                             final HttpServletRequest request,
+                             final HttpServletResponse response) throws IOException {
+        final Optional<FileEntityDto> file = fileService.findFile(fileId);
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        final FileEntityDto fileEntityDto = file.get();
+        final long contentSize = fileEntityDto.getContentSize();
+        final String eTag = eTagOf(fileEntityDto);
+
+        if (eTagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = contentSize - 1;
+        boolean partial = false;
+        final String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        final String ifRangeHeader = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRangeHeader == null || ifRangeHeader.equals(eTag))) {
+            final List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException ex) {
+                sendRangeNotSatisfiable(response, contentSize);
+                return;
+            }
+            // несколько диапазонов не поддерживаем, по RFC 7233 в этом случае можно отдать файл целиком
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(contentSize);
+                end = ranges.get(0).getRangeEnd(contentSize);
+                if (start >= contentSize || start > end) {
+                    sendRangeNotSatisfiable(response, contentSize);
+                    return;
+                }
+                partial = true;
+            }
+        }
+
+        final long length = end - start + 1;
+        byte[] inlineContent = null;
+        if (fileEntityDto.getExternalId() == null && length > 0) {
+            // небольшой файл хранится прямо в БД; он мог быть удален после чтения метаданных,
+            // поэтому контент читается до заголовков, пока еще можно ответить ошибкой
+            inlineContent = fileService.findInlineContent(fileId).orElse(null);
+            if (inlineContent == null || inlineContent.length < start + length) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+        }
+
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (partial) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + contentSize);
+        }
+        response.setContentType(fileEntityDto.getMimeType() != null
+                ? fileEntityDto.getMimeType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileEntityDto.getName() != null ? fileEntityDto.getName() : fileId, StandardCharsets.UTF_8)
+                .build().toString());
+        if (length <= 0) {
+            return;
+        }
+        if (inlineContent != null) {
+            response.getOutputStream().write(inlineContent, (int) start, (int) length);
+            response.flushBuffer();
+            return;
+        }
+
+        final ContentCodec codec = ContentCodec.orNone(fileEntityDto.getContentCodec());
+        if (codec != ContentCodec.NONE) {
+            // сжатый контент распаковывается на лету, диапазон отсчитывается по распакованному
+            try (InputStream inputStream = codec.decode(Channels.newInputStream(
+                    fileManager.openChannel(fileEntityDto.getExternalId(), fileEntityDto.getStorageTier(), 0)))) {
+                StreamUtils.copyRange(inputStream, response.getOutputStream(), start, end);
+            }
+            response.flushBuffer();
+            return;
+        }
+
+        final Optional<Path> contentFile = fileManager.resolveContentFile(fileEntityDto.getExternalId(), fileEntityDto.getStorageTier());
+        if (contentFile.isPresent() && length >= SENDFILE_THRESHOLD
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            // контейнер сам отдаст файл через sendfile после выхода из метода
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, contentFile.get().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+            return;
+        }
+
+        // поток ответа принимает только массивы, поэтому здесь контент копируется через кучу
+        final WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+        fileManager.transferTo(fileEntityDto.getExternalId(), fileEntityDto.getStorageTier(), start, length, target);
+        response.flushBuffer();
+    }
+
+    /**
+     * Возвращает ETag файла. Контент файла неизменяем, поэтому в качестве ETag используется идентификатор контента.
+     *
+     * @param fileEntityDto ДТО файла
+     * @return ETag
+     */
+    private static String eTagOf(FileEntityDto fileEntityDto) {
+        final String externalId = fileEntityDto.getExternalId();
+        return "\"" + (externalId != null ? externalId : fileEntityDto.getId()) + "\"";
+    }
+
+    /**
+     * Проверяет, совпадает ли ETag с одним из значений заголовка If-None-Match.
+     *
+     * @param ifNoneMatch значение заголовка If-None-Match
+     * @param eTag        ETag
+     * @return совпадает/нет
+     */
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            final String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(eTag) || trimmed.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Отвечает, что запрошенный диапазон не может быть отдан.
+     *
+     * @param response    ответ
+     * @param contentSize размер контента
+     */
+    private static void sendRangeNotSatisfiable(HttpServletResponse response, long contentSize) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + contentSize);
+    }
+}
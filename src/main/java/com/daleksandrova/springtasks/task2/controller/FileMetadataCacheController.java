@@ -0,0 +1,50 @@
+package com.daleksandrova.springtasks.task2.controller;
+
+import com.daleksandrova.springtasks.task2.dto.FileMetadataCacheStats;
+import com.daleksandrova.springtasks.task2.service.FileMetadataCache;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.daleksandrova.springtasks.task2.controller.FileUploadController.FILE_API_PATH;
+
+/**
+ * Контроллер для статистики кеша метаданных файлов.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@RestController
+@RequestMapping(FILE_API_PATH)
+public class FileMetadataCacheController {
+
+    /**
+     * Путь для статистики кеша метаданных файлов.
+     */
+    public static final String FILE_META_CACHE_STATS_PATH = "/meta/cache/stats";
+
+    /**
+     * Кеш метаданных файлов.
+     */
+    private final FileMetadataCache fileMetadataCache;
+
+    /**
+     * Конструктор.
+     *
+     * @param fileMetadataCache кеш метаданных файлов
+     */
+    public FileMetadataCacheController(FileMetadataCache fileMetadataCache) {
+        this.fileMetadataCache = fileMetadataCache;
+    }
+
+    /**
+     * Возвращает статистику кеша метаданных файлов.
+     *
+     * @return статистика
+     */
+    @RequestMapping(value = FILE_META_CACHE_STATS_PATH, method = {RequestMethod.GET}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public FileMetadataCacheStats stats() {
+        return fileMetadataCache.getStats();
+    }
+}
@@ -1,19 +1,25 @@
 package com.daleksandrova.springtasks.task2.controller;
 
+import com.daleksandrova.springtasks.task2.dto.BatchUploadResponse;
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
 import com.daleksandrova.springtasks.task2.dto.FileProperties;
 import com.daleksandrova.springtasks.task2.dto.UploadResponse;
+import com.daleksandrova.springtasks.task2.dto.UploadedFile;
 import com.daleksandrova.springtasks.task2.service.FileService;
+import org.apache.commons.fileupload.FileUploadException;
 import org.springframework.http.MediaType;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.daleksandrova.springtasks.task2.controller.FileUploadController.FILE_API_PATH;
 
@@ -37,6 +43,26 @@ public class FileUploadController {
      */
     public static final String FILE_UPLOAD_PATH = "/upload";
 
+    /**
+     * Путь для потоковой загрузки файлов.
+     */
+    public static final String FILE_STREAM_UPLOAD_PATH = "/upload/stream";
+
+    /**
+     * Путь для загрузки пачки файлов.
+     */
+    public static final String FILE_BATCH_UPLOAD_PATH = "/upload/batch";
+
+    /**
+     * Имя части multipart-запроса с содержимым файла.
+     */
+    public static final String FILE_PART_NAME = "file";
+
+    /**
+     * Имя частей multipart-запроса с содержимым файлов пачки.
+     */
+    public static final String FILES_PART_NAME = "files";
+
     /**
      * Сервис файлов.
      */
@@ -61,13 +87,54 @@ public class FileUploadController {
      */
     @RequestMapping(value = FILE_UPLOAD_PATH, method = {RequestMethod.POST},
             consumes = {MediaType.MULTIPART_FORM_DATA_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
-    @Transactional
-    public UploadResponse uploadFile(@RequestParam("file") final MultipartFile file,
+    public UploadResponse uploadFile(@RequestParam(FILE_PART_NAME) final MultipartFile file,
                                      final HttpServletResponse response) throws IOException {
         response.setCharacterEncoding(StandardCharsets.UTF_8.name());
 
         final FileProperties fileProperties = new FileProperties(file.getOriginalFilename(), file.getContentType(), file.getSize());
-        final String fileId = fileService.addFile(fileProperties, file.getInputStream());
-        return new UploadResponse(true, "UPLOAD OK", fileId);
+        final FileEntityDto fileEntityDto = fileService.addFile(fileProperties, file.getInputStream());
+        return new UploadResponse(true, "UPLOAD OK", fileEntityDto.getId(), fileEntityDto.getChecksum());
+    }
+
+    /**
+     * Загружает пачку файлов в одной транзакции.
+     *
+     * @param files    файлы
+     * @param response ответ
+     * @return ответ загрузки с идентификаторами файлов в порядке частей запроса
+     * @throws IOException исключение
+     */
+    @RequestMapping(value = FILE_BATCH_UPLOAD_PATH, method = {RequestMethod.POST},
+            consumes = {MediaType.MULTIPART_FORM_DATA_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public BatchUploadResponse uploadFiles(@RequestParam(FILES_PART_NAME) final List<MultipartFile> files,
+                                           final HttpServletResponse response) throws IOException {
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        final List<UploadedFile> uploadedFiles = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            final FileProperties fileProperties = new FileProperties(file.getOriginalFilename(), file.getContentType(), file.getSize());
+            uploadedFiles.add(new UploadedFile(fileProperties, file.getInputStream()));
+        }
+        final List<String> fileIds = fileService.addFiles(uploadedFiles);
+        return new BatchUploadResponse(true, "UPLOAD OK", fileIds);
+    }
+
+    /**
+     * Загружает файл потоком, не дожидаясь разбора всего multipart-запроса (см. {@link StreamingMultipartUpload}).
+     * Требует ленивого разбора multipart-запросов (spring.servlet.multipart.resolve-lazily=true).
+     *
+     * @param request  запрос
+     * @param response ответ
+     * @return ответ загрузки
+     * @throws IOException         исключение
+     * @throws FileUploadException при ошибке разбора multipart-запроса
+     */
+    @RequestMapping(value = FILE_STREAM_UPLOAD_PATH, method = {RequestMethod.POST},
+            consumes = {MediaType.MULTIPART_FORM_DATA_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public UploadResponse uploadFileStream(final HttpServletRequest request,
+                                           final HttpServletResponse response) throws IOException, FileUploadException {
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        return StreamingMultipartUpload.upload(request, response, fileService);
     }
 }
@@ -0,0 +1,64 @@
+package com.daleksandrova.springtasks.task2.controller;
+
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
+import com.daleksandrova.springtasks.task2.dto.FileProperties;
+import com.daleksandrova.springtasks.task2.dto.UploadResponse;
+import com.daleksandrova.springtasks.task2.service.FileService;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.daleksandrova.springtasks.task2.controller.FileUploadController.FILE_PART_NAME;
+
+/**
+ * Потоковый разбор multipart-запроса с файлом.
+ * Тело запроса разбирается по мере поступления, а содержимое части с файлом сразу передается в хранилище,
+ * поэтому файл не буферизуется ни в памяти, ни во временных файлах контейнера сервлетов.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+final class StreamingMultipartUpload {
+
+    /**
+     * Конструктор.
+     */
+    private StreamingMultipartUpload() {
+    }
+
+    /**
+     * Сохраняет первую часть запроса с файлом.
+     *
+     * @param request     запрос
+     * @param response    ответ
+     * @param fileService сервис файлов
+     * @return ответ загрузки
+     * @throws IOException         исключение
+     * @throws FileUploadException при ошибке разбора multipart-запроса
+     */
+    static UploadResponse upload(HttpServletRequest request, HttpServletResponse response, FileService fileService)
+            throws IOException, FileUploadException {
+        final FileItemIterator iterator = new ServletFileUpload().getItemIterator(request);
+        while (iterator.hasNext()) {
+            final FileItemStream item = iterator.next();
+            if (item.isFormField() || !FILE_PART_NAME.equals(item.getFieldName())) {
+                continue;
+            }
+            try (final InputStream inputStream = item.openStream()) {
+                final FileProperties fileProperties = new FileProperties(item.getName(), item.getContentType(),
+                        FileProperties.UNKNOWN_CONTENT_SIZE);
+                final FileEntityDto file = fileService.addFile(fileProperties, inputStream);
+                return new UploadResponse(true, "UPLOAD OK", file.getId(), file.getChecksum());
+            }
+        }
+
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        return new UploadResponse(false, "NO FILE PART");
+    }
+}
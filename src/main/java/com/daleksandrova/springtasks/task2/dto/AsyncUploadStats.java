@@ -0,0 +1,52 @@
+package com.daleksandrova.springtasks.task2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * ДТО статистики асинхронных загрузок.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsyncUploadStats {
+
+    /**
+     * Используются ли виртуальные потоки.
+     */
+    private boolean virtualThreads;
+
+    /**
+     * Максимальное количество одновременно принятых загрузок.
+     */
+    private int maxInFlight;
+
+    /**
+     * Количество принятых и еще не завершенных загрузок.
+     */
+    private int inFlight;
+
+    /**
+     * Количество выполняющихся загрузок.
+     */
+    private int active;
+
+    /**
+     * Количество принятых загрузок.
+     */
+    private long submitted;
+
+    /**
+     * Количество отклоненных загрузок.
+     */
+    private long rejected;
+
+    /**
+     * Количество завершившихся с ошибкой загрузок.
+     */
+    private long failed;
+}
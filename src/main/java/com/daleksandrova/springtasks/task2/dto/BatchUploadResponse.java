@@ -0,0 +1,34 @@
+package com.daleksandrova.springtasks.task2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ДТО ответа пакетной загрузки файлов.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUploadResponse {
+
+    /**
+     * Успех/нет.
+     */
+    private boolean success;
+
+    /**
+     * Сообщение.
+     */
+    private String message;
+
+    /**
+     * Идентификаторы файлов в порядке загрузки.
+     */
+    private List<String> fileIds;
+}
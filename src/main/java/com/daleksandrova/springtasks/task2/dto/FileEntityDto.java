@@ -1,6 +1,10 @@
 package com.daleksandrova.springtasks.task2.dto;
 
+import com.daleksandrova.springtasks.task2.entity.FileEntity;
+import com.daleksandrova.springtasks.task2.entity.StorageTier;
+import com.daleksandrova.springtasks.task2.io.ContentCodec;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -14,6 +18,7 @@ import java.time.LocalDateTime;
  * @since 2023.11.17
  */
 @AllArgsConstructor
+@EqualsAndHashCode
 @Getter
 @Setter
 @NoArgsConstructor
@@ -48,4 +53,50 @@ public class FileEntityDto {
      * Размер содержимого.
      */
     private long contentSize;
+
+    /**
+     * Кодек, которым сжат контент в хранилище.
+     */
+    private ContentCodec contentCodec;
+
+    /**
+     * Контрольная сумма исходного контента.
+     */
+    private String checksum;
+
+    /**
+     * Уровень хранилища, на котором лежит контент.
+     */
+    private StorageTier storageTier;
+
+    /**
+     * Создает на основе сущности файла ДТО.
+     *
+     * @param fileEntity сущность файла
+     * @return ДТО файла
+     */
+    public static FileEntityDto from(FileEntity fileEntity) {
+        FileEntityDto fileEntityDto = new FileEntityDto();
+
+        fileEntityDto.setId(fileEntity.getId());
+        fileEntityDto.setName(fileEntity.getName());
+        fileEntityDto.setContentSize(fileEntity.getContentSize());
+        fileEntityDto.setExternalId(fileEntity.getExternalId());
+        fileEntityDto.setMimeType(fileEntity.getMimeType());
+        fileEntityDto.setCreationTime(fileEntity.getCreationTime());
+        fileEntityDto.setContentCodec(ContentCodec.orNone(fileEntity.getContentCodec()));
+        fileEntityDto.setChecksum(fileEntity.getChecksum());
+        fileEntityDto.setStorageTier(StorageTier.orHot(fileEntity.getStorageTier()));
+
+        return fileEntityDto;
+    }
+
+    /**
+     * Создает копию ДТО.
+     *
+     * @return копия ДТО файла
+     */
+    public FileEntityDto copy() {
+        return new FileEntityDto(id, name, mimeType, externalId, creationTime, contentSize, contentCodec, checksum, storageTier);
+    }
 }
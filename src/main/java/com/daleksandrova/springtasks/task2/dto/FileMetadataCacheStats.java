@@ -0,0 +1,47 @@
+package com.daleksandrova.springtasks.task2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * ДТО статистики кеша метаданных файлов.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileMetadataCacheStats {
+
+    /**
+     * Количество записей.
+     */
+    private int size;
+
+    /**
+     * Максимальное количество записей.
+     */
+    private int maxSize;
+
+    /**
+     * Количество попаданий.
+     */
+    private long hits;
+
+    /**
+     * Количество промахов.
+     */
+    private long misses;
+
+    /**
+     * Количество записей, вытесненных по размеру или устаревших.
+     */
+    private long evictions;
+
+    /**
+     * Количество сброшенных записей.
+     */
+    private long invalidations;
+}
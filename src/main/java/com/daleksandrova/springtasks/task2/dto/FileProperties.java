@@ -16,6 +16,11 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class FileProperties {
 
+    /**
+     * Размер содержимого, если он заранее неизвестен (потоковая загрузка).
+     */
+    public static final long UNKNOWN_CONTENT_SIZE = -1L;
+
     /**
      * Имя файла.
      */
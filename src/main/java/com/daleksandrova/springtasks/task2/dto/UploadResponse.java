@@ -30,8 +30,17 @@ public class UploadResponse {
      */
     private String fileId;
 
+    /**
+     * Контрольная сумма контента файла.
+     */
+    private String checksum;
+
     public UploadResponse(boolean success, String message) {
         this.success = success;
         this.message = message;
     }
+
+    public UploadResponse(boolean success, String message, String fileId) {
+        this(success, message, fileId, null);
+    }
 }
\ No newline at end of file
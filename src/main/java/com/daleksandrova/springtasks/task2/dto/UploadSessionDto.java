@@ -0,0 +1,39 @@
+package com.daleksandrova.springtasks.task2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ДТО сессии загрузки файла частями.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDto {
+
+    /**
+     * Идентификатор сессии.
+     */
+    private String sessionId;
+
+    /**
+     * Размер части, кроме, возможно, последней.
+     */
+    private long chunkSize;
+
+    /**
+     * Количество частей.
+     */
+    private int chunkCount;
+
+    /**
+     * Номера уже полученных частей.
+     */
+    private List<Integer> receivedChunks;
+}
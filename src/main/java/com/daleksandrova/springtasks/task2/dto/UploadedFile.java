@@ -0,0 +1,27 @@
+package com.daleksandrova.springtasks.task2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.InputStream;
+
+/**
+ * Загружаемый файл: его свойства и поток с содержимым.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Getter
+@AllArgsConstructor
+public class UploadedFile {
+
+    /**
+     * Свойства файла.
+     */
+    private FileProperties fileProperties;
+
+    /**
+     * Поток, из которого будет считано содержимое файла.
+     */
+    private InputStream contentStream;
+}
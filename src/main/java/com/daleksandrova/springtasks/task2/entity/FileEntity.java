@@ -1,5 +1,6 @@
 package com.daleksandrova.springtasks.task2.entity;
 
+import com.daleksandrova.springtasks.task2.io.ContentCodec;
 import com.daleksandrova.springtasks.task2.listener.FileStorageListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
@@ -13,9 +14,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.Id;
 import javax.persistence.Lob;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import java.sql.Blob;
 import java.time.LocalDateTime;
 
@@ -72,11 +76,40 @@ public class FileEntity {
     @Column
     private long contentSize;
 
+    /**
+     * Кодек, которым сжат контент в хранилище. Пусто - контент хранится как есть.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column
+    private ContentCodec contentCodec;
+
+    /**
+     * Контрольная сумма исходного контента в виде "алгоритм:значение", например "crc32c:1a2b3c4d".
+     * Пусто - контрольная сумма не вычислялась.
+     */
+    @Column
+    private String checksum;
+
+    /**
+     * Уровень хранилища, на котором лежит контент. Пусто - контент лежит в быстром хранилище.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column
+    private StorageTier storageTier;
+
     /**
      * Содержимое.
-     * Подтирается после создания файла.
+     * Подтирается после создания файла, если только файл не настолько мал, что хранится прямо в БД.
      */
     @Lob
     @JsonIgnore
     private Blob content;
+
+    /**
+     * Хранится ли содержимое прямо в БД, а не в хранилище файлов.
+     * Нужен только при создании файла, чтобы слушатель не переносил содержимое в хранилище.
+     */
+    @Transient
+    @JsonIgnore
+    private boolean contentInline;
 }
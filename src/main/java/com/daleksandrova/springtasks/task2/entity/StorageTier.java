@@ -0,0 +1,30 @@
+package com.daleksandrova.springtasks.task2.entity;
+
+/**
+ * Уровень хранилища, на котором лежит контент файла.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public enum StorageTier {
+
+    /**
+     * Быстрое хранилище, куда пишутся новые файлы.
+     */
+    HOT,
+
+    /**
+     * Емкое хранилище, куда переносятся файлы, к которым давно не обращались.
+     */
+    COLD;
+
+    /**
+     * Возвращает уровень хранилища с учетом файлов, сохраненных без разделения на уровни.
+     *
+     * @param tier уровень из сущности файла
+     * @return уровень
+     */
+    public static StorageTier orHot(StorageTier tier) {
+        return tier != null ? tier : HOT;
+    }
+}
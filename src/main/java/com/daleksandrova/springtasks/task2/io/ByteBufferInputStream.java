@@ -0,0 +1,57 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Поток чтения содержимого буфера.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    /**
+     * Буфер.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Конструктор.
+     *
+     * @param buffer буфер, читается от текущей позиции до предела
+     */
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        final int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
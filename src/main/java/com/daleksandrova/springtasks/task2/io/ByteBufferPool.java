@@ -0,0 +1,95 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул буферов одного размера, прямых или в куче.
+ * Буферы копирования крупные, выделять их на каждое копирование дорого (прямые - особенно), поэтому они
+ * переиспользуются; сверх лимита буферы не хранятся.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ByteBufferPool {
+
+    /**
+     * Размер буфера.
+     */
+    private final int bufferSize;
+
+    /**
+     * Максимальное количество хранимых в пуле буферов.
+     */
+    private final int maxPooled;
+
+    /**
+     * Прямые ли буферы.
+     */
+    private final boolean direct;
+
+    /**
+     * Свободные буферы.
+     */
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Количество свободных буферов.
+     */
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * Конструктор.
+     *
+     * @param bufferSize размер буфера
+     * @param maxPooled  максимальное количество хранимых в пуле буферов
+     * @param direct     прямые буферы или в куче
+     */
+    public ByteBufferPool(int bufferSize, int maxPooled, boolean direct) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+        this.direct = direct;
+    }
+
+    /**
+     * Берет буфер из пула или выделяет новый.
+     *
+     * @return очищенный буфер
+     */
+    public ByteBuffer acquire() {
+        final ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Возвращает буфер в пул.
+     *
+     * @param buffer буфер
+     */
+    public void release(ByteBuffer buffer) {
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    /**
+     * Возвращает размер буфера.
+     *
+     * @return размер буфера
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,199 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Копирование контента в файловый канал.
+ * Если источник - файл, контент передается средствами ОС через {@link FileChannel#transferTo} без копирования в память
+ * приложения. Поток читается прямо в массив буфера из пула, а канал - в прямой буфер из пула; в обоих случаях запись
+ * на диск идет крупными блоками без промежуточной копии.
+ * <p>
+ * Обертки {@link CountingInputStream} и {@link ChecksumInputStream} копировщик снимает: размер и контрольная сумма
+ * считаются по тем же байтам, что пишутся на диск, а файл под обертками по-прежнему передается средствами ОС.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ChannelCopier {
+
+    /**
+     * Пул прямых буферов для копирования из каналов.
+     */
+    private final ByteBufferPool directPool;
+
+    /**
+     * Пул буферов в куче для копирования из потоков.
+     */
+    private final ByteBufferPool heapPool;
+
+    /**
+     * Конструктор.
+     *
+     * @param bufferSize размер буфера копирования
+     * @param maxPooled  максимальное количество хранимых в каждом пуле буферов
+     */
+    public ChannelCopier(int bufferSize, int maxPooled) {
+        this.directPool = new ByteBufferPool(bufferSize, maxPooled, true);
+        this.heapPool = new ByteBufferPool(bufferSize, maxPooled, false);
+    }
+
+    /**
+     * Копирует поток в канал до конца потока.
+     *
+     * @param source поток
+     * @param target канал
+     * @return количество скопированных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    public long copy(InputStream source, FileChannel target) throws IOException {
+        return copy(source, target, null);
+    }
+
+    /**
+     * Копирует поток в канал до конца потока, снимая обертки, подсчитывающие байты.
+     *
+     * @param source поток
+     * @param target канал
+     * @param digest вычислитель контрольной суммы скопированных байт, пусто - сумма не нужна
+     * @return количество скопированных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    private long copy(InputStream source, FileChannel target, ChecksumAlgorithm.Digest digest) throws IOException {
+        if (source instanceof CountingInputStream) {
+            final CountingInputStream countingStream = (CountingInputStream) source;
+            final long copied = copy(countingStream.getSource(), target, digest);
+            countingStream.addCount(copied);
+            return copied;
+        }
+        // одну сумму можно передать вниз, вложенные суммы считаются при чтении
+        if (source instanceof ChecksumInputStream && digest == null) {
+            final ChecksumInputStream checksumStream = (ChecksumInputStream) source;
+            return copy(checksumStream.getSource(), target, checksumStream.getDigest());
+        }
+        if (source instanceof FileInputStream) {
+            return transfer(((FileInputStream) source).getChannel(), target, digest);
+        }
+        return copyStream(source, target, digest);
+    }
+
+    /**
+     * Копирует канал в канал до конца исходного канала через прямой буфер.
+     *
+     * @param source исходный канал
+     * @param target канал
+     * @return количество скопированных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    public long copy(ReadableByteChannel source, FileChannel target) throws IOException {
+        final ByteBuffer buffer = directPool.acquire();
+        long copied = 0;
+        try {
+            while (source.read(buffer) != -1) {
+                // пишем, только когда буфер заполнен, чтобы не дробить запись на мелкие блоки
+                if (buffer.hasRemaining()) {
+                    continue;
+                }
+                copied += drain(buffer, target);
+            }
+            copied += drain(buffer, target);
+        } finally {
+            directPool.release(buffer);
+        }
+        return copied;
+    }
+
+    /**
+     * Копирует поток в канал до конца потока, читая поток прямо в массив буфера в куче.
+     * Обертка потока в канал ({@link java.nio.channels.Channels#newChannel(InputStream)}) читала бы через собственный
+     * массив и копировала бы его в буфер, то есть делала бы лишнюю копию каждого блока.
+     *
+     * @param source поток
+     * @param target канал
+     * @param digest вычислитель контрольной суммы скопированных байт, пусто - сумма не нужна
+     * @return количество скопированных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    private long copyStream(InputStream source, FileChannel target, ChecksumAlgorithm.Digest digest) throws IOException {
+        final ByteBuffer buffer = heapPool.acquire();
+        final byte[] array = buffer.array();
+        final int offset = buffer.arrayOffset();
+        final int capacity = buffer.capacity();
+        long copied = 0;
+        try {
+            int filled = 0;
+            int read;
+            while ((read = source.read(array, offset + filled, capacity - filled)) != -1) {
+                filled += read;
+                // пишем, только когда буфер заполнен, чтобы не дробить запись на мелкие блоки
+                if (filled < capacity) {
+                    continue;
+                }
+                if (digest != null) {
+                    digest.update(array, offset, filled);
+                }
+                buffer.position(filled);
+                copied += drain(buffer, target);
+                filled = 0;
+            }
+            if (digest != null) {
+                digest.update(array, offset, filled);
+            }
+            buffer.position(filled);
+            copied += drain(buffer, target);
+        } finally {
+            heapPool.release(buffer);
+        }
+        return copied;
+    }
+
+    /**
+     * Передает файл в канал средствами ОС, начиная с текущей позиции файла.
+     * Контрольная сумма считается по отображенному в память исходному файлу, тоже без копирования в память приложения.
+     *
+     * @param source файл
+     * @param target канал
+     * @param digest вычислитель контрольной суммы переданных байт, пусто - сумма не нужна
+     * @return количество переданных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    private static long transfer(FileChannel source, FileChannel target, ChecksumAlgorithm.Digest digest) throws IOException {
+        final long start = source.position();
+        final long size = source.size();
+        long position = start;
+        while (position < size) {
+            final long transferred = source.transferTo(position, size - position, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+        source.position(position);
+        if (digest != null) {
+            digest.update(source, start, position - start);
+        }
+        return position - start;
+    }
+
+    /**
+     * Записывает содержимое буфера в канал и очищает буфер.
+     *
+     * @param buffer буфер
+     * @param target канал
+     * @return количество записанных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    private static long drain(ByteBuffer buffer, FileChannel target) throws IOException {
+        buffer.flip();
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += target.write(buffer);
+        }
+        buffer.clear();
+        return written;
+    }
+}
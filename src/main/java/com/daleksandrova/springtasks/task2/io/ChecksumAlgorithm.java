@@ -0,0 +1,185 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Алгоритм контрольной суммы контента.
+ * Контрольная сумма записывается в виде "алгоритм:значение в hex", например "crc32c:1a2b3c4d".
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public enum ChecksumAlgorithm {
+
+    /**
+     * Контрольная сумма не вычисляется.
+     */
+    NONE("none") {
+        @Override
+        public Digest newDigest() {
+            throw new UnsupportedOperationException("Checksum is disabled");
+        }
+    },
+
+    /**
+     * CRC32C: быстрая, с аппаратной поддержкой, обнаруживает случайные повреждения.
+     */
+    CRC32C("crc32c") {
+        @Override
+        public Digest newDigest() {
+            final java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+            return new Digest() {
+                @Override
+                public void update(byte[] b, int off, int len) {
+                    crc.update(b, off, len);
+                }
+
+                @Override
+                public void update(ByteBuffer buffer) {
+                    crc.update(buffer);
+                }
+
+                @Override
+                public String finish() {
+                    return format(String.format("%08x", crc.getValue()));
+                }
+            };
+        }
+    },
+
+    /**
+     * SHA-256: медленнее, но позволяет проверить и намеренную подмену контента.
+     */
+    SHA_256("sha256") {
+        @Override
+        public Digest newDigest() {
+            final MessageDigest messageDigest;
+            try {
+                messageDigest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return new Digest() {
+                @Override
+                public void update(byte[] b, int off, int len) {
+                    messageDigest.update(b, off, len);
+                }
+
+                @Override
+                public void update(ByteBuffer buffer) {
+                    messageDigest.update(buffer);
+                }
+
+                @Override
+                public String finish() {
+                    final StringBuilder hex = new StringBuilder();
+                    for (byte b : messageDigest.digest()) {
+                        hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+                    }
+                    return format(hex.toString());
+                }
+            };
+        }
+    };
+
+    /**
+     * Префикс контрольной суммы.
+     */
+    private final String prefix;
+
+    /**
+     * Конструктор.
+     *
+     * @param prefix префикс контрольной суммы
+     */
+    ChecksumAlgorithm(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Создает вычислитель контрольной суммы.
+     *
+     * @return вычислитель
+     */
+    public abstract Digest newDigest();
+
+    /**
+     * Возвращает алгоритм, которым вычислена контрольная сумма.
+     *
+     * @param checksum контрольная сумма
+     * @return алгоритм
+     * @throws IllegalArgumentException если алгоритм неизвестен
+     */
+    public static ChecksumAlgorithm of(String checksum) {
+        for (ChecksumAlgorithm algorithm : values()) {
+            if (algorithm != NONE && checksum.startsWith(algorithm.prefix + ":")) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown checksum algorithm: " + checksum);
+    }
+
+    /**
+     * Добавляет к значению контрольной суммы префикс алгоритма.
+     *
+     * @param value значение в hex
+     * @return контрольная сумма
+     */
+    protected String format(String value) {
+        return prefix + ":" + value;
+    }
+
+    /**
+     * Вычислитель контрольной суммы.
+     */
+    public interface Digest {
+
+        /**
+         * Максимальный размер области файла, отображаемой в память за раз.
+         */
+        long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
+        /**
+         * Добавляет байты к контрольной сумме.
+         *
+         * @param b   байты
+         * @param off смещение
+         * @param len количество
+         */
+        void update(byte[] b, int off, int len);
+
+        /**
+         * Добавляет к контрольной сумме оставшиеся байты буфера, буфер прочитывается до конца.
+         *
+         * @param buffer буфер
+         */
+        void update(ByteBuffer buffer);
+
+        /**
+         * Добавляет к контрольной сумме область файла. Файл отображается в память частями,
+         * так что байты не копируются в память приложения.
+         *
+         * @param channel  файл
+         * @param position начало области
+         * @param count    размер области
+         * @throws IOException ошибка ввода-вывода
+         */
+        default void update(FileChannel channel, long position, long count) throws IOException {
+            final long end = position + count;
+            for (long start = position; start < end; start += MAPPED_REGION_SIZE) {
+                update(channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAPPED_REGION_SIZE, end - start)));
+            }
+        }
+
+        /**
+         * Возвращает контрольную сумму добавленных байт.
+         *
+         * @return контрольная сумма
+         */
+        String finish();
+    }
+}
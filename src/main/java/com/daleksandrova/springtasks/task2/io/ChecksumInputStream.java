@@ -0,0 +1,103 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Поток, вычисляющий контрольную сумму прочитанных из него байт.
+ * Сумма считается в том же проходе, в котором контент копируется, без повторного чтения.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ChecksumInputStream extends FilterInputStream {
+
+    /**
+     * Вычислитель контрольной суммы.
+     */
+    private final ChecksumAlgorithm.Digest digest;
+
+    /**
+     * Конструктор.
+     *
+     * @param in        оборачиваемый поток
+     * @param algorithm алгоритм контрольной суммы
+     */
+    public ChecksumInputStream(InputStream in, ChecksumAlgorithm algorithm) {
+        super(in);
+        this.digest = algorithm.newDigest();
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != -1) {
+            digest.update(new byte[]{(byte) b}, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int read = super.read(b, off, len);
+        if (read > 0) {
+            digest.update(b, off, read);
+        }
+        return read;
+    }
+
+    /**
+     * Пропущенные байты тоже должны попасть в сумму, поэтому они читаются.
+     *
+     * @param n количество байт
+     * @return количество пропущенных байт
+     * @throws IOException при ошибке чтения
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        final byte[] buffer = new byte[(int) Math.min(8192, Math.max(n, 0))];
+        long skipped = 0;
+        while (skipped < n) {
+            final int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Возвращает контрольную сумму прочитанных байт. Вызывается после того, как поток прочитан до конца.
+     *
+     * @return контрольная сумма
+     */
+    public String getChecksum() {
+        return digest.finish();
+    }
+
+    /**
+     * Возвращает оборачиваемый поток, чтобы копировать из него напрямую.
+     *
+     * @return оборачиваемый поток
+     */
+    InputStream getSource() {
+        return in;
+    }
+
+    /**
+     * Возвращает вычислитель контрольной суммы, чтобы добавлять к нему байты, прочитанные напрямую
+     * из оборачиваемого потока.
+     *
+     * @return вычислитель
+     */
+    ChecksumAlgorithm.Digest getDigest() {
+        return digest;
+    }
+}
@@ -0,0 +1,70 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.io.InputStream;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Кодек, которым сжат контент в хранилище. Сжатие и распаковка выполняются потоково, без буферизации контента целиком.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public enum ContentCodec {
+
+    /**
+     * Контент хранится как есть.
+     */
+    NONE {
+        @Override
+        public InputStream encode(InputStream inputStream) {
+            return inputStream;
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) {
+            return inputStream;
+        }
+    },
+
+    /**
+     * Контент сжат алгоритмом Deflate (формат zlib).
+     */
+    DEFLATE {
+        @Override
+        public InputStream encode(InputStream inputStream) {
+            return new DeflaterInputStream(inputStream);
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) {
+            return new InflaterInputStream(inputStream);
+        }
+    };
+
+    /**
+     * Оборачивает поток исходного контента потоком сжатого контента.
+     *
+     * @param inputStream поток исходного контента
+     * @return поток сжатого контента, при закрытии закрывает исходный
+     */
+    public abstract InputStream encode(InputStream inputStream);
+
+    /**
+     * Оборачивает поток сжатого контента потоком исходного контента.
+     *
+     * @param inputStream поток сжатого контента
+     * @return поток исходного контента, при закрытии закрывает сжатый
+     */
+    public abstract InputStream decode(InputStream inputStream);
+
+    /**
+     * Возвращает кодек, которым сжат контент, с учетом файлов, сохраненных до появления сжатия.
+     *
+     * @param codec кодек из сущности файла
+     * @return кодек
+     */
+    public static ContentCodec orNone(ContentCodec codec) {
+        return codec != null ? codec : NONE;
+    }
+}
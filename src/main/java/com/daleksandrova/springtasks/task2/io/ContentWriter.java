@@ -0,0 +1,23 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Функция, записывающая контент непосредственно в поток файла хранилища,
+ * без промежуточной буферизации контента в памяти.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@FunctionalInterface
+public interface ContentWriter {
+
+    /**
+     * Записывает контент в поток. Поток закрывается вызывающей стороной.
+     *
+     * @param outputStream поток файла хранилища
+     * @throws IOException ошибка при записи
+     */
+    void writeTo(OutputStream outputStream) throws IOException;
+}
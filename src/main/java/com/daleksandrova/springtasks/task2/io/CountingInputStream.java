@@ -0,0 +1,86 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Поток, подсчитывающий количество прочитанных из него байт.
+ * Нужен, когда размер контента заранее неизвестен (например, при потоковой загрузке).
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    /**
+     * Количество прочитанных байт.
+     */
+    private long count;
+
+    /**
+     * Конструктор.
+     *
+     * @param in оборачиваемый поток
+     */
+    public CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != -1) {
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int read = super.read(b, off, len);
+        if (read > 0) {
+            count += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = super.skip(n);
+        count += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Возвращает количество прочитанных байт.
+     *
+     * @return количество байт
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает оборачиваемый поток, чтобы копировать из него напрямую.
+     *
+     * @return оборачиваемый поток
+     */
+    InputStream getSource() {
+        return in;
+    }
+
+    /**
+     * Учитывает байты, прочитанные напрямую из оборачиваемого потока.
+     *
+     * @param n количество байт
+     */
+    void addCount(long n) {
+        count += n;
+    }
+}
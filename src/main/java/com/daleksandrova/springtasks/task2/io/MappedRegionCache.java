@@ -0,0 +1,132 @@
+package com.daleksandrova.springtasks.task2.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU-кеш файлов, отображенных в память.
+ * Повторное чтение популярного файла берется из страничного кеша ОС без открытия и закрытия файла на каждый запрос.
+ * Файлы больше заданного размера не кешируются: запрошенная часть отображается в память на время одного чтения.
+ * Отображение освобождается сборщиком мусора, когда на вытесненный буфер не остается ссылок.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class MappedRegionCache {
+
+    /**
+     * Максимальный размер кешируемого файла.
+     */
+    private final long maxFileSize;
+
+    /**
+     * Максимальный суммарный размер отображенных файлов.
+     */
+    private final long capacity;
+
+    /**
+     * Отображенные файлы в порядке последнего обращения.
+     */
+    private final LinkedHashMap<Path, MappedByteBuffer> regions = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Суммарный размер отображенных файлов.
+     */
+    private long mappedBytes;
+
+    /**
+     * Конструктор.
+     *
+     * @param maxFileSize максимальный размер кешируемого файла
+     * @param capacity    максимальный суммарный размер отображенных файлов
+     */
+    public MappedRegionCache(long maxFileSize, long capacity) {
+        this.maxFileSize = Math.min(maxFileSize, Integer.MAX_VALUE);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Возвращает часть файла как буфер только для чтения, отображенный в память.
+     *
+     * @param file     файл
+     * @param position позиция начала
+     * @param length   длина, не больше {@link Integer#MAX_VALUE}
+     * @return буфер
+     * @throws IOException ошибка ввода-вывода
+     */
+    public ByteBuffer slice(Path file, long position, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Mapped region must not exceed " + Integer.MAX_VALUE + " bytes");
+        }
+        final MappedByteBuffer region = region(file, position + length);
+        if (region == null) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            }
+        }
+        final ByteBuffer slice = region.duplicate();
+        slice.position((int) position).limit((int) (position + length));
+        return slice.slice();
+    }
+
+    /**
+     * Убирает файл из кеша, например, после удаления.
+     *
+     * @param file файл
+     */
+    public synchronized void invalidate(Path file) {
+        final MappedByteBuffer removed = regions.remove(file);
+        if (removed != null) {
+            mappedBytes -= removed.capacity();
+        }
+    }
+
+    /**
+     * Возвращает отображенный файл из кеша, отображая его при необходимости.
+     * Если файл дописывался после отображения и требуемая часть в отображение не попала, файл отображается заново.
+     *
+     * @param file         файл
+     * @param requiredSize требуемый размер отображения
+     * @return отображенный файл или null, если файл слишком велик для кеша
+     * @throws IOException ошибка ввода-вывода
+     */
+    private synchronized MappedByteBuffer region(Path file, long requiredSize) throws IOException {
+        final MappedByteBuffer cached = regions.get(file);
+        if (cached != null && cached.capacity() >= requiredSize) {
+            return cached;
+        }
+        if (requiredSize > maxFileSize) {
+            return null;
+        }
+        invalidate(file);
+
+        final MappedByteBuffer region;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > maxFileSize || size < requiredSize) {
+                return null;
+            }
+            region = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        regions.put(file, region);
+        mappedBytes += region.capacity();
+
+        final Iterator<Map.Entry<Path, MappedByteBuffer>> eldest = regions.entrySet().iterator();
+        while (mappedBytes > capacity && eldest.hasNext()) {
+            final Map.Entry<Path, MappedByteBuffer> entry = eldest.next();
+            if (entry.getKey().equals(file)) {
+                continue;
+            }
+            mappedBytes -= entry.getValue().capacity();
+            eldest.remove();
+        }
+        return region;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Пакет вспомогательных средств ввода-вывода.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+package com.daleksandrova.springtasks.task2.io;
\ No newline at end of file
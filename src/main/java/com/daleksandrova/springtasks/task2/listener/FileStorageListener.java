@@ -1,17 +1,19 @@
 package com.daleksandrova.springtasks.task2.listener;
 
 import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
+import com.daleksandrova.springtasks.task2.dto.FileProperties;
 import com.daleksandrova.springtasks.task2.entity.FileEntity;
+import com.daleksandrova.springtasks.task2.io.CountingInputStream;
 import com.daleksandrova.springtasks.task2.service.FileManager;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import javax.persistence.PostLoad;
+import com.daleksandrova.springtasks.task2.service.FileMetadataCache;
+import com.daleksandrova.springtasks.task2.service.FileMetaInformationWriter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
 import javax.persistence.PrePersist;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
@@ -27,99 +29,106 @@ import static java.util.Objects.requireNonNull;
 public class FileStorageListener {
 
     /**
-     * Логгер.
+     * Менеджер файлов.
      */
-    private static final Logger LOG = LoggerFactory.getLogger(FileStorageListener.class);
+    private final FileManager fileManager;
 
     /**
-     * Менеджер файлов.
+     * Подсистема записи метаданных.
      */
-    private final FileManager fileManager;
+    private final FileMetaInformationWriter fileMetaInformationWriter;
+
+    /**
+     * Кеш метаданных файлов.
+     */
+    private final FileMetadataCache fileMetadataCache;
 
     /**
      * Конструктор.
      *
-     * @param fileManager менеджер файлов
+     * @param fileManager               менеджер файлов
+     * @param fileMetaInformationWriter подсистема записи метаданных
+     * @param fileMetadataCache         кеш метаданных файлов
      */
-    public FileStorageListener(FileManager fileManager) {
+    public FileStorageListener(FileManager fileManager, FileMetaInformationWriter fileMetaInformationWriter,
+                               FileMetadataCache fileMetadataCache) {
         this.fileManager = fileManager;
+        this.fileMetaInformationWriter = fileMetaInformationWriter;
+        this.fileMetadataCache = fileMetadataCache;
     }
 
     /**
      * Обработчик, вызываемый перед сохранением нового файла в хранилище.
+     * Если размер контента заранее неизвестен, он вычисляется по количеству записанных байт.
+     * Если контент уже сохранен в хранилище или хранится прямо в БД, ничего не делает. Сервис файлов сохраняет контент заранее,
+     * вне транзакции, поэтому здесь контент пишется, только если сущность сохраняется с контентом напрямую.
      *
      * @param fileEntity файл
      */
     @PrePersist
     public void onPrePersist(final FileEntity fileEntity) {
         final long contentSize = fileEntity.getContentSize();
-        if (contentSize == 0) {
+        if (contentSize == 0 || fileEntity.getExternalId() != null || fileEntity.isContentInline()) {
             return;
         }
 
         try (final InputStream inputStream = requireNonNull(fileEntity.getContent()).getBinaryStream()) {
-            String externalId = fileManager.store(requireNonNull(inputStream));
+            final CountingInputStream countingStream = new CountingInputStream(requireNonNull(inputStream));
+            String externalId = fileManager.store(countingStream);
             fileEntity.setContent(null);
             fileEntity.setExternalId(externalId);
+            if (contentSize == FileProperties.UNKNOWN_CONTENT_SIZE) {
+                fileEntity.setContentSize(countingStream.getCount());
+            }
         } catch (IOException | SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     /**
-     * Обработчик, вызываемый после загрузки объекта контейнера контента из хранилища.
-     * Необходимо сохранить метаинформацию о сущности.
+     * Обработчик, вызываемый после сохранения или изменения сущности файла.
+     * Необходимо сохранить метаинформацию о сущности. Запись ставится в очередь после фиксации транзакции,
+     * чтобы не записывать метаинформацию об откаченных сущностях.
      * По требованиям любая ошибка, связанная с этим файлом, не имеет влияния на сохраненный контент и его сущность.
+     * Запись о файле в кеше метаданных сбрасывается сразу и еще раз после фиксации транзакции.
      *
      * @param fileEntity файл
      */
-    @PostLoad
-    public void onPostLoad(final FileEntity fileEntity) {
-        final InputStream inputStream = convertFileEntityToJsonStream(fileEntity);
-        if (inputStream != null) {
-            fileManager.storeMetaInformation(inputStream, fileEntity.getId());
+    @PostPersist
+    @PostUpdate
+    public void onPostPersistOrUpdate(final FileEntity fileEntity) {
+        final FileEntityDto fileEntityDto = FileEntityDto.from(fileEntity);
+        fileMetadataCache.invalidate(fileEntityDto.getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            fileMetaInformationWriter.schedule(fileEntityDto);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                fileMetadataCache.invalidate(fileEntityDto.getId());
+                fileMetaInformationWriter.schedule(fileEntityDto);
+            }
+        });
     }
 
     /**
-     * Конвертирует файл в json.
+     * Обработчик, вызываемый после удаления сущности файла. Сбрасывает запись о файле в кеше метаданных
+     * сразу и еще раз после завершения транзакции.
      *
-     * @param fileEntity сущность файла
-     * @return стрим
+     * @param fileEntity файл
      */
-    private InputStream convertFileEntityToJsonStream(FileEntity fileEntity) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.registerModule(new JavaTimeModule());
-
-            String jsonString = objectMapper.writeValueAsString(createAndReturnFileEntityDto(fileEntity));
-            byte[] jsonBytes = jsonString.getBytes();
-
-            return new ByteArrayInputStream(jsonBytes);
-        } catch (JsonProcessingException e) {
-            // do nothing
-            LOG.error("Json processing error :c", e);
+    @PostRemove
+    public void onPostRemove(final FileEntity fileEntity) {
+        final String fileId = fileEntity.getId();
+        fileMetadataCache.invalidate(fileId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    fileMetadataCache.invalidate(fileId);
+                }
+            });
         }
-        return null;
-    }
-
-    /**
-     * Создает на основе сущности файла ДТО.
-     *
-     * @param fileEntity сущность файла
-     * @return ДТО файла
-     */
-    private FileEntityDto createAndReturnFileEntityDto(FileEntity fileEntity) {
-        FileEntityDto fileEntityDto = new FileEntityDto();
-
-        fileEntityDto.setId(fileEntity.getId());
-        fileEntityDto.setName(fileEntity.getName());
-        fileEntityDto.setContentSize(fileEntity.getContentSize());
-        fileEntityDto.setExternalId(fileEntity.getExternalId());
-        fileEntityDto.setMimeType(fileEntity.getMimeType());
-        fileEntityDto.setCreationTime(fileEntity.getCreationTime());
-
-        return fileEntityDto;
     }
 }
-
@@ -0,0 +1,176 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.dto.AsyncUploadStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Исполнитель асинхронных загрузок файлов.
+ * Ввод-вывод хранилища выполняется не на потоках контейнера сервлетов, а на ограниченном пуле обычных потоков,
+ * либо, если это явно включено, на виртуальных потоках (JDK 21+). Количество одновременно принятых загрузок ограничено:
+ * сверх лимита загрузки сразу отклоняются, а не копятся в очереди.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+@ConditionalOnProperty(name = "fileStorage.async.enabled", havingValue = "true")
+public class AsyncUploadExecutor {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncUploadExecutor.class);
+
+    /**
+     * Максимальное количество одновременно принятых загрузок.
+     */
+    @Value("${fileStorage.async.maxInFlight:1024}")
+    private int maxInFlight;
+
+    /**
+     * Количество обычных потоков, если виртуальные потоки недоступны или выключены.
+     */
+    @Value("${fileStorage.async.threads:64}")
+    private int threads;
+
+    /**
+     * Использовать ли виртуальные потоки, если они доступны. По умолчанию выключено: загрузка блокирующе читает
+     * тело запроса, а блокирующее чтение Tomcat 9 ждет данных внутри synchronized. На JDK 21-23 такое ожидание
+     * занимает поток-носитель, и одновременных загрузок выполняется не больше, чем потоков-носителей.
+     */
+    @Value("${fileStorage.async.virtualThreads:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Разрешения на прием загрузок.
+     */
+    private Semaphore permits;
+
+    /**
+     * Исполнитель.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Используются ли виртуальные потоки.
+     */
+    private boolean usingVirtualThreads;
+
+    /**
+     * Количество выполняющихся загрузок.
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Количество принятых загрузок.
+     */
+    private final AtomicLong submitted = new AtomicLong();
+
+    /**
+     * Количество отклоненных загрузок.
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Количество завершившихся с ошибкой загрузок.
+     */
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Инициализация исполнителя.
+     */
+    @PostConstruct
+    public void postConstruct() {
+        permits = new Semaphore(maxInFlight);
+        executor = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        usingVirtualThreads = executor != null;
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                final Thread thread = new Thread(runnable, "async-upload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        LOG.info("Async uploads run on {}", usingVirtualThreads ? "virtual threads" : threads + " platform threads");
+    }
+
+    /**
+     * Остановка исполнителя.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Запускает загрузку.
+     *
+     * @param upload загрузка
+     * @param <T>    тип результата
+     * @return результат загрузки
+     * @throws RejectedExecutionException если превышен лимит одновременно принятых загрузок
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> upload) throws RejectedExecutionException {
+        if (!permits.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Too many concurrent uploads, limit is " + maxInFlight);
+        }
+        submitted.incrementAndGet();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                active.incrementAndGet();
+                try {
+                    return upload.get();
+                } catch (RuntimeException ex) {
+                    failed.incrementAndGet();
+                    throw ex;
+                } finally {
+                    active.decrementAndGet();
+                    permits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Возвращает статистику асинхронных загрузок.
+     *
+     * @return статистика
+     */
+    public AsyncUploadStats getStats() {
+        return new AsyncUploadStats(usingVirtualThreads, maxInFlight, maxInFlight - permits.availablePermits(),
+                active.get(), submitted.get(), rejected.get(), failed.get());
+    }
+
+    /**
+     * Создает исполнитель на виртуальных потоках, если JDK их поддерживает.
+     * Вызывается через рефлексию, так как проект собирается под Java 11.
+     *
+     * @return исполнитель или null, если виртуальные потоки недоступны
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+}
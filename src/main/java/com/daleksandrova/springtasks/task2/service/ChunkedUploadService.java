@@ -0,0 +1,60 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.dto.FileProperties;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Интерфейс сервиса загрузки файлов частями.
+ * Части одного файла могут загружаться параллельно и повторно, что позволяет возобновлять прерванную загрузку.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public interface ChunkedUploadService {
+
+    /**
+     * Начинает сессию загрузки.
+     *
+     * @param fileProperties свойства загружаемого файла, размер обязателен
+     * @param chunkSize      размер части
+     * @return сессия загрузки
+     * @throws IllegalArgumentException при некорректных размерах
+     */
+    UploadSession initiate(FileProperties fileProperties, long chunkSize);
+
+    /**
+     * Ищет сессию загрузки.
+     *
+     * @param sessionId идентификатор сессии
+     * @return сессия загрузки, если она есть
+     */
+    Optional<UploadSession> findSession(String sessionId);
+
+    /**
+     * Записывает часть файла по ее смещению.
+     *
+     * @param session       сессия загрузки
+     * @param index         номер части
+     * @param contentStream поток, из которого будет считано содержимое части
+     * @throws IllegalArgumentException при некорректном номере или размере части
+     */
+    void writeChunk(UploadSession session, int index, InputStream contentStream);
+
+    /**
+     * Завершает загрузку: сохраняет временный файл в хранилище и создает сущность файла.
+     *
+     * @param session сессия загрузки
+     * @return идентификатор сохраненного ресурса
+     * @throws IllegalStateException если получены не все части
+     */
+    String complete(UploadSession session);
+
+    /**
+     * Прерывает загрузку и удаляет временный файл.
+     *
+     * @param session сессия загрузки
+     */
+    void abort(UploadSession session);
+}
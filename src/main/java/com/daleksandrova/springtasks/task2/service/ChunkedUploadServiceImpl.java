@@ -0,0 +1,265 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.dto.FileProperties;
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import com.daleksandrova.springtasks.task2.io.ChecksumAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Имплементация сервиса загрузки файлов частями.
+ * Сессии хранятся в памяти, брошенные сессии удаляются по истечении времени ожидания.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Service
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ChunkedUploadServiceImpl.class);
+
+    /**
+     * Размер буфера записи части.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Менеджер файлов.
+     */
+    private final FileManager fileManager;
+
+    /**
+     * Сервис файлов.
+     */
+    private final FileService fileService;
+
+    /**
+     * Активные сессии загрузки.
+     */
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Максимальный размер части.
+     */
+    @Value("${fileStorage.upload.maxChunkSize:268435456}")
+    private long maxChunkSize;
+
+    /**
+     * Время ожидания брошенной сессии, мс.
+     */
+    @Value("${fileStorage.upload.sessionTimeoutMs:3600000}")
+    private long sessionTimeoutMs;
+
+    /**
+     * Алгоритм контрольной суммы контента, none - не вычисляется.
+     */
+    @Value("${fileStorage.checksum.algorithm:crc32c}")
+    private ChecksumAlgorithm checksumAlgorithm;
+
+    /**
+     * Исполнитель удаления брошенных сессий.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Конструктор.
+     *
+     * @param fileManager менеджер файлов
+     * @param fileService сервис файлов
+     */
+    public ChunkedUploadServiceImpl(FileManager fileManager, FileService fileService) {
+        this.fileManager = fileManager;
+        this.fileService = fileService;
+    }
+
+    /**
+     * Запуск периодического удаления брошенных сессий.
+     */
+    @PostConstruct
+    public void postConstruct() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "upload-session-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long period = Math.max(1000, sessionTimeoutMs / 10);
+        executor.scheduleWithFixedDelay(this::abortExpiredSessions, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Остановка удаления брошенных сессий и прерывание всех активных сессий.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        executor.shutdownNow();
+        sessions.values().forEach(this::abort);
+    }
+
+    @Override
+    public UploadSession initiate(FileProperties fileProperties, long chunkSize) {
+        if (fileProperties.getContentSize() < 0) {
+            throw new IllegalArgumentException("Content size is required");
+        }
+        if (chunkSize <= 0 || chunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + maxChunkSize);
+        }
+        if ((fileProperties.getContentSize() + chunkSize - 1) / chunkSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many chunks, increase chunk size");
+        }
+
+        final Path tmpFile = fileManager.allocateTempFile(fileProperties.getContentSize());
+        try {
+            final FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE);
+            final UploadSession session = new UploadSession(UUID.randomUUID().toString(), fileProperties, chunkSize, tmpFile, channel);
+            sessions.put(session.getSessionId(), session);
+
+            LOG.debug("Started upload session {} with {} chunks", session.getSessionId(), session.getChunkCount());
+            return session;
+        } catch (IOException ex) {
+            deleteQuietly(tmpFile);
+            throw new FileStorageException(ex);
+        }
+    }
+
+    @Override
+    public Optional<UploadSession> findSession(String sessionId) {
+        final UploadSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.touch();
+        }
+        return Optional.ofNullable(session);
+    }
+
+    @Override
+    public void writeChunk(UploadSession session, int index, InputStream contentStream) {
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.getChunkCount() - 1));
+        }
+        final long offset = session.chunkOffset(index);
+        final long length = session.chunkLength(index);
+
+        long written = 0;
+        try {
+            final ReadableByteChannel source = Channels.newChannel(contentStream);
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, length + 1));
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > length) {
+                    throw new IllegalArgumentException("Chunk " + index + " is larger than " + length + " bytes");
+                }
+                while (buffer.hasRemaining()) {
+                    written += session.getChannel().write(buffer, offset + written);
+                }
+                buffer.clear();
+            }
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+        if (written != length) {
+            throw new IllegalArgumentException("Chunk " + index + " must be " + length + " bytes, got " + written);
+        }
+
+        session.markReceived(index);
+        LOG.debug("Received chunk {} of upload session {}", index, session.getSessionId());
+    }
+
+    @Override
+    public String complete(UploadSession session) {
+        if (!session.isComplete()) {
+            throw new IllegalStateException("Not all chunks of upload session " + session.getSessionId() + " are received");
+        }
+        if (!sessions.remove(session.getSessionId(), session)) {
+            throw new IllegalStateException("Upload session " + session.getSessionId() + " is already finished");
+        }
+
+        final String externalId;
+        final String checksum;
+        try {
+            session.getChannel().close();
+            checksum = computeChecksum(session.getTmpFile());
+            externalId = fileManager.storeTempFile(session.getTmpFile());
+        } catch (IOException ex) {
+            deleteQuietly(session.getTmpFile());
+            throw new FileStorageException(ex);
+        }
+        return fileService.addStoredFile(session.getFileProperties(), externalId, checksum);
+    }
+
+    @Override
+    public void abort(UploadSession session) {
+        sessions.remove(session.getSessionId(), session);
+        try {
+            session.getChannel().close();
+        } catch (IOException ex) {
+            LOG.error("Failed to close temp file of upload session {}", session.getSessionId());
+        }
+        deleteQuietly(session.getTmpFile());
+        LOG.debug("Aborted upload session {}", session.getSessionId());
+    }
+
+    /**
+     * Прерывает сессии, к которым давно не обращались.
+     */
+    private void abortExpiredSessions() {
+        final long expirationTime = System.currentTimeMillis() - sessionTimeoutMs;
+        sessions.values().stream()
+                .filter(session -> session.getLastAccessTime() < expirationTime)
+                .forEach(this::abort);
+    }
+
+    /**
+     * Вычисляет контрольную сумму собранного файла. Части приходят в любом порядке и параллельно, поэтому сумма
+     * считается одним проходом по файлу после получения всех частей; файл только что записан и читается из кэша ОС.
+     *
+     * @param tmpFile временный файл
+     * @return контрольная сумма, пусто - не вычисляется
+     * @throws IOException ошибка ввода-вывода
+     */
+    private String computeChecksum(Path tmpFile) throws IOException {
+        if (checksumAlgorithm == ChecksumAlgorithm.NONE) {
+            return null;
+        }
+        final ChecksumAlgorithm.Digest digest = checksumAlgorithm.newDigest();
+        try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.READ)) {
+            digest.update(channel, 0, channel.size());
+        }
+        return digest.finish();
+    }
+
+    /**
+     * Удаляет временный файл, не выбрасывая исключений.
+     *
+     * @param tmpFile временный файл
+     */
+    private void deleteQuietly(Path tmpFile) {
+        try {
+            Files.deleteIfExists(tmpFile);
+        } catch (IOException ex) {
+            LOG.error("Failed to delete temp file {}", tmpFile.getFileName());
+        }
+    }
+}
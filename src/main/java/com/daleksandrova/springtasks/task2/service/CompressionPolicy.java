@@ -0,0 +1,72 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.io.ContentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Политика сжатия контента по типу файла.
+ * Сжимаются только хорошо сжимаемые типы (текст, JSON, CSV и т.п.), уже сжатые форматы (архивы, изображения, видео)
+ * хранятся как есть.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+public class CompressionPolicy {
+
+    /**
+     * Кодек для сжимаемых типов, none - сжатие выключено.
+     */
+    @Value("${fileStorage.compression.codec:none}")
+    private ContentCodec codec;
+
+    /**
+     * Сжимаемые типы файлов через запятую, допускаются шаблоны вида text/*.
+     */
+    @Value("${fileStorage.compression.mimeTypes:text/*,application/json,application/xml,application/csv}")
+    private String mimeTypes;
+
+    /**
+     * Разобранные сжимаемые типы файлов.
+     */
+    private List<MimeType> compressibleTypes;
+
+    /**
+     * Разбор сжимаемых типов файлов.
+     */
+    @PostConstruct
+    public void postConstruct() {
+        compressibleTypes = MimeTypeUtils.parseMimeTypes(mimeTypes);
+    }
+
+    /**
+     * Возвращает кодек, которым нужно сжать контент файла.
+     *
+     * @param mimeType тип файла
+     * @return кодек
+     */
+    public ContentCodec codecFor(String mimeType) {
+        if (codec == ContentCodec.NONE || mimeType == null) {
+            return ContentCodec.NONE;
+        }
+        final MimeType type;
+        try {
+            type = MimeTypeUtils.parseMimeType(mimeType);
+        } catch (InvalidMimeTypeException ex) {
+            return ContentCodec.NONE;
+        }
+        for (MimeType compressibleType : compressibleTypes) {
+            if (compressibleType.includes(type)) {
+                return codec;
+            }
+        }
+        return ContentCodec.NONE;
+    }
+}
@@ -0,0 +1,307 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Дедуплицирующее хранилище с адресацией по содержимому.
+ * Идентификатором хранения является SHA-256 контента: одинаковый контент хранится один раз,
+ * а количество ссылок на него учитывается в счетчике ссылок.
+ * <p>
+ * Под блокировкой хеша только проверяется наличие контента, перемещаются файлы и сверяется счетчик ссылок.
+ * Сброс файлов и папок на диск (а при групповой записи - ожидание группы) идет вне блокировки: новое значение
+ * счетчика готовится заранее и перемещается на место, только если счетчик за это время не изменился.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Service
+@ConditionalOnProperty(name = "fileStorage.type", havingValue = "content-addressed")
+public class ContentAddressedFileManager extends FileManagerImpl {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ContentAddressedFileManager.class);
+
+    /**
+     * Алгоритм хеширования контента.
+     */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Количество блокировок, по которым распределяются хеши контента.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Блокировки для изменения контента и счетчиков ссылок на него.
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * Папка хранения счетчиков ссылок.
+     */
+    private File refsDir;
+
+    /**
+     * Конструктор.
+     */
+    public ContentAddressedFileManager() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Инициализация папок.
+     */
+    @Override
+    @PostConstruct
+    public void postConstruct() {
+        super.postConstruct();
+        refsDir = new File(storageDir.getParentFile(), "refs");
+        if (!refsDir.exists() && !refsDir.mkdirs()) {
+            throw new IllegalStateException("Failed to make dir " + refsDir.getName());
+        }
+    }
+
+    /**
+     * Сохраняет файл. Хеш считается в том же проходе, что и запись во временный файл.
+     * Если такой контент уже есть в хранилище, временный файл удаляется и увеличивается счетчик ссылок.
+     *
+     * @param inputStream входящий поток
+     * @return хеш контента
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    @Override
+    public String store(InputStream inputStream) throws FileStorageException {
+        File tmp = null;
+
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            tmp = File.createTempFile("cas", ".tmp", tmpDir);
+            storeTmpFile(new DigestInputStream(inputStream, messageDigest), tmp);
+
+            return storeContent(tmp, toHex(messageDigest.digest()));
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new FileStorageException(ex);
+        } finally {
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                LOG.error("Failed to delete temp file {}", tmp.getName());
+            }
+        }
+    }
+
+    /**
+     * Сохраняет временный файл. Хеш считается отдельным проходом чтения файла.
+     *
+     * @param tmpFile путь к временному файлу
+     * @return хеш контента
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    @Override
+    public String storeTempFile(Path tmpFile) throws FileStorageException {
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            try (InputStream inputStream = new DigestInputStream(Files.newInputStream(tmpFile), messageDigest)) {
+                inputStream.transferTo(OutputStream.nullOutputStream());
+            }
+            return storeContent(tmpFile.toFile(), toHex(messageDigest.digest()));
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new FileStorageException(ex);
+        } finally {
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ex) {
+                LOG.error("Failed to delete temp file {}", tmpFile.getFileName());
+            }
+        }
+    }
+
+    /**
+     * Перемещает временный файл в хранилище, если такого контента там еще нет, и увеличивает счетчик ссылок.
+     *
+     * @param tmp    временный файл
+     * @param digest хеш контента
+     * @return хеш контента
+     * @throws IOException ошибка при работе с файловой системой
+     */
+    private String storeContent(File tmp, String digest) throws IOException {
+        final Set<Path> changedDirs = new LinkedHashSet<>();
+        boolean contentSynced = false;
+        boolean stored = false;
+        while (!stored) {
+            // повторяющийся контент на диск не сбрасывается: временный файл будет удален
+            if (!contentSynced && !layout.locate(storageDir, digest).exists()) {
+                fileSync.syncFile(tmp.toPath());
+                contentSynced = true;
+            }
+            final long references = readReferenceCount(digest);
+            final File refTmpFile = prepareReferenceCount(digest, references + 1);
+            try {
+                synchronized (lockFor(digest)) {
+                    final boolean exists = layout.locate(storageDir, digest).exists();
+                    // пока готовился счетчик, он мог измениться, а контент - удалиться: тогда готовим все заново
+                    if (readReferenceCount(digest) == references && (exists || contentSynced)) {
+                        if (exists) {
+                            LOG.debug("Content {} already stored, skip write", digest);
+                        } else {
+                            final File file = layout.resolveForWrite(storageDir, digest);
+                            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                            changedDirs.add(file.getParentFile().toPath());
+                        }
+                        changedDirs.add(replaceReferenceCount(digest, refTmpFile));
+                        stored = true;
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(refTmpFile.toPath());
+            }
+        }
+        for (Path dir : changedDirs) {
+            fileSync.syncDir(dir);
+        }
+
+        LOG.debug("Return content {}", digest);
+        return digest;
+    }
+
+    /**
+     * Уменьшает счетчик ссылок на контент. Контент удаляется, когда ссылок на него не остается.
+     *
+     * @param externalId хеш контента
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    @Override
+    public void delete(String externalId) throws FileStorageException {
+        try {
+            Path changedDir = null;
+            boolean updated = false;
+            while (!updated) {
+                final long references = readReferenceCount(externalId) - 1;
+                final File refTmpFile = references > 0 ? prepareReferenceCount(externalId, references) : null;
+                try {
+                    synchronized (lockFor(externalId)) {
+                        if (readReferenceCount(externalId) != references + 1) {
+                            continue;
+                        }
+                        updated = true;
+                        if (refTmpFile != null) {
+                            changedDir = replaceReferenceCount(externalId, refTmpFile);
+                        } else {
+                            Files.deleteIfExists(layout.locate(refsDir, externalId).toPath());
+                            final Path file = layout.locate(storageDir, externalId).toPath();
+                            mappedRegions.invalidate(file);
+                            Files.deleteIfExists(file);
+                            LOG.debug("Deleted content {}", externalId);
+                        }
+                    }
+                } finally {
+                    if (refTmpFile != null) {
+                        Files.deleteIfExists(refTmpFile.toPath());
+                    }
+                }
+            }
+            if (changedDir != null) {
+                fileSync.syncDir(changedDir);
+            }
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    /**
+     * Возвращает количество ссылок на контент.
+     *
+     * @param digest хеш контента
+     * @return количество ссылок
+     * @throws IOException ошибка при чтении
+     */
+    public long readReferenceCount(String digest) throws IOException {
+        final File refFile = layout.locate(refsDir, digest);
+        if (!refFile.exists()) {
+            return 0;
+        }
+        return Long.parseLong(new String(Files.readAllBytes(refFile.toPath()), StandardCharsets.US_ASCII).trim());
+    }
+
+    /**
+     * Записывает новое значение счетчика ссылок во временный файл и сбрасывает его на диск. Вызывается вне блокировки.
+     *
+     * @param digest     хеш контента
+     * @param references количество ссылок
+     * @return временный файл счетчика
+     * @throws IOException ошибка при записи
+     */
+    private File prepareReferenceCount(String digest, long references) throws IOException {
+        final File refTmpFile = File.createTempFile(digest, ".tmp", refsDir);
+        try {
+            Files.write(refTmpFile.toPath(), Long.toString(references).getBytes(StandardCharsets.US_ASCII));
+            fileSync.syncFile(refTmpFile.toPath());
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(refTmpFile.toPath());
+            throw ex;
+        }
+        return refTmpFile;
+    }
+
+    /**
+     * Атомарно заменяет счетчик ссылок на контент подготовленным. Вызывается под блокировкой,
+     * папку счетчика вызывающий сбрасывает на диск после ее снятия.
+     *
+     * @param digest     хеш контента
+     * @param refTmpFile временный файл счетчика
+     * @return папка счетчика
+     * @throws IOException ошибка при перемещении
+     */
+    private Path replaceReferenceCount(String digest, File refTmpFile) throws IOException {
+        final File current = layout.locate(refsDir, digest);
+        final File target = layout.resolveForWrite(refsDir, digest);
+        Files.move(refTmpFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (!current.equals(target)) {
+            // счетчик в прежней раскладке устарел
+            Files.deleteIfExists(current.toPath());
+        }
+        return target.getParentFile().toPath();
+    }
+
+    /**
+     * Возвращает блокировку для хеша контента.
+     *
+     * @param digest хеш контента
+     * @return блокировка
+     */
+    private Object lockFor(String digest) {
+        return locks[Math.floorMod(digest.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * Переводит хеш в шестнадцатеричную строку.
+     *
+     * @param digest хеш
+     * @return шестнадцатеричная строка
+     */
+    private static String toHex(byte[] digest) {
+        return String.format("%0" + (digest.length * 2) + "x", new BigInteger(1, digest));
+    }
+}
@@ -0,0 +1,231 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.entity.FileEntity;
+import com.daleksandrova.springtasks.task2.entity.StorageTier;
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import com.daleksandrova.springtasks.task2.io.ChecksumAlgorithm;
+import com.daleksandrova.springtasks.task2.io.ChecksumInputStream;
+import com.daleksandrova.springtasks.task2.io.ContentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaContext;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновая проверка целостности контента в хранилище.
+ * Контент перечитывается, распаковывается и сверяется с контрольной суммой, вычисленной при загрузке.
+ * Скорость чтения ограничена, чтобы проверка не мешала загрузкам и скачиваниям.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+public class ContentScrubber {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ContentScrubber.class);
+
+    /**
+     * Количество сущностей, читаемых из БД за раз.
+     */
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * Размер буфера чтения.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Менеджер файлов.
+     */
+    private final FileManager fileManager;
+
+    /**
+     * Менеджер сущностей.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Включена ли периодическая проверка.
+     */
+    @Value("${fileStorage.scrub.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Пауза между полными проходами, мс.
+     */
+    @Value("${fileStorage.scrub.intervalMs:86400000}")
+    private long intervalMs;
+
+    /**
+     * Ограничение скорости чтения, байт в секунду.
+     */
+    @Value("${fileStorage.scrub.maxBytesPerSecond:10485760}")
+    private long maxBytesPerSecond;
+
+    /**
+     * Исполнитель проверки.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Конструктор.
+     *
+     * @param fileManager менеджер файлов
+     * @param jpaContext  контекст
+     */
+    public ContentScrubber(FileManager fileManager, JpaContext jpaContext) {
+        this.fileManager = fileManager;
+        this.entityManager = jpaContext.getEntityManagerByManagedType(FileEntity.class);
+    }
+
+    /**
+     * Запуск периодической проверки, если она включена.
+     */
+    @PostConstruct
+    public void postConstruct() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "content-scrubber");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::scrub, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Остановка проверки.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Проверяет весь контент с контрольными суммами.
+     *
+     * @return количество файлов, контент которых поврежден или недоступен
+     */
+    public int scrub() {
+        int checked = 0;
+        int corrupted = 0;
+        String lastId = "";
+        final long startTime = System.nanoTime();
+        final long[] bytesRead = {0};
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final List<Object[]> page = entityManager.createQuery("select f.id, f.externalId, f.contentCodec, f.checksum, f.storageTier"
+                                + " from FileEntity f where f.id > :lastId and f.externalId is not null and f.checksum is not null"
+                                + " order by f.id", Object[].class)
+                        .setParameter("lastId", lastId)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultList();
+                for (Object[] row : page) {
+                    lastId = (String) row[0];
+                    checked++;
+                    if (!verify((String) row[1], (StorageTier) row[4], (ContentCodec) row[2], (String) row[3], startTime, bytesRead)) {
+                        corrupted++;
+                        LOG.error("Content {} of file {} does not match its checksum", row[1], row[0]);
+                    }
+                }
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            LOG.error("Failed to scrub content", ex);
+        }
+        LOG.info("Scrubbed {} files, {} bytes, {} corrupted", checked, bytesRead[0], corrupted);
+        return corrupted;
+    }
+
+    /**
+     * Проверяет контент одного файла.
+     *
+     * @param fileId идентификатор файла
+     * @return контент совпадает с контрольной суммой или у файла нет контрольной суммы/контента в хранилище
+     * @throws InterruptedException если проверку прервали
+     */
+    public boolean verify(String fileId) throws InterruptedException {
+        final FileEntity fileEntity = entityManager.find(FileEntity.class, fileId);
+        if (fileEntity == null || fileEntity.getExternalId() == null || fileEntity.getChecksum() == null) {
+            return true;
+        }
+        return verify(fileEntity.getExternalId(), fileEntity.getStorageTier(), fileEntity.getContentCodec(),
+                fileEntity.getChecksum(), System.nanoTime(), new long[]{0});
+    }
+
+    /**
+     * Перечитывает контент и сверяет его контрольную сумму.
+     *
+     * @param externalId идентификатор хранения
+     * @param tier       уровень хранилища
+     * @param codec      кодек, которым сжат контент
+     * @param checksum   ожидаемая контрольная сумма
+     * @param startTime  время начала прохода, нс
+     * @param bytesRead  количество прочитанных за проход байт
+     * @return совпадает/нет
+     * @throws InterruptedException если проверку прервали
+     */
+    private boolean verify(String externalId, StorageTier tier, ContentCodec codec, String checksum, long startTime,
+                           long[] bytesRead) throws InterruptedException {
+        final ChecksumAlgorithm algorithm;
+        try {
+            algorithm = ChecksumAlgorithm.of(checksum);
+        } catch (IllegalArgumentException ex) {
+            LOG.warn("Skipping content {}: {}", externalId, ex.getMessage());
+            return true;
+        }
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (ChecksumInputStream inputStream = new ChecksumInputStream(ContentCodec.orNone(codec).decode(
+                Channels.newInputStream(fileManager.openChannel(externalId, tier, 0))), algorithm)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                bytesRead[0] += read;
+                throttle(startTime, bytesRead[0]);
+            }
+            return checksum.equals(inputStream.getChecksum());
+        } catch (IOException | FileStorageException ex) {
+            LOG.error("Failed to read content {}", externalId, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Приостанавливает проверку, если она читает быстрее fileStorage.scrub.maxBytesPerSecond.
+     *
+     * @param startTime время начала прохода, нс
+     * @param bytesRead количество прочитанных за проход байт
+     * @throws InterruptedException если проверку прервали
+     */
+    private void throttle(long startTime, long bytesRead) throws InterruptedException {
+        if (maxBytesPerSecond <= 0) {
+            return;
+        }
+        final long expectedNanos = (long) ((double) bytesRead / maxBytesPerSecond * 1_000_000_000L);
+        final long aheadMillis = (expectedNanos - (System.nanoTime() - startTime)) / 1_000_000;
+        if (aheadMillis > 0) {
+            Thread.sleep(aheadMillis);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.daleksandrova.springtasks.task2.service;
+
+/**
+ * Режим надежности записи в хранилище: что сбрасывается на диск (fsync) перед тем, как запись считается завершенной.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public enum DurabilityMode {
+
+    /**
+     * Ничего не сбрасывается, данные могут потеряться при сбое ОС или питания.
+     */
+    NONE,
+
+    /**
+     * Сбрасывается содержимое файла перед перемещением на место.
+     */
+    FSYNC_FILE,
+
+    /**
+     * Сбрасывается содержимое файла перед перемещением и папка после перемещения, чтобы сохранилось и само перемещение.
+     */
+    FSYNC_FILE_AND_DIR,
+
+    /**
+     * Как {@link #FSYNC_FILE_AND_DIR}, но сброс выполняется пачками по таймеру: одновременные записи ждут общую пачку,
+     * а каждая папка пачки сбрасывается один раз.
+     */
+    GROUP_COMMIT
+}
@@ -0,0 +1,257 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сброс файлов и папок хранилища на диск согласно режиму надежности.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class DurableFileSync {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(DurableFileSync.class);
+
+    /**
+     * Можно ли сбрасывать папки (в Windows папку нельзя открыть как канал).
+     */
+    private static final boolean DIR_SYNC_SUPPORTED = File.separatorChar == '/';
+
+    /**
+     * Режим надежности.
+     */
+    private final DurabilityMode mode;
+
+    /**
+     * Блокировка текущей пачки.
+     */
+    private final Object batchLock = new Object();
+
+    /**
+     * Текущая пачка групповой записи.
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * Остановлена ли групповая запись.
+     */
+    private boolean closed;
+
+    /**
+     * Исполнитель групповой записи.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Конструктор.
+     *
+     * @param mode                  режим надежности
+     * @param groupCommitIntervalMs период групповой записи, мс
+     */
+    public DurableFileSync(DurabilityMode mode, long groupCommitIntervalMs) {
+        this.mode = mode;
+        if (mode == DurabilityMode.GROUP_COMMIT) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "storage-group-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::commitBatch, groupCommitIntervalMs, groupCommitIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            executor = null;
+        }
+    }
+
+    /**
+     * Сбрасывает содержимое файла на диск, если этого требует режим надежности.
+     *
+     * @param file файл
+     * @throws IOException ошибка при сбросе
+     */
+    public void syncFile(Path file) throws IOException {
+        switch (mode) {
+            case FSYNC_FILE:
+            case FSYNC_FILE_AND_DIR:
+                force(file, StandardOpenOption.WRITE);
+                break;
+            case GROUP_COMMIT:
+                await(file, false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Сбрасывает папку на диск, если этого требует режим надежности.
+     *
+     * @param dir папка
+     * @throws IOException ошибка при сбросе
+     */
+    public void syncDir(Path dir) throws IOException {
+        if (!DIR_SYNC_SUPPORTED) {
+            return;
+        }
+        switch (mode) {
+            case FSYNC_FILE_AND_DIR:
+                force(dir, StandardOpenOption.READ);
+                break;
+            case GROUP_COMMIT:
+                await(dir, true);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Останавливает групповую запись, сбрасывая последнюю пачку. После остановки файлы и папки сбрасываются сразу.
+     */
+    public void close() {
+        if (executor != null) {
+            synchronized (batchLock) {
+                closed = true;
+            }
+            executor.shutdown();
+            commitBatch();
+        }
+    }
+
+    /**
+     * Добавляет файл или папку в текущую пачку и ждет ее сброса. После остановки групповой записи сбрасывает сразу.
+     *
+     * @param path  файл или папка
+     * @param isDir папка/нет
+     * @throws IOException ошибка при сбросе этого файла или папки
+     */
+    private void await(Path path, boolean isDir) throws IOException {
+        final Batch current;
+        synchronized (batchLock) {
+            if (!closed) {
+                current = batch;
+                (isDir ? current.dirs : current.files).add(path);
+            } else {
+                current = null;
+            }
+        }
+        if (current == null) {
+            force(path, isDir ? StandardOpenOption.READ : StandardOpenOption.WRITE);
+            return;
+        }
+        try {
+            current.done.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for group commit");
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof IOException ? (IOException) ex.getCause() : new IOException(ex.getCause());
+        }
+        final IOException failure = current.failures.get(path);
+        if (failure != null) {
+            throw new IOException("Group commit of " + path + " failed", failure);
+        }
+    }
+
+    /**
+     * Сбрасывает текущую пачку: сначала файлы, затем папки. Ошибка сброса одного файла или папки
+     * достается только ждущим его, остальные сбрасываются как обычно.
+     */
+    private void commitBatch() {
+        final Batch current;
+        synchronized (batchLock) {
+            if (batch.files.isEmpty() && batch.dirs.isEmpty()) {
+                return;
+            }
+            current = batch;
+            batch = new Batch();
+        }
+        try {
+            for (Path file : current.files) {
+                forceInBatch(current, file, StandardOpenOption.WRITE);
+            }
+            for (Path dir : current.dirs) {
+                forceInBatch(current, dir, StandardOpenOption.READ);
+            }
+            current.done.complete(null);
+            LOG.trace("Group commit of {} files and {} dirs, {} failed", current.files.size(), current.dirs.size(),
+                    current.failures.size());
+        } catch (RuntimeException ex) {
+            current.done.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Сбрасывает файл или папку пачки, запоминая ошибку для ждущих его.
+     *
+     * @param current пачка
+     * @param path    файл или папка
+     * @param option  режим открытия
+     */
+    private static void forceInBatch(Batch current, Path path, StandardOpenOption option) {
+        try {
+            force(path, option);
+        } catch (IOException ex) {
+            LOG.debug("Group commit of {} failed: {}", path, ex.toString());
+            current.failures.put(path, ex);
+        }
+    }
+
+    /**
+     * Сбрасывает файл или папку на диск.
+     *
+     * @param path   файл или папка
+     * @param option режим открытия
+     * @throws IOException ошибка при сбросе
+     */
+    private static void force(Path path, StandardOpenOption option) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, option)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Пачка групповой записи.
+     */
+    private static class Batch {
+
+        /**
+         * Файлы пачки.
+         */
+        private final Set<Path> files = new LinkedHashSet<>();
+
+        /**
+         * Папки пачки, каждая сбрасывается один раз.
+         */
+        private final Set<Path> dirs = new LinkedHashSet<>();
+
+        /**
+         * Ошибки сброса по файлам и папкам. Заполняется до завершения сброса пачки.
+         */
+        private final Map<Path, IOException> failures = new HashMap<>();
+
+        /**
+         * Завершение сброса пачки.
+         */
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+    }
+}
@@ -1,8 +1,15 @@
 package com.daleksandrova.springtasks.task2.service;
 
+import com.daleksandrova.springtasks.task2.entity.StorageTier;
 import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import com.daleksandrova.springtasks.task2.io.ContentWriter;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * Интерфейс, управляющий чтением и записью бинарного контента в файловую систему.
@@ -29,4 +36,136 @@ public interface FileManager {
      * @throws FileStorageException при ошибках работы с файловой системой
      */
     void storeMetaInformation(InputStream inputStream, String fileName) throws FileStorageException;
+
+    /**
+     * Сохранить метаинформацию о файле, записывая ее непосредственно в поток мета-файла.
+     *
+     * @param contentWriter функция записи метаинформации
+     * @param fileName      имя мета-файла
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    void storeMetaInformation(ContentWriter contentWriter, String fileName) throws FileStorageException;
+
+    /**
+     * Удалить файл.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    void delete(String externalId) throws FileStorageException;
+
+    /**
+     * Возвращает путь к файлу с контентом, если контент хранится отдельным файлом как есть.
+     * Такой файл можно отдавать средствами ОС без копирования через память приложения.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @return путь к файлу с контентом
+     */
+    Optional<Path> resolveContentFile(String externalId);
+
+    /**
+     * Возвращает путь к файлу с контентом, если контент хранится отдельным файлом как есть.
+     * Уровень хранилища из метаданных файла позволяет хранилищу с уровнями не искать контент на каждом уровне,
+     * остальные хранилища его не учитывают.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @param tier       уровень хранилища из метаданных файла
+     * @return путь к файлу с контентом
+     */
+    default Optional<Path> resolveContentFile(String externalId, StorageTier tier) {
+        return resolveContentFile(externalId);
+    }
+
+    /**
+     * Передает часть контента в канал без копирования через кучу, если это позволяет канал.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @param position   позиция начала в контенте
+     * @param count      количество байт
+     * @param target     канал назначения
+     * @return количество переданных байт
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    long transferTo(String externalId, long position, long count, WritableByteChannel target) throws FileStorageException;
+
+    /**
+     * Передает часть контента в канал, ища контент на уровне хранилища из метаданных файла.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @param tier       уровень хранилища из метаданных файла
+     * @param position   позиция начала в контенте
+     * @param count      количество байт
+     * @param target     канал назначения
+     * @return количество переданных байт
+     * @throws FileStorageException при ошибках работы с файловой системой
+     * @see #resolveContentFile(String, StorageTier)
+     */
+    default long transferTo(String externalId, StorageTier tier, long position, long count, WritableByteChannel target)
+            throws FileStorageException {
+        return transferTo(externalId, position, count, target);
+    }
+
+    /**
+     * Открывает канал чтения контента с заданной позиции.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @param position   позиция начала в контенте
+     * @return канал чтения, закрывается вызывающим
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    ReadableByteChannel openChannel(String externalId, long position) throws FileStorageException;
+
+    /**
+     * Открывает канал чтения контента с заданной позиции, ища контент на уровне хранилища из метаданных файла.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @param tier       уровень хранилища из метаданных файла
+     * @param position   позиция начала в контенте
+     * @return канал чтения, закрывается вызывающим
+     * @throws FileStorageException при ошибках работы с файловой системой
+     * @see #resolveContentFile(String, StorageTier)
+     */
+    default ReadableByteChannel openChannel(String externalId, StorageTier tier, long position) throws FileStorageException {
+        return openChannel(externalId, position);
+    }
+
+    /**
+     * Возвращает часть контента как буфер только для чтения, отображенный в память.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @param position   позиция начала в контенте
+     * @param length     длина, не больше {@link Integer#MAX_VALUE}
+     * @return буфер
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    ByteBuffer map(String externalId, long position, long length) throws FileStorageException;
+
+    /**
+     * Открывает поток чтения части контента.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @param position   позиция начала в контенте
+     * @param length     длина, не больше {@link Integer#MAX_VALUE}
+     * @return поток чтения
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    InputStream openStream(String externalId, long position, long length) throws FileStorageException;
+
+    /**
+     * Создает временный файл заданного размера для последующей записи контента частями.
+     *
+     * @param size размер файла
+     * @return путь к временному файлу
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    Path allocateTempFile(long size) throws FileStorageException;
+
+    /**
+     * Сохранить временный файл, созданный {@link #allocateTempFile(long)}. Временный файл перемещается в хранилище.
+     *
+     * @param tmpFile путь к временному файлу
+     * @return идентификатором хранения в файловой системе
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    String storeTempFile(Path tmpFile) throws FileStorageException;
 }
@@ -1,19 +1,34 @@
 package com.daleksandrova.springtasks.task2.service;
 
 import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import com.daleksandrova.springtasks.task2.io.ByteBufferInputStream;
+import com.daleksandrova.springtasks.task2.io.ChannelCopier;
+import com.daleksandrova.springtasks.task2.io.ContentWriter;
+import com.daleksandrova.springtasks.task2.io.MappedRegionCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.CopyOption;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -23,11 +38,54 @@ import java.util.UUID;
  * @since 2023.11.18
  */
 @Service
+@ConditionalOnProperty(name = "fileStorage.type", havingValue = "default", matchIfMissing = true)
 public class FileManagerImpl implements FileManager {
 
     @Value("${dataPath}")
     private String dataPath;
 
+    /**
+     * Количество уровней вложенности папок хранилища.
+     */
+    @Value("${fileStorage.shardLevels:0}")
+    private int shardLevels;
+
+    /**
+     * Размер буфера копирования контента.
+     */
+    @Value("${fileStorage.copy.bufferSize:262144}")
+    private int copyBufferSize;
+
+    /**
+     * Максимальное количество буферов копирования в пуле.
+     */
+    @Value("${fileStorage.copy.pooledBuffers:32}")
+    private int copyPooledBuffers;
+
+    /**
+     * Режим надежности записи.
+     */
+    @Value("${fileStorage.durability.mode:none}")
+    private DurabilityMode durabilityMode;
+
+    /**
+     * Период групповой записи на диск, мс.
+     */
+    @Value("${fileStorage.durability.groupCommitIntervalMs:5}")
+    private long groupCommitIntervalMs;
+
+    /**
+     * Максимальный размер файла, который держится отображенным в память.
+     */
+    @Value("${fileStorage.read.mappedMaxFileSize:67108864}")
+    protected long mappedMaxFileSize;
+
+    /**
+     * Максимальный суммарный размер файлов, отображенных в память.
+     */
+    @Value("${fileStorage.read.mappedCacheSize:536870912}")
+    private long mappedCacheSize;
+
     /**
      * Логгер.
      */
@@ -36,17 +94,37 @@ public class FileManagerImpl implements FileManager {
     /**
      * Папка хранения файлов.
      */
-    private File storageDir;
+    protected File storageDir;
 
     /**
      * Папка хранения мета-информации.
      */
-    private File metaDir;
+    protected File metaDir;
 
     /**
      * Папка хранения временного контента.
      */
-    private File tmpDir;
+    protected File tmpDir;
+
+    /**
+     * Раскладка файлов по папкам хранилища.
+     */
+    protected ShardedLayout layout;
+
+    /**
+     * Копирование контента во временные файлы.
+     */
+    protected ChannelCopier copier;
+
+    /**
+     * Сброс на диск согласно режиму надежности.
+     */
+    protected DurableFileSync fileSync;
+
+    /**
+     * Кеш файлов, отображенных в память.
+     */
+    protected MappedRegionCache mappedRegions;
 
     /**
      * Инициализация папок.
@@ -63,6 +141,10 @@ public class FileManagerImpl implements FileManager {
         storageDir = new File(base, "data");
         tmpDir = new File(base, "tmp");
         metaDir = new File(base, "meta");
+        layout = new ShardedLayout(shardLevels);
+        copier = new ChannelCopier(copyBufferSize, copyPooledBuffers);
+        fileSync = new DurableFileSync(durabilityMode, groupCommitIntervalMs);
+        mappedRegions = new MappedRegionCache(mappedMaxFileSize, mappedCacheSize);
 
         if (!storageDir.exists() && !storageDir.mkdirs()) {
             throw new IllegalStateException("Failed to make dir " + storageDir.getName());
@@ -75,8 +157,15 @@ public class FileManagerImpl implements FileManager {
         }
     }
 
+    /**
+     * Остановка групповой записи на диск.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        fileSync.close();
+    }
+
     @Override
-    @Transactional
     public String store(InputStream inputStream) throws FileStorageException {
         File tmp = null;
 
@@ -85,8 +174,8 @@ public class FileManagerImpl implements FileManager {
             tmp = File.createTempFile(fileId, ".tmp", tmpDir);
             storeTmpFile(inputStream, tmp);
 
-            File file = new File(storageDir, fileId);
-            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            File file = layout.resolveForWrite(storageDir, fileId);
+            moveDurably(tmp.toPath(), file.toPath());
 
             LOG.debug("Return new file {}", fileId);
             return fileId;
@@ -100,14 +189,20 @@ public class FileManagerImpl implements FileManager {
     }
 
     @Override
-    @Transactional
     public void storeMetaInformation(InputStream inputStream, String fileName) {
+        storeMetaInformation(inputStream::transferTo, fileName);
+    }
+
+    @Override
+    public void storeMetaInformation(ContentWriter contentWriter, String fileName) {
         File metaTmpFile = null;
         try {
             metaTmpFile = File.createTempFile(fileName, ".tmp", metaDir);
-            storeTmpFile(inputStream, metaTmpFile);
+            try (OutputStream out = Files.newOutputStream(metaTmpFile.toPath())) {
+                contentWriter.writeTo(out);
+            }
 
-            File file = new File(metaDir, fileName + ".json");
+            File file = layout.resolveForWrite(metaDir, fileName + ".json");
             Files.move(metaTmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
 
             LOG.debug("Stored meta file {}", fileName);
@@ -120,6 +215,185 @@ public class FileManagerImpl implements FileManager {
         }
     }
 
+    @Override
+    public void delete(String externalId) throws FileStorageException {
+        try {
+            final Path file = contentPath(externalId);
+            mappedRegions.invalidate(file);
+            Files.deleteIfExists(file);
+            LOG.debug("Deleted file {}", externalId);
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    @Override
+    public Path allocateTempFile(long size) throws FileStorageException {
+        try {
+            final File tmp = File.createTempFile("upload", ".tmp", tmpDir);
+            try (RandomAccessFile file = new RandomAccessFile(tmp, "rw")) {
+                file.setLength(size);
+            }
+            return tmp.toPath();
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    @Override
+    public String storeTempFile(Path tmpFile) throws FileStorageException {
+        try {
+            String fileId = UUID.randomUUID().toString();
+            File file = layout.resolveForWrite(storageDir, fileId);
+            moveDurably(tmpFile, file.toPath());
+
+            LOG.debug("Return new file {}", fileId);
+            return fileId;
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    @Override
+    public Optional<Path> resolveContentFile(String externalId) {
+        final Path file = contentPath(externalId);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    @Override
+    public long transferTo(String externalId, long position, long count, WritableByteChannel target)
+            throws FileStorageException {
+        return transferTo(contentPath(externalId), position, count, target);
+    }
+
+    @Override
+    public ReadableByteChannel openChannel(String externalId, long position) throws FileStorageException {
+        return openChannel(contentPath(externalId), position);
+    }
+
+    @Override
+    public ByteBuffer map(String externalId, long position, long length) throws FileStorageException {
+        return map(contentPath(externalId), position, length);
+    }
+
+    /**
+     * Передает часть файла с контентом в канал. Небольшие файлы читаются из отображения в память,
+     * остальные передаются через {@link FileChannel#transferTo}.
+     *
+     * @param file     файл с контентом
+     * @param position позиция начала в контенте
+     * @param count    количество байт
+     * @param target   канал назначения
+     * @return количество переданных байт
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    protected long transferTo(Path file, long position, long count, WritableByteChannel target)
+            throws FileStorageException {
+        if (count <= mappedMaxFileSize) {
+            return writeFully(map(file, position, count), target);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < count) {
+                final long written = channel.transferTo(position + transferred, count - transferred, target);
+                if (written <= 0) {
+                    break;
+                }
+                transferred += written;
+            }
+            return transferred;
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    /**
+     * Открывает канал чтения файла с контентом с заданной позиции.
+     *
+     * @param file     файл с контентом
+     * @param position позиция начала в контенте
+     * @return канал чтения, закрывается вызывающим
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    protected ReadableByteChannel openChannel(Path file, long position) throws FileStorageException {
+        try {
+            final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            channel.position(position);
+            return channel;
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    /**
+     * Возвращает часть файла с контентом как буфер только для чтения, отображенный в память.
+     *
+     * @param file     файл с контентом
+     * @param position позиция начала в контенте
+     * @param length   длина, не больше {@link Integer#MAX_VALUE}
+     * @return буфер
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    protected ByteBuffer map(Path file, long position, long length) throws FileStorageException {
+        try {
+            return mappedRegions.slice(file, position, length);
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    @Override
+    public InputStream openStream(String externalId, long position, long length) throws FileStorageException {
+        return new ByteBufferInputStream(map(externalId, position, length));
+    }
+
+    /**
+     * Возвращает путь к файлу с контентом.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @return путь к файлу
+     */
+    protected Path contentPath(String externalId) {
+        return layout.locate(storageDir, externalId).toPath();
+    }
+
+    /**
+     * Записывает буфер в канал целиком.
+     *
+     * @param buffer буфер
+     * @param target канал назначения
+     * @return количество записанных байт
+     * @throws FileStorageException при ошибках записи
+     */
+    protected static long writeFully(ByteBuffer buffer, WritableByteChannel target) throws FileStorageException {
+        long written = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                written += target.write(buffer);
+            }
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+        return written;
+    }
+
+    /**
+     * Атомарно перемещает файл на место, сбрасывая на диск файл до перемещения и папку после, если этого требует
+     * режим надежности.
+     *
+     * @param source  перемещаемый файл
+     * @param target  путь на месте
+     * @param options дополнительные параметры перемещения
+     * @throws IOException ошибка при перемещении или сбросе
+     */
+    protected void moveDurably(Path source, Path target, CopyOption... options) throws IOException {
+        fileSync.syncFile(source);
+        final CopyOption[] moveOptions = Arrays.copyOf(options, options.length + 1);
+        moveOptions[options.length] = StandardCopyOption.ATOMIC_MOVE;
+        Files.move(source, target, moveOptions);
+        fileSync.syncDir(target.getParent());
+    }
+
     /**
      * Записывает контент в временный файл.
      *
@@ -127,10 +401,9 @@ public class FileManagerImpl implements FileManager {
      * @param tmp         временный контент
      * @throws IOException ошибка при записи
      */
-    private void storeTmpFile(InputStream inputStream, File tmp) throws IOException {
-        try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
-            inputStream.transferTo(out);
-            out.flush();
+    protected void storeTmpFile(InputStream inputStream, File tmp) throws IOException {
+        try (FileChannel out = FileChannel.open(tmp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            copier.copy(inputStream, out);
         }
     }
 }
@@ -0,0 +1,176 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подсистема записи файлов метаданных сущностей файлов.
+ * Метаданные ставятся в очередь и сбрасываются на диск асинхронно пачками.
+ * Если метаданные сущности не изменились с последней записи, повторная запись не выполняется.
+ * По требованиям любая ошибка записи метаданных не влияет на сохраненный контент и его сущность.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Service
+public class FileMetaInformationWriter {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FileMetaInformationWriter.class);
+
+    /**
+     * Общий потокобезопасный сериализатор метаданных. Пишет json непосредственно в поток мета-файла,
+     * не создавая промежуточных строк и массивов байт. Поток закрывает менеджер файлов.
+     */
+    private static final ObjectWriter META_WRITER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .writerFor(FileEntityDto.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    /**
+     * Менеджер файлов.
+     */
+    private final FileManager fileManager;
+
+    /**
+     * Метаданные, ожидающие записи. Более поздние метаданные сущности замещают не записанные ранние.
+     */
+    private final Map<String, FileEntityDto> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Последние записанные метаданные недавно записанных сущностей, не более fileStorage.meta.writtenCacheSize.
+     * Давно записанные вытесняются: для них изменение метаданных не проверяется, и мета-файл просто перезаписывается.
+     */
+    private final Map<String, FileEntityDto> written = Collections.synchronizedMap(
+            new LinkedHashMap<String, FileEntityDto>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, FileEntityDto> eldest) {
+                    return size() > writtenCacheSize;
+                }
+            });
+
+    /**
+     * Максимальное количество сущностей, последние записанные метаданные которых запоминаются.
+     */
+    @Value("${fileStorage.meta.writtenCacheSize:10000}")
+    private int writtenCacheSize;
+
+    /**
+     * Интервал сброса метаданных на диск, мс.
+     */
+    @Value("${fileStorage.meta.flushIntervalMs:100}")
+    private long flushIntervalMs;
+
+    /**
+     * Размер пачки, при накоплении которой сброс выполняется не дожидаясь интервала.
+     */
+    @Value("${fileStorage.meta.batchSize:256}")
+    private int batchSize;
+
+    /**
+     * Исполнитель сброса метаданных.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Конструктор.
+     *
+     * @param fileManager менеджер файлов
+     */
+    public FileMetaInformationWriter(FileManager fileManager) {
+        this.fileManager = fileManager;
+    }
+
+    /**
+     * Запуск периодического сброса метаданных.
+     */
+    @PostConstruct
+    public void postConstruct() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "file-meta-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Остановка периодического сброса с записью оставшихся метаданных.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        executor.shutdown();
+        flush();
+    }
+
+    /**
+     * Ставит метаданные сущности в очередь на запись. После остановки сброса метаданные записываются сразу.
+     *
+     * @param fileEntityDto метаданные сущности
+     */
+    public void schedule(final FileEntityDto fileEntityDto) {
+        if (fileEntityDto.equals(written.get(fileEntityDto.getId()))) {
+            LOG.debug("Meta information of {} is not changed", fileEntityDto.getId());
+            return;
+        }
+        pending.put(fileEntityDto.getId(), fileEntityDto);
+        if (executor.isShutdown()) {
+            // после остановки сбрасывать очередь некому: метаданные записываются сразу
+            flush();
+        } else if (pending.size() >= batchSize) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException ex) {
+                // исполнитель остановили после проверки: загрузка уже зафиксирована, поэтому ошибка не выбрасывается
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Записывает на диск все метаданные, ожидающие записи.
+     */
+    public synchronized void flush() {
+        for (String id : pending.keySet()) {
+            final FileEntityDto fileEntityDto = pending.remove(id);
+            if (fileEntityDto == null || fileEntityDto.equals(written.get(id))) {
+                continue;
+            }
+            fileManager.storeMetaInformation(outputStream -> writeTo(fileEntityDto, outputStream), id);
+            written.put(id, fileEntityDto);
+        }
+    }
+
+    /**
+     * Сериализует метаданные сущности в json непосредственно в поток. Поток не закрывается.
+     *
+     * @param fileEntityDto метаданные сущности
+     * @param outputStream  поток мета-файла
+     * @throws IOException ошибка при записи
+     */
+    public static void writeTo(FileEntityDto fileEntityDto, OutputStream outputStream) throws IOException {
+        META_WRITER.writeValue(outputStream, fileEntityDto);
+    }
+}
@@ -0,0 +1,188 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
+import com.daleksandrova.springtasks.task2.dto.FileMetadataCacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Кеш метаданных файлов по идентификатору.
+ * Хранит неизменяемые снимки {@link FileEntityDto}, поэтому повторное чтение метаданных не обращается к БД.
+ * Размер кеша ограничен, записи вытесняются по давности использования и устаревают по времени.
+ * Снимок, загруженный из БД одновременно с изменением той же сущности, в кеш не попадает: сброс записи оставляет
+ * метку с номером сброса, и снимок, загрузка которого началась раньше, отбрасывается. Метки хранятся для последних
+ * сброшенных файлов; для вытесненных меток помнится только наибольший номер, так что загрузки, начатые до него,
+ * отбрасываются для любых файлов.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+public class FileMetadataCache {
+
+    /**
+     * Максимальное количество записей, 0 - кеш выключен.
+     */
+    @Value("${fileStorage.metaCache.maxSize:10000}")
+    private int maxSize;
+
+    /**
+     * Время жизни записи, мс.
+     */
+    @Value("${fileStorage.metaCache.ttlMs:60000}")
+    private long ttlMs;
+
+    /**
+     * Записи в порядке использования.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Номера последних сбросов записей по идентификаторам файлов в порядке сброса.
+     */
+    private final LinkedHashMap<String, Long> tombstones = new LinkedHashMap<>();
+
+    /**
+     * Номер последнего сброса записи, увеличивается при каждом сбросе.
+     */
+    private long clock;
+
+    /**
+     * Наибольший номер сброса среди вытесненных меток.
+     */
+    private long tombstoneFloor;
+
+    /**
+     * Количество попаданий.
+     */
+    private long hits;
+
+    /**
+     * Количество промахов.
+     */
+    private long misses;
+
+    /**
+     * Количество записей, вытесненных по размеру или устаревших.
+     */
+    private long evictions;
+
+    /**
+     * Количество сброшенных записей.
+     */
+    private long invalidations;
+
+    /**
+     * Возвращает снимок метаданных файла из кеша.
+     *
+     * @param fileId идентификатор файла
+     * @return снимок, если он есть в кеше и не устарел
+     */
+    public synchronized Optional<FileEntityDto> get(String fileId) {
+        final Entry entry = entries.get(fileId);
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        if (entry.expirationTime < System.currentTimeMillis()) {
+            entries.remove(fileId);
+            evictions++;
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(entry.snapshot.copy());
+    }
+
+    /**
+     * Возвращает номер последнего сброса записи. Его нужно получить до загрузки метаданных из БД и передать в {@link #put}.
+     *
+     * @return номер последнего сброса
+     */
+    public synchronized long getVersion() {
+        return clock;
+    }
+
+    /**
+     * Кладет снимок метаданных файла в кеш, если с момента получения номера запись этого файла не сбрасывалась.
+     *
+     * @param fileEntityDto метаданные файла
+     * @param version       номер последнего сброса до загрузки метаданных
+     */
+    public synchronized void put(FileEntityDto fileEntityDto, long version) {
+        if (maxSize <= 0 || version < tombstoneFloor) {
+            return;
+        }
+        final Long invalidated = tombstones.get(fileEntityDto.getId());
+        if (invalidated != null && invalidated > version) {
+            return;
+        }
+        entries.put(fileEntityDto.getId(), new Entry(fileEntityDto.copy(), System.currentTimeMillis() + ttlMs));
+        final Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Сбрасывает запись о файле. Вызывается при сохранении, изменении и удалении сущности.
+     *
+     * @param fileId идентификатор файла
+     */
+    public synchronized void invalidate(String fileId) {
+        // удаление перед вставкой ставит метку в конец: вытесняются метки самых давних сбросов
+        tombstones.remove(fileId);
+        tombstones.put(fileId, ++clock);
+        final Iterator<Map.Entry<String, Long>> eldest = tombstones.entrySet().iterator();
+        while (tombstones.size() > Math.max(maxSize, 1)) {
+            tombstoneFloor = Math.max(tombstoneFloor, eldest.next().getValue());
+            eldest.remove();
+        }
+        if (entries.remove(fileId) != null) {
+            invalidations++;
+        }
+    }
+
+    /**
+     * Возвращает статистику кеша.
+     *
+     * @return статистика
+     */
+    public synchronized FileMetadataCacheStats getStats() {
+        return new FileMetadataCacheStats(entries.size(), maxSize, hits, misses, evictions, invalidations);
+    }
+
+    /**
+     * Запись кеша.
+     */
+    private static final class Entry {
+
+        /**
+         * Снимок метаданных.
+         */
+        private final FileEntityDto snapshot;
+
+        /**
+         * Время устаревания, мс.
+         */
+        private final long expirationTime;
+
+        /**
+         * Конструктор.
+         *
+         * @param snapshot       снимок метаданных
+         * @param expirationTime время устаревания, мс
+         */
+        private Entry(FileEntityDto snapshot, long expirationTime) {
+            this.snapshot = snapshot;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.daleksandrova.springtasks.task2.service;
 
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
 import com.daleksandrova.springtasks.task2.dto.FileProperties;
+import com.daleksandrova.springtasks.task2.dto.UploadedFile;
 
 import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Интерфейс сервиса работы с файлами.
@@ -10,11 +14,52 @@ import java.io.InputStream;
 public interface FileService {
 
     /**
-     * Добавляет в хранилище загруженный файл, возвращая его идентификатор.
+     * Добавляет в хранилище загруженный файл, возвращая его ДТО.
+     * Контрольная сумма контента вычисляется в том же проходе, в котором контент копируется в хранилище.
+     * Контент сохраняется в хранилище вне транзакции, затем сущность вставляется одним INSERT в короткой транзакции
+     * и не перечитывается из БД.
      *
      * @param fileProperties свойства добавляемого файла
      * @param contentStream  поток, из которого будет считано содержимое файла
+     * @return ДТО сохраненного ресурса
+     */
+    FileEntityDto addFile(FileProperties fileProperties, InputStream contentStream);
+
+    /**
+     * Добавляет в хранилище пачку загруженных файлов, возвращая их идентификаторы.
+     * Контент файлов сохраняется параллельно, а сущности записываются в БД пакетно одним сбросом.
+     * Если не удалось сохранить хотя бы один файл, не сохраняется ни один.
+     *
+     * @param uploadedFiles загруженные файлы
+     * @return идентификаторы сохраненных ресурсов в порядке загруженных файлов
+     */
+    List<String> addFiles(List<UploadedFile> uploadedFiles);
+
+    /**
+     * Добавляет файл, контент которого уже сохранен в хранилище, возвращая его идентификатор.
+     * Если сущность файла не будет сохранена, контент удаляется из хранилища.
+     *
+     * @param fileProperties свойства добавляемого файла
+     * @param externalId     идентификатор хранения контента в файловой системе
+     * @param checksum       контрольная сумма контента, пусто - не вычислялась
      * @return идентификатор сохраненного ресурса
      */
-    String addFile(FileProperties fileProperties, InputStream contentStream);
-}
\ No newline at end of file
+    String addStoredFile(FileProperties fileProperties, String externalId, String checksum);
+
+    /**
+     * Ищет файл по идентификатору.
+     * Метаданные недавно найденных файлов берутся из кеша, без обращения к БД.
+     *
+     * @param fileId идентификатор файла
+     * @return ДТО файла, если файл найден
+     */
+    Optional<FileEntityDto> findFile(String fileId);
+
+    /**
+     * Возвращает содержимое файла, если оно хранится прямо в БД, а не в хранилище файлов.
+     *
+     * @param fileId идентификатор файла
+     * @return содержимое файла
+     */
+    Optional<byte[]> findInlineContent(String fileId);
+}
@@ -1,18 +1,45 @@
 package com.daleksandrova.springtasks.task2.service;
 
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
 import com.daleksandrova.springtasks.task2.dto.FileProperties;
+import com.daleksandrova.springtasks.task2.dto.UploadedFile;
 import com.daleksandrova.springtasks.task2.entity.FileEntity;
+import com.daleksandrova.springtasks.task2.entity.StorageTier;
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import com.daleksandrova.springtasks.task2.io.ChecksumAlgorithm;
+import com.daleksandrova.springtasks.task2.io.ChecksumInputStream;
+import com.daleksandrova.springtasks.task2.io.ContentCodec;
+import com.daleksandrova.springtasks.task2.io.CountingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.repository.JpaContext;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityManager;
+import javax.sql.rowset.serial.SerialBlob;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.sql.Blob;
+import java.io.SequenceInputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Имплементация сервиса по работе с файлами.
+ * Контент сохраняется в хранилище до начала транзакции, поэтому соединение с БД занято только на время вставки
+ * сущности и не зависит от размера файла. Контент, сущность которого не зафиксирована, удаляется
+ * с помощью {@link PendingContentRegistry}.
  *
  * @author Darya Alexandrova
  * @since 2023.11.17
@@ -20,129 +47,325 @@ import java.util.UUID;
 @Service
 public class FileServiceImpl implements FileService {
 
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FileServiceImpl.class);
+
     /**
      * Менеджер сущностей.
      */
     private final EntityManager entityManager;
 
     /**
-     * Конструктор.
-     *
-     * @param jpaContext контекст
+     * Менеджер файлов.
      */
-    public FileServiceImpl(JpaContext jpaContext) {
-        this.entityManager = jpaContext.getEntityManagerByManagedType(FileEntity.class);
-    }
+    private final FileManager fileManager;
 
-    @Override
-    public String addFile(FileProperties fileProperties, InputStream contentStream) {
-        final String fileId = UUID.randomUUID().toString();
-        FileEntity fileEntity = createFileEntity(fileProperties, contentStream, fileId);
-
-        entityManager.persist(fileEntity);
-        entityManager.flush();
-        entityManager.refresh(fileEntity);
-        return fileId;
-    }
+    /**
+     * Реестр контента, ожидающего фиксации транзакции.
+     */
+    private final PendingContentRegistry pendingContentRegistry;
 
     /**
-     * Создает сущность файла.
-     *
-     * @param fileProperties свойства
-     * @param contentStream  контент
-     * @param fileId         идентификатор
-     * @return сущность файла
+     * Кеш метаданных файлов.
      */
-    private FileEntity createFileEntity(FileProperties fileProperties, InputStream contentStream, String fileId) {
-        FileEntity fileEntity = new FileEntity();
-        fileEntity.setId(fileId);
-        fileEntity.setName(fileProperties.getName());
-        fileEntity.setMimeType(fileProperties.getContentType());
-        fileEntity.setContentSize(fileProperties.getContentSize());
-        fileEntity.setContent(new InputStreamBlobWrapper(contentStream, fileProperties.getContentSize()));
+    private final FileMetadataCache fileMetadataCache;
 
-        return fileEntity;
-    }
+    /**
+     * Политика сжатия контента.
+     */
+    private final CompressionPolicy compressionPolicy;
 
     /**
-     * Обёртка над {@link InputStream}, позволяющая работать с ним, как с {@link Blob}.
+     * Шаблон короткой транзакции вставки сущностей.
      */
-    private static class InputStreamBlobWrapper implements Blob {
+    private final TransactionTemplate transactionTemplate;
 
-        /**
-         * Оборачиваемый поток.
-         */
-        private final InputStream contentStream;
+    /**
+     * Шаблон транзакции чтения.
+     */
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
-        /**
-         * Размер контента, который может быть прочитан из оборачиваемого потока.
-         */
-        private final long length;
+    /**
+     * Исполнитель параллельного сохранения контента пачки файлов.
+     */
+    private final ExecutorService storeExecutor;
 
-        /**
-         * Constructor.
-         *
-         * @param contentStream оборачиваемый поток
-         * @param length        размер контента, который может быть прочитан из оборачиваемого потока
-         */
-        private InputStreamBlobWrapper(InputStream contentStream, long length) {
-            this.length = length;
-            this.contentStream = contentStream;
-        }
+    /**
+     * Количество сущностей, после записи которых контекст персистентности очищается.
+     */
+    private final int batchSize;
 
-        @Override
-        public long length() {
-            return length;
-        }
+    /**
+     * Максимальный размер контента, хранящегося прямо в БД. 0 - контент всегда пишется в хранилище файлов.
+     */
+    @Value("${fileStorage.inline.maxSize:0}")
+    private int inlineMaxSize;
 
-        @Override
-        public InputStream getBinaryStream() {
-            return contentStream;
-        }
+    /**
+     * Алгоритм контрольной суммы контента, none - не вычисляется.
+     */
+    @Value("${fileStorage.checksum.algorithm:crc32c}")
+    private ChecksumAlgorithm checksumAlgorithm;
 
-        @Override
-        public InputStream getBinaryStream(long pos, long length) {
-            throw new UnsupportedOperationException();
-        }
+    /**
+     * Конструктор.
+     *
+     * @param jpaContext             контекст
+     * @param fileManager            менеджер файлов
+     * @param pendingContentRegistry реестр контента, ожидающего фиксации транзакции
+     * @param fileMetadataCache      кеш метаданных файлов
+     * @param compressionPolicy      политика сжатия контента
+     * @param transactionManager     менеджер транзакций
+     * @param storeThreads           количество потоков параллельного сохранения контента пачки файлов
+     * @param batchSize              размер пакета вставки сущностей
+     */
+    public FileServiceImpl(JpaContext jpaContext, FileManager fileManager, PendingContentRegistry pendingContentRegistry,
+                           FileMetadataCache fileMetadataCache, CompressionPolicy compressionPolicy,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${fileStorage.batch.storeThreads:4}") int storeThreads,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.entityManager = jpaContext.getEntityManagerByManagedType(FileEntity.class);
+        this.fileManager = fileManager;
+        this.pendingContentRegistry = pendingContentRegistry;
+        this.fileMetadataCache = fileMetadataCache;
+        this.compressionPolicy = compressionPolicy;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.storeExecutor = Executors.newFixedThreadPool(storeThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "file-batch-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Остановка исполнителя параллельного сохранения контента.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        storeExecutor.shutdown();
+    }
+
+    @Override
+    public FileEntityDto addFile(FileProperties fileProperties, InputStream contentStream) {
+        final FileEntity fileEntity = storeContent(new UploadedFile(fileProperties, contentStream));
+        persist(List.of(fileEntity));
+        return FileEntityDto.from(fileEntity);
+    }
 
-        @Override
-        public byte[] getBytes(long pos, int length) {
-            throw new UnsupportedOperationException();
+    @Override
+    public List<String> addFiles(List<UploadedFile> uploadedFiles) {
+        final List<CompletableFuture<FileEntity>> futures = new ArrayList<>(uploadedFiles.size());
+        for (UploadedFile uploadedFile : uploadedFiles) {
+            futures.add(CompletableFuture.supplyAsync(() -> storeContent(uploadedFile), storeExecutor));
         }
 
-        @Override
-        public long position(@SuppressWarnings("null") byte[] pattern, long start) {
-            throw new UnsupportedOperationException();
+        final List<FileEntity> fileEntities = new ArrayList<>(uploadedFiles.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<FileEntity> future : futures) {
+            try {
+                fileEntities.add(future.join());
+            } catch (CompletionException ex) {
+                failure = ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+            }
+        }
+        if (failure != null) {
+            deleteContent(fileEntities);
+            throw failure;
         }
 
-        @Override
-        public long position(@SuppressWarnings("null") Blob pattern, long start) {
-            throw new UnsupportedOperationException();
+        persist(fileEntities);
+        final List<String> fileIds = new ArrayList<>(fileEntities.size());
+        for (FileEntity fileEntity : fileEntities) {
+            fileIds.add(fileEntity.getId());
         }
+        return fileIds;
+    }
 
-        @Override
-        public int setBytes(long pos, @SuppressWarnings("null") byte[] bytes) {
-            throw new UnsupportedOperationException();
+    @Override
+    public String addStoredFile(FileProperties fileProperties, String externalId, String checksum) {
+        final FileEntity fileEntity = createFileEntity(fileProperties, UUID.randomUUID().toString());
+        fileEntity.setExternalId(externalId);
+        fileEntity.setChecksum(checksum);
+        persist(List.of(fileEntity));
+        return fileEntity.getId();
+    }
+
+    @Override
+    public Optional<FileEntityDto> findFile(String fileId) {
+        final Optional<FileEntityDto> cached = fileMetadataCache.get(fileId);
+        if (cached.isPresent()) {
+            return cached;
         }
+        final long version = fileMetadataCache.getVersion();
+        final Optional<FileEntityDto> file = Optional.ofNullable(entityManager.find(FileEntity.class, fileId)).map(FileEntityDto::from);
+        file.ifPresent(fileEntityDto -> fileMetadataCache.put(fileEntityDto, version));
+        return file;
+    }
+
+    @Override
+    public Optional<byte[]> findInlineContent(String fileId) {
+        // блоб читается в той же транзакции, в которой загружена сущность
+        return readOnlyTransactionTemplate.execute(status -> {
+            final FileEntity fileEntity = entityManager.find(FileEntity.class, fileId);
+            if (fileEntity == null || fileEntity.getExternalId() != null || fileEntity.getContent() == null) {
+                return Optional.empty();
+            }
+            try (InputStream inputStream = fileEntity.getContent().getBinaryStream()) {
+                return Optional.of(inputStream.readAllBytes());
+            } catch (IOException | SQLException ex) {
+                throw new FileStorageException(ex);
+            }
+        });
+    }
 
-        @Override
-        public int setBytes(long pos, @SuppressWarnings("null") byte[] bytes, int offset, int len) {
-            throw new UnsupportedOperationException();
+    /**
+     * Сохраняет контент загруженного файла и создает для него сущность файла.
+     * Вызывается вне транзакции. Если размер контента заранее неизвестен, он вычисляется по количеству записанных байт.
+     * Контент не больше fileStorage.inline.maxSize остается в сущности и хранится прямо в БД.
+     * Остальной контент по пути в хранилище сжимается, если это предписывает {@link CompressionPolicy}.
+     *
+     * @param uploadedFile загруженный файл
+     * @return сущность файла с идентификатором сохраненного контента
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    private FileEntity storeContent(UploadedFile uploadedFile) {
+        final FileProperties fileProperties = uploadedFile.getFileProperties();
+        final FileEntity fileEntity = createFileEntity(fileProperties, UUID.randomUUID().toString());
+        try (final InputStream inputStream = uploadedFile.getContentStream()) {
+            if (fileProperties.getContentSize() == 0) {
+                return fileEntity;
+            }
+            InputStream contentStream = inputStream;
+            if (inlineMaxSize > 0 && fileProperties.getContentSize() <= inlineMaxSize) {
+                // размер может быть неизвестен, поэтому читаем не больше порога и смотрим, закончился ли контент
+                final byte[] head = inputStream.readNBytes(inlineMaxSize + 1);
+                if (head.length <= inlineMaxSize) {
+                    fileEntity.setContentSize(head.length);
+                    if (checksumAlgorithm != ChecksumAlgorithm.NONE) {
+                        final ChecksumAlgorithm.Digest digest = checksumAlgorithm.newDigest();
+                        digest.update(head, 0, head.length);
+                        fileEntity.setChecksum(digest.finish());
+                    }
+                    if (head.length > 0) {
+                        fileEntity.setContent(new SerialBlob(head));
+                        fileEntity.setContentInline(true);
+                    }
+                    return fileEntity;
+                }
+                contentStream = new SequenceInputStream(new ByteArrayInputStream(head), inputStream);
+            }
+            // размер и контрольная сумма считаются по исходному контенту в том же проходе, в хранилище попадает сжатый
+            final CountingInputStream countingStream = new CountingInputStream(contentStream);
+            final ChecksumInputStream checksumStream = checksumAlgorithm != ChecksumAlgorithm.NONE
+                    ? new ChecksumInputStream(countingStream, checksumAlgorithm) : null;
+            final ContentCodec codec = compressionPolicy.codecFor(fileProperties.getContentType());
+            fileEntity.setExternalId(fileManager.store(codec.encode(checksumStream != null ? checksumStream : countingStream)));
+            fileEntity.setContentSize(countingStream.getCount());
+            fileEntity.setContentCodec(codec);
+            if (checksumStream != null) {
+                fileEntity.setChecksum(checksumStream.getChecksum());
+            }
+        } catch (IOException | SQLException ex) {
+            throw new FileStorageException(ex);
         }
+        return fileEntity;
+    }
 
-        @Override
-        public OutputStream setBinaryStream(long pos) {
-            throw new UnsupportedOperationException();
+    /**
+     * Удаляет сохраненный контент файлов, сущности которых не будут сохранены.
+     *
+     * @param fileEntities сущности файлов
+     */
+    private void deleteContent(List<FileEntity> fileEntities) {
+        for (FileEntity fileEntity : fileEntities) {
+            if (fileEntity.getExternalId() == null) {
+                continue;
+            }
+            try {
+                fileManager.delete(fileEntity.getExternalId());
+            } catch (FileStorageException ex) {
+                LOG.error("Failed to delete content {}", fileEntity.getExternalId(), ex);
+            }
         }
+    }
 
-        @Override
-        public void truncate(long len) {
-            throw new UnsupportedOperationException();
+    /**
+     * Вставляет сущности файлов с уже сохраненным контентом в короткой транзакции.
+     * Сущности вставляются пакетами и не перечитываются. Если транзакция не будет зафиксирована, контент удаляется.
+     *
+     * @param fileEntities сущности файлов
+     */
+    private void persist(List<FileEntity> fileEntities) {
+        final List<String> tokens = registerAll(fileEntities);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                tokens.forEach(pendingContentRegistry::bindToTransaction);
+                for (int i = 0; i < fileEntities.size(); i++) {
+                    entityManager.persist(fileEntities.get(i));
+                    if ((i + 1) % batchSize == 0) {
+                        // вставленные сущности больше не нужны контексту: вызывающие получают DTO
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+        } catch (RuntimeException ex) {
+            persistFailed(tokens);
+            throw ex;
         }
+    }
 
-        @Override
-        public void free() {
-            throw new UnsupportedOperationException();
+    /**
+     * Отмечает сохраненный контент сущностей как ожидающий фиксации транзакции.
+     *
+     * @param fileEntities сущности файлов
+     * @return отметки
+     */
+    private List<String> registerAll(List<FileEntity> fileEntities) {
+        final List<String> tokens = new ArrayList<>(fileEntities.size());
+        try {
+            for (FileEntity fileEntity : fileEntities) {
+                if (fileEntity.getExternalId() != null) {
+                    tokens.add(pendingContentRegistry.register(fileEntity.getExternalId(), fileEntity.getId()));
+                }
+            }
+        } catch (RuntimeException ex) {
+            persistFailed(tokens);
+            throw ex;
         }
+        return tokens;
+    }
+
+    /**
+     * Удаляет контент, сущности которого не будут сохранены.
+     *
+     * @param tokens отметки контента
+     */
+    private void persistFailed(List<String> tokens) {
+        tokens.forEach(pendingContentRegistry::rollback);
+    }
+
+    /**
+     * Создает сущность файла.
+     *
+     * @param fileProperties свойства
+     * @param fileId         идентификатор
+     * @return сущность файла
+     */
+    private FileEntity createFileEntity(FileProperties fileProperties, String fileId) {
+        FileEntity fileEntity = new FileEntity();
+        fileEntity.setId(fileId);
+        fileEntity.setName(fileProperties.getName());
+        fileEntity.setMimeType(fileProperties.getContentType());
+        fileEntity.setContentSize(fileProperties.getContentSize());
+        // новый контент всегда пишется в быстрое хранилище
+        fileEntity.setStorageTier(StorageTier.HOT);
+
+        return fileEntity;
     }
 }
@@ -0,0 +1,287 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.entity.FileEntity;
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Реестр контента, сохраненного в хранилище до фиксации транзакции с его сущностью.
+ * Контент пишется в хранилище вне транзакции, а на время транзакции с его сущностью на диске лежит отметка.
+ * После фиксации отметка удаляется, после отката удаляется и контент. Отметки, оставшиеся после аварийной
+ * остановки приложения, периодически разбираются: если сущность загрузки так и не была зафиксирована, ее ссылка
+ * на контент освобождается. Для хранилища с дедупликацией это снимает одну ссылку, даже если на тот же контент
+ * ссылаются другие сущности. Отметки сбрасываются на диск согласно режиму надежности хранилища:
+ * иначе при сбое питания могла бы пропасть отметка, а контент остаться.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+public class PendingContentRegistry {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(PendingContentRegistry.class);
+
+    /**
+     * Разделитель идентификаторов хранения и сущности в отметке.
+     */
+    private static final char MARKER_SEPARATOR = '\n';
+
+    /**
+     * Менеджер файлов.
+     */
+    private final FileManager fileManager;
+
+    /**
+     * Менеджер сущностей.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Контент, ожидающий фиксации транзакции в этом приложении, по отметкам.
+     */
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    @Value("${dataPath}")
+    private String dataPath;
+
+    /**
+     * Режим надежности записи.
+     */
+    @Value("${fileStorage.durability.mode:none}")
+    private DurabilityMode durabilityMode;
+
+    /**
+     * Период групповой записи на диск, мс.
+     */
+    @Value("${fileStorage.durability.groupCommitIntervalMs:5}")
+    private long groupCommitIntervalMs;
+
+    /**
+     * Время, после которого отметка считается брошенной, мс.
+     */
+    @Value("${fileStorage.orphan.graceMs:3600000}")
+    private long graceMs;
+
+    /**
+     * Папка отметок.
+     */
+    private File pendingDir;
+
+    /**
+     * Исполнитель удаления брошенного контента.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Сброс отметок на диск согласно режиму надежности.
+     */
+    private DurableFileSync fileSync;
+
+    /**
+     * Конструктор.
+     *
+     * @param fileManager менеджер файлов
+     * @param jpaContext  контекст
+     */
+    public PendingContentRegistry(FileManager fileManager, JpaContext jpaContext) {
+        this.fileManager = fileManager;
+        this.entityManager = jpaContext.getEntityManagerByManagedType(FileEntity.class);
+    }
+
+    /**
+     * Инициализация папки отметок и запуск периодического удаления брошенного контента.
+     */
+    @PostConstruct
+    public void postConstruct() {
+        pendingDir = new File(dataPath, "pending");
+        if (!pendingDir.exists() && !pendingDir.mkdirs()) {
+            throw new IllegalStateException("Failed to make dir " + pendingDir.getName());
+        }
+        fileSync = new DurableFileSync(durabilityMode, groupCommitIntervalMs);
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "orphan-content-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long period = Math.max(1000, graceMs / 10);
+        executor.scheduleWithFixedDelay(this::deleteOrphans, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Остановка удаления брошенного контента.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        executor.shutdownNow();
+        fileSync.close();
+    }
+
+    /**
+     * Отмечает сохраненный контент как ожидающий фиксации транзакции с его сущностью.
+     * Отметка хранит и идентификатор сущности: по нему при разборе брошенных отметок видно,
+     * была ли зафиксирована именно эта загрузка.
+     *
+     * @param externalId идентификатор хранения
+     * @param fileId     идентификатор сущности файла
+     * @return отметка
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    public String register(String externalId, String fileId) throws FileStorageException {
+        final String token = UUID.randomUUID().toString();
+        try {
+            final Path marker = new File(pendingDir, token).toPath();
+            Files.write(marker, (externalId + MARKER_SEPARATOR + fileId).getBytes(StandardCharsets.UTF_8));
+            fileSync.syncFile(marker);
+            fileSync.syncDir(pendingDir.toPath());
+        } catch (IOException ex) {
+            fileManager.delete(externalId);
+            throw new FileStorageException(ex);
+        }
+        pending.put(token, externalId);
+        return token;
+    }
+
+    /**
+     * Привязывает отметку к текущей транзакции: после фиксации контент остается в хранилище, после отката удаляется.
+     *
+     * @param token отметка
+     */
+    public void bindToTransaction(String token) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    commit(token);
+                } else {
+                    rollback(token);
+                }
+            }
+        });
+    }
+
+    /**
+     * Снимает отметку: сущность контента зафиксирована.
+     *
+     * @param token отметка
+     */
+    public void commit(String token) {
+        if (pending.remove(token) != null) {
+            deleteMarker(token);
+        }
+    }
+
+    /**
+     * Удаляет контент, сущность которого не будет зафиксирована, и снимает отметку.
+     * Повторный вызов для той же отметки ничего не делает.
+     *
+     * @param token отметка
+     */
+    public void rollback(String token) {
+        final String externalId = pending.remove(token);
+        if (externalId == null) {
+            return;
+        }
+        try {
+            fileManager.delete(externalId);
+            deleteMarker(token);
+            LOG.debug("Deleted content {} of rolled back transaction", externalId);
+        } catch (FileStorageException ex) {
+            // отметка остается, контент будет удален позже
+            LOG.error("Failed to delete content {} of rolled back transaction", externalId, ex);
+        }
+    }
+
+    /**
+     * Освобождает ссылки на контент по брошенным отметкам, сущности которых не были зафиксированы.
+     * У отметок прежнего формата, без идентификатора сущности, контент удаляется, если на него не ссылается
+     * ни одна сущность.
+     *
+     * @return количество освобожденных ссылок на контент
+     */
+    public int deleteOrphans() {
+        final long expirationTime = System.currentTimeMillis() - graceMs;
+        int deleted = 0;
+        try {
+            final List<Path> markers;
+            try (Stream<Path> paths = Files.list(pendingDir.toPath())) {
+                markers = paths.filter(path -> !pending.containsKey(path.getFileName().toString()))
+                        .filter(path -> path.toFile().lastModified() < expirationTime)
+                        .collect(Collectors.toList());
+            }
+            for (Path marker : markers) {
+                final String content = new String(Files.readAllBytes(marker), StandardCharsets.UTF_8);
+                final int separator = content.indexOf(MARKER_SEPARATOR);
+                final String externalId = separator >= 0 ? content.substring(0, separator) : content;
+                final boolean committed = separator >= 0
+                        ? entityManager.find(FileEntity.class, content.substring(separator + 1)) != null
+                        : isReferenced(externalId);
+                if (!committed) {
+                    fileManager.delete(externalId);
+                    deleted++;
+                }
+                Files.deleteIfExists(marker);
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOG.error("Failed to delete orphan content", ex);
+        }
+        if (deleted > 0) {
+            LOG.info("Released {} orphan content references", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Проверяет, ссылается ли на контент хотя бы одна сущность файла.
+     *
+     * @param externalId идентификатор хранения
+     * @return ссылается/нет
+     */
+    private boolean isReferenced(String externalId) {
+        return !entityManager.createQuery("select f.id from FileEntity f where f.externalId = :externalId", String.class)
+                .setParameter("externalId", externalId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Удаляет отметку.
+     *
+     * @param token отметка
+     */
+    private void deleteMarker(String token) {
+        try {
+            Files.deleteIfExists(new File(pendingDir, token).toPath());
+        } catch (IOException ex) {
+            // брошенная отметка не приведет к удалению контента, на который ссылается сущность
+            LOG.error("Failed to delete pending marker {}", token);
+        }
+    }
+}
@@ -0,0 +1,923 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Хранилище, дописывающее контент в большие файлы-сегменты вместо отдельного файла на каждый контент.
+ * Запись идет последовательно в конец активного сегмента, а расположение контента (сегмент, смещение, длина)
+ * хранится в индексе в памяти. Индекс восстанавливается при старте чтением сегментов: каждая запись сегмента
+ * содержит идентификатор контента, а удаление записывается отдельной записью-надгробием.
+ * Фоновое уплотнение переписывает живой контент из сегментов, где много удаленного, и удаляет эти сегменты.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Service
+@ConditionalOnProperty(name = "fileStorage.type", havingValue = "segment")
+public class SegmentFileManager extends FileManagerImpl {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentFileManager.class);
+
+    /**
+     * Признак начала записи.
+     */
+    private static final int MAGIC = 0x5345474d;
+
+    /**
+     * Тип записи с контентом.
+     */
+    private static final byte DATA = 1;
+
+    /**
+     * Тип записи об удалении контента.
+     */
+    private static final byte TOMBSTONE = 2;
+
+    /**
+     * Размер заголовка записи без идентификатора: признак, тип, длина идентификатора, длина контента.
+     */
+    private static final int FIXED_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Short.BYTES + Long.BYTES;
+
+    /**
+     * Префикс имени файла сегмента.
+     */
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    /**
+     * Суффикс имени файла сегмента.
+     */
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    /**
+     * Максимальный размер сегмента, после которого начинается новый сегмент.
+     */
+    @Value("${fileStorage.segment.maxSize:67108864}")
+    private long maxSegmentSize;
+
+    /**
+     * Максимальный размер контента, который перед записью в сегмент накапливается в памяти.
+     * Контент больше этого размера сначала пишется во временный файл, чтобы не держать сегмент занятым медленным клиентом.
+     */
+    @Value("${fileStorage.segment.maxBufferedSize:1048576}")
+    private int maxBufferedSize;
+
+    /**
+     * Период уплотнения, мс.
+     */
+    @Value("${fileStorage.segment.compactIntervalMs:60000}")
+    private long compactIntervalMs;
+
+    /**
+     * Доля удаленного в сегменте, начиная с которой сегмент уплотняется.
+     */
+    @Value("${fileStorage.segment.compactDeadRatio:0.5}")
+    private double compactDeadRatio;
+
+    /**
+     * Расположение контента по идентификаторам.
+     */
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+    /**
+     * Размер живых записей по сегментам, вместе с заголовками: заголовок живой записи тоже не освобождается уплотнением.
+     */
+    private final Map<Integer, AtomicLong> liveBytes = new ConcurrentHashMap<>();
+
+    /**
+     * Существующие сегменты.
+     */
+    private final NavigableSet<Integer> segments = new ConcurrentSkipListSet<>();
+
+    /**
+     * Блокировка записи в активный сегмент.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Папка сегментов.
+     */
+    private File segmentsDir;
+
+    /**
+     * Номер активного сегмента.
+     */
+    private volatile int activeSegment;
+
+    /**
+     * Канал активного сегмента.
+     */
+    private FileChannel activeChannel;
+
+    /**
+     * Размер активного сегмента.
+     */
+    private long activeSize;
+
+    /**
+     * Исполнитель уплотнения.
+     */
+    private ScheduledExecutorService compactor;
+
+    /**
+     * Инициализация папок, восстановление индекса и запуск уплотнения.
+     */
+    @Override
+    @PostConstruct
+    public void postConstruct() {
+        super.postConstruct();
+        segmentsDir = new File(storageDir.getParentFile(), "segments");
+        if (!segmentsDir.exists() && !segmentsDir.mkdirs()) {
+            throw new IllegalStateException("Failed to make dir " + segmentsDir.getName());
+        }
+
+        try {
+            final File[] files = segmentsDir.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+            for (File file : files != null ? files : new File[0]) {
+                segments.add(Integer.parseInt(file.getName().substring(SEGMENT_PREFIX.length(), file.getName().length() - SEGMENT_SUFFIX.length())));
+            }
+            for (int segment : segments) {
+                recover(segment);
+            }
+            synchronized (writeLock) {
+                openActiveSegment(segments.isEmpty() ? 1 : segments.last());
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to open segments in " + segmentsDir, ex);
+        }
+        LOG.info("Opened {} segments with {} blobs", segments.size(), index.size());
+
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "segment-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compact, compactIntervalMs, compactIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Остановка уплотнения и закрытие активного сегмента.
+     */
+    @Override
+    @PreDestroy
+    public void preDestroy() {
+        compactor.shutdownNow();
+        synchronized (writeLock) {
+            try {
+                activeChannel.close();
+            } catch (IOException ex) {
+                LOG.error("Failed to close segment {}", activeSegment);
+            }
+        }
+        super.preDestroy();
+    }
+
+    /**
+     * Сохраняет файл. Небольшой контент накапливается в памяти, больший - во временном файле,
+     * после чего дописывается в активный сегмент.
+     *
+     * @param inputStream входящий поток
+     * @return идентификатор хранения
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    @Override
+    public String store(InputStream inputStream) throws FileStorageException {
+        final String externalId = UUID.randomUUID().toString();
+        File tmp = null;
+        try {
+            final byte[] head = inputStream.readNBytes(maxBufferedSize + 1);
+            if (head.length <= maxBufferedSize) {
+                put(externalId, head.length, (target, position) -> writeFully(ByteBuffer.wrap(head), target, position));
+                return externalId;
+            }
+
+            tmp = File.createTempFile(externalId, ".tmp", tmpDir);
+            storeTmpFile(new SequenceInputStream(new ByteArrayInputStream(head), inputStream), tmp);
+            putFile(externalId, tmp.toPath());
+            return externalId;
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        } finally {
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                LOG.error("Failed to delete temp file {}", tmp.getName());
+            }
+        }
+    }
+
+    /**
+     * Дописывает временный файл в активный сегмент и удаляет его.
+     *
+     * @param tmpFile путь к временному файлу
+     * @return идентификатор хранения
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    @Override
+    public String storeTempFile(Path tmpFile) throws FileStorageException {
+        final String externalId = UUID.randomUUID().toString();
+        try {
+            putFile(externalId, tmpFile);
+            return externalId;
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        } finally {
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ex) {
+                LOG.error("Failed to delete temp file {}", tmpFile.getFileName());
+            }
+        }
+    }
+
+    /**
+     * Удаляет контент из индекса и записывает надгробие. Место в сегменте освобождается при уплотнении.
+     *
+     * @param externalId идентификатор хранения
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    @Override
+    public void delete(String externalId) throws FileStorageException {
+        final Location removed = index.remove(externalId);
+        if (removed == null) {
+            return;
+        }
+        addLiveBytes(removed.segment, -recordSize(externalId, removed.length));
+        try {
+            sync(append(externalId, TOMBSTONE, 0, null).segment);
+            LOG.debug("Deleted blob {}", externalId);
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    /**
+     * Контент не хранится отдельными файлами, поэтому отдается только через {@link #transferTo}, {@link #map} и {@link #openStream}.
+     *
+     * @param externalId идентификатор хранения
+     * @return пусто
+     */
+    @Override
+    public Optional<Path> resolveContentFile(String externalId) {
+        return Optional.empty();
+    }
+
+    /**
+     * Передает часть контента в канал. Небольшие части читаются из отображения сегмента в память,
+     * остальные передаются через {@link FileChannel#transferTo} с позиции контента в сегменте.
+     *
+     * @param externalId идентификатор хранения
+     * @param position   позиция начала в контенте
+     * @param count      количество байт
+     * @param target     канал назначения
+     * @return количество переданных байт
+     * @throws FileStorageException если контента нет или при ошибках чтения
+     */
+    @Override
+    public long transferTo(String externalId, long position, long count, WritableByteChannel target)
+            throws FileStorageException {
+        final Location location = locate(externalId);
+        final long toTransfer = Math.max(0, Math.min(count, location.length - position));
+        if (toTransfer <= mappedMaxFileSize) {
+            return writeFully(map(externalId, position, toTransfer), target);
+        }
+        try (SliceChannel slice = openSlice(externalId, position, toTransfer)) {
+            return slice.transferTo(target);
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel openChannel(String externalId, long position) throws FileStorageException {
+        final Location location = locate(externalId);
+        return openSlice(externalId, position, Math.max(0, location.length - position));
+    }
+
+    @Override
+    public InputStream openStream(String externalId, long position, long length) throws FileStorageException {
+        if (length <= mappedMaxFileSize) {
+            return super.openStream(externalId, position, length);
+        }
+        return Channels.newInputStream(openSlice(externalId, position, length));
+    }
+
+    /**
+     * Открывает канал чтения части контента прямо из файла сегмента, без отображения в память.
+     * Если сегмент удален уплотнением после чтения индекса, повторяет поиск: контент уже переписан в другой сегмент.
+     *
+     * @param externalId идентификатор хранения
+     * @param position   позиция начала в контенте
+     * @param length     длина
+     * @return канал чтения, закрывается вызывающим
+     * @throws FileStorageException если контента нет или при ошибках чтения
+     */
+    private SliceChannel openSlice(String externalId, long position, long length) throws FileStorageException {
+        for (int attempt = 0; ; attempt++) {
+            final Location location = locate(externalId);
+            if (position < 0 || length < 0 || position + length > location.length) {
+                throw new IllegalArgumentException("Range " + position + "+" + length + " is out of content " + externalId);
+            }
+            try {
+                return new SliceChannel(FileChannel.open(segmentPath(location.segment), StandardOpenOption.READ),
+                        location.offset + position, length);
+            } catch (NoSuchFileException ex) {
+                if (attempt > 0) {
+                    throw new FileStorageException(ex);
+                }
+            } catch (IOException ex) {
+                throw new FileStorageException(ex);
+            }
+        }
+    }
+
+    /**
+     * Возвращает часть контента из отображенного в память сегмента.
+     * Если сегмент удален уплотнением после чтения индекса, повторяет поиск: контент уже переписан в другой сегмент.
+     *
+     * @param externalId идентификатор хранения
+     * @param position   позиция начала в контенте
+     * @param length     длина
+     * @return буфер
+     * @throws FileStorageException если контента нет или при ошибках чтения
+     */
+    @Override
+    public ByteBuffer map(String externalId, long position, long length) throws FileStorageException {
+        for (int attempt = 0; ; attempt++) {
+            final Location location = locate(externalId);
+            if (position < 0 || length < 0 || position + length > location.length) {
+                throw new IllegalArgumentException("Range " + position + "+" + length + " is out of content " + externalId);
+            }
+            try {
+                return mappedRegions.slice(segmentPath(location.segment), location.offset + position, length);
+            } catch (NoSuchFileException ex) {
+                if (attempt > 0) {
+                    throw new FileStorageException(ex);
+                }
+            } catch (IOException ex) {
+                throw new FileStorageException(ex);
+            }
+        }
+    }
+
+    /**
+     * Уплотняет сегменты, в которых доля удаленного не меньше fileStorage.segment.compactDeadRatio.
+     *
+     * @return количество уплотненных сегментов
+     */
+    public int compact() {
+        int compacted = 0;
+        // только сегменты, существующие до начала уплотнения: переписанный контент попадает в новые сегменты
+        for (int segment : new ArrayList<>(segments.headSet(activeSegment))) {
+            final long size = segmentPath(segment).toFile().length();
+            final long live = liveBytes.getOrDefault(segment, new AtomicLong()).get();
+            if (size == 0 || 1.0 - (double) live / size < compactDeadRatio) {
+                continue;
+            }
+            try {
+                compact(segment);
+                compacted++;
+            } catch (IOException | RuntimeException ex) {
+                LOG.error("Failed to compact segment {}", segment, ex);
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * Возвращает количество сегментов.
+     *
+     * @return количество сегментов
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Переписывает живой контент сегмента в активный сегмент и удаляет сегмент.
+     * Надгробия переписываются, пока существуют более старые сегменты, где может лежать удаленный контент.
+     *
+     * @param segment номер сегмента
+     * @throws IOException ошибка ввода-вывода
+     */
+    private void compact(int segment) throws IOException {
+        final boolean olderSegmentsExist = segments.lower(segment) != null;
+        final Set<Integer> written = new HashSet<>();
+        long moved = 0;
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            long position = 0;
+            Record record;
+            while ((record = readRecord(channel, position)) != null) {
+                if (record.type == DATA) {
+                    final Location current = index.get(record.externalId);
+                    if (current != null && current.segment == segment && current.offset == record.contentOffset) {
+                        final Location copy = append(record.externalId, DATA, current.length,
+                                (target, targetPosition) -> transferFully(channel, current.offset, current.length, target, targetPosition));
+                        written.add(copy.segment);
+                        if (index.replace(record.externalId, current, copy)) {
+                            addLiveBytes(copy.segment, recordSize(record.externalId, copy.length));
+                            addLiveBytes(segment, -recordSize(record.externalId, copy.length));
+                            moved++;
+                        } else {
+                            // контент удалили во время копирования, копия не должна ожить после перезапуска
+                            written.add(append(record.externalId, TOMBSTONE, 0, null).segment);
+                        }
+                    }
+                } else if (olderSegmentsExist) {
+                    written.add(append(record.externalId, TOMBSTONE, 0, null).segment);
+                }
+                position = record.end;
+            }
+        }
+        for (int writtenSegment : written) {
+            sync(writtenSegment);
+        }
+
+        segments.remove(segment);
+        liveBytes.remove(segment);
+        mappedRegions.invalidate(segmentPath(segment));
+        Files.deleteIfExists(segmentPath(segment));
+        LOG.info("Compacted segment {}, moved {} blobs", segment, moved);
+    }
+
+    /**
+     * Дописывает контент из файла в активный сегмент и добавляет его в индекс.
+     *
+     * @param externalId идентификатор хранения
+     * @param file       файл
+     * @throws IOException ошибка ввода-вывода
+     */
+    private void putFile(String externalId, Path file) throws IOException {
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long length = source.size();
+            put(externalId, length, (target, position) -> transferFully(source, 0, length, target, position));
+        }
+    }
+
+    /**
+     * Дописывает контент в активный сегмент, сбрасывает сегмент на диск согласно режиму надежности
+     * и только после этого добавляет контент в индекс.
+     *
+     * @param externalId идентификатор хранения
+     * @param length     длина контента
+     * @param content    запись контента
+     * @throws IOException ошибка ввода-вывода
+     */
+    private void put(String externalId, long length, SegmentWriter content) throws IOException {
+        final Location location = append(externalId, DATA, length, content);
+        sync(location.segment);
+        index.put(externalId, location);
+        addLiveBytes(location.segment, recordSize(externalId, length));
+        LOG.debug("Return new blob {}", externalId);
+    }
+
+    /**
+     * Дописывает запись в конец активного сегмента. При ошибке недописанная запись отрезается.
+     *
+     * @param externalId идентификатор хранения
+     * @param type       тип записи
+     * @param length     длина контента
+     * @param content    запись контента, для надгробия - null
+     * @return расположение контента
+     * @throws IOException ошибка ввода-вывода
+     */
+    private Location append(String externalId, byte type, long length, SegmentWriter content) throws IOException {
+        final byte[] id = externalId.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE + id.length);
+        header.putInt(MAGIC).put(type).putShort((short) id.length).putLong(length).put(id).flip();
+
+        synchronized (writeLock) {
+            // новый сегмент начинается, если запись не помещается в текущий; запись больше сегмента занимает его одна
+            if (activeSize > 0 && activeSize + header.limit() + (content != null ? length : 0) > maxSegmentSize) {
+                openActiveSegment(activeSegment + 1);
+            }
+            final long position = activeSize;
+            try {
+                writeFully(header, activeChannel, position);
+                if (content != null) {
+                    content.writeTo(activeChannel, position + header.limit());
+                }
+            } catch (IOException | RuntimeException ex) {
+                activeChannel.truncate(position);
+                throw ex;
+            }
+            activeSize = position + header.limit() + (content != null ? length : 0);
+            return new Location(activeSegment, position + header.limit(), length);
+        }
+    }
+
+    /**
+     * Открывает сегмент для записи в конец, создавая его при необходимости.
+     *
+     * @param segment номер сегмента
+     * @throws IOException ошибка ввода-вывода
+     */
+    private void openActiveSegment(int segment) throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+        }
+        final boolean created = segments.add(segment);
+        activeChannel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        activeSegment = segment;
+        activeSize = activeChannel.size();
+        if (created) {
+            fileSync.syncDir(segmentsDir.toPath());
+        }
+    }
+
+    /**
+     * Восстанавливает индекс по записям сегмента. Недописанная запись в конце сегмента отрезается.
+     *
+     * @param segment номер сегмента
+     * @throws IOException ошибка ввода-вывода
+     */
+    private void recover(int segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = 0;
+            Record record;
+            while ((record = readRecord(channel, position)) != null) {
+                final Location previous = record.type == DATA
+                        ? index.put(record.externalId, new Location(segment, record.contentOffset, record.length))
+                        : index.remove(record.externalId);
+                if (previous != null) {
+                    addLiveBytes(previous.segment, -recordSize(record.externalId, previous.length));
+                }
+                if (record.type == DATA) {
+                    addLiveBytes(segment, recordSize(record.externalId, record.length));
+                }
+                position = record.end;
+            }
+            if (position < channel.size()) {
+                LOG.warn("Truncating incomplete record at {} of segment {}", position, segment);
+                channel.truncate(position);
+            }
+        }
+    }
+
+    /**
+     * Читает запись сегмента.
+     *
+     * @param channel  канал сегмента
+     * @param position позиция записи
+     * @return запись или null, если записей больше нет или запись недописана
+     * @throws IOException ошибка ввода-вывода
+     */
+    private static Record readRecord(FileChannel channel, long position) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE);
+        if (readFully(channel, header, position) < FIXED_HEADER_SIZE) {
+            return null;
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            return null;
+        }
+        final byte type = header.get();
+        final int idLength = header.getShort() & 0xFFFF;
+        final long length = header.getLong();
+        if (type != DATA && type != TOMBSTONE || length < 0) {
+            return null;
+        }
+        final long contentOffset = position + FIXED_HEADER_SIZE + idLength;
+        final long end = contentOffset + (type == DATA ? length : 0);
+        final ByteBuffer id = ByteBuffer.allocate(idLength);
+        if (end > size || readFully(channel, id, position + FIXED_HEADER_SIZE) < idLength) {
+            return null;
+        }
+        return new Record(type, new String(id.array(), StandardCharsets.UTF_8), contentOffset, length, end);
+    }
+
+    /**
+     * Читает из канала, пока буфер не заполнится или канал не закончится.
+     *
+     * @param channel  канал
+     * @param buffer   буфер
+     * @param position позиция
+     * @return количество прочитанных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            final int n = channel.read(buffer, position + read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        return read;
+    }
+
+    /**
+     * Записывает буфер в канал целиком.
+     *
+     * @param buffer   буфер
+     * @param channel  канал
+     * @param position позиция
+     * @throws IOException ошибка ввода-вывода
+     */
+    private static void writeFully(ByteBuffer buffer, FileChannel channel, long position) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+    }
+
+    /**
+     * Передает часть одного файла в другой средствами ОС.
+     *
+     * @param source         исходный канал
+     * @param sourcePosition позиция в исходном канале
+     * @param length         количество байт
+     * @param target         канал назначения
+     * @param targetPosition позиция в канале назначения
+     * @throws IOException ошибка ввода-вывода, в том числе если исходный канал закончился раньше
+     */
+    private static void transferFully(FileChannel source, long sourcePosition, long length,
+                                      FileChannel target, long targetPosition) throws IOException {
+        long transferred = 0;
+        source.position(sourcePosition);
+        while (transferred < length) {
+            final long n = target.transferFrom(source, targetPosition + transferred, length - transferred);
+            if (n <= 0) {
+                throw new IOException("Unexpected end of content after " + transferred + " of " + length + " bytes");
+            }
+            transferred += n;
+        }
+    }
+
+    /**
+     * Сбрасывает сегмент на диск согласно режиму надежности.
+     *
+     * @param segment номер сегмента
+     * @throws IOException ошибка при сбросе
+     */
+    private void sync(int segment) throws IOException {
+        fileSync.syncFile(segmentPath(segment));
+    }
+
+    /**
+     * Возвращает размер записи с контентом вместе с заголовком.
+     *
+     * @param externalId идентификатор хранения
+     * @param length     длина контента
+     * @return размер записи
+     */
+    private static long recordSize(String externalId, long length) {
+        return FIXED_HEADER_SIZE + externalId.getBytes(StandardCharsets.UTF_8).length + length;
+    }
+
+    /**
+     * Изменяет размер живых записей сегмента.
+     *
+     * @param segment номер сегмента
+     * @param delta   изменение
+     */
+    private void addLiveBytes(int segment, long delta) {
+        liveBytes.computeIfAbsent(segment, key -> new AtomicLong()).addAndGet(delta);
+    }
+
+    /**
+     * Возвращает место контента в сегменте.
+     *
+     * @param externalId идентификатор хранения
+     * @return место контента
+     * @throws FileStorageException если контента нет
+     */
+    private Location locate(String externalId) throws FileStorageException {
+        final Location location = index.get(externalId);
+        if (location == null) {
+            throw new FileStorageException(new NoSuchFileException(externalId));
+        }
+        return location;
+    }
+
+    /**
+     * Возвращает путь к файлу сегмента.
+     *
+     * @param segment номер сегмента
+     * @return путь к файлу сегмента
+     */
+    private Path segmentPath(int segment) {
+        return new File(segmentsDir, String.format("%s%06d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX)).toPath();
+    }
+
+    /**
+     * Запись контента в сегмент с заданной позиции.
+     */
+    @FunctionalInterface
+    private interface SegmentWriter {
+
+        /**
+         * Записывает контент.
+         *
+         * @param target   канал сегмента
+         * @param position позиция
+         * @throws IOException ошибка ввода-вывода
+         */
+        void writeTo(FileChannel target, long position) throws IOException;
+    }
+
+    /**
+     * Канал чтения части файла сегмента. Читает по абсолютным позициям и не выходит за границу части.
+     */
+    private static final class SliceChannel implements ReadableByteChannel {
+
+        /**
+         * Канал сегмента.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Позиция в сегменте, с которой читается следующий байт.
+         */
+        private long position;
+
+        /**
+         * Позиция в сегменте, на которой часть заканчивается.
+         */
+        private final long end;
+
+        /**
+         * Конструктор.
+         *
+         * @param channel  канал сегмента
+         * @param position позиция начала части в сегменте
+         * @param length   длина части
+         */
+        private SliceChannel(FileChannel channel, long position, long length) {
+            this.channel = channel;
+            this.position = position;
+            this.end = position + length;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            final int limit = dst.limit();
+            if (dst.remaining() > end - position) {
+                dst.limit(dst.position() + (int) (end - position));
+            }
+            final int n;
+            try {
+                n = channel.read(dst, position);
+            } finally {
+                dst.limit(limit);
+            }
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        /**
+         * Передает остаток части в канал средствами ОС.
+         *
+         * @param target канал назначения
+         * @return количество переданных байт
+         * @throws IOException ошибка ввода-вывода
+         */
+        private long transferTo(WritableByteChannel target) throws IOException {
+            long transferred = 0;
+            while (position < end) {
+                final long written = channel.transferTo(position, end - position, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                transferred += written;
+            }
+            return transferred;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Расположение контента в сегменте.
+     */
+    private static final class Location {
+
+        /**
+         * Номер сегмента.
+         */
+        private final int segment;
+
+        /**
+         * Смещение контента в сегменте.
+         */
+        private final long offset;
+
+        /**
+         * Длина контента.
+         */
+        private final long length;
+
+        /**
+         * Конструктор.
+         *
+         * @param segment номер сегмента
+         * @param offset  смещение контента в сегменте
+         * @param length  длина контента
+         */
+        private Location(int segment, long offset, long length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Запись сегмента.
+     */
+    private static final class Record {
+
+        /**
+         * Тип записи.
+         */
+        private final byte type;
+
+        /**
+         * Идентификатор хранения.
+         */
+        private final String externalId;
+
+        /**
+         * Смещение контента в сегменте.
+         */
+        private final long contentOffset;
+
+        /**
+         * Длина контента.
+         */
+        private final long length;
+
+        /**
+         * Позиция конца записи.
+         */
+        private final long end;
+
+        /**
+         * Конструктор.
+         *
+         * @param type          тип записи
+         * @param externalId    идентификатор хранения
+         * @param contentOffset смещение контента в сегменте
+         * @param length        длина контента
+         * @param end           позиция конца записи
+         */
+        private Record(byte type, String externalId, long contentOffset, long length, long end) {
+            this.type = type;
+            this.externalId = externalId;
+            this.contentOffset = contentOffset;
+            this.length = length;
+            this.end = end;
+        }
+    }
+}
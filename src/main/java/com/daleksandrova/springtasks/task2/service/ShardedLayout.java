@@ -0,0 +1,125 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Раскладка файлов хранилища по вложенным папкам.
+ * На каждом уровне имя папки - очередные два символа имени файла (для UUID и хешей это hex-префикс),
+ * поэтому при двух уровнях в одной папке оказывается в 65536 раз меньше файлов, чем при плоской раскладке.
+ * Нулевое количество уровней соответствует плоской раскладке.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ShardedLayout {
+
+    /**
+     * Максимальное количество уровней вложенности.
+     */
+    public static final int MAX_LEVELS = 4;
+
+    /**
+     * Длина имени папки на одном уровне.
+     */
+    private static final int PREFIX_LENGTH = 2;
+
+    /**
+     * Количество уровней вложенности.
+     */
+    private final int levels;
+
+    /**
+     * Уже созданные папки, чтобы не проверять их существование при каждой записи.
+     */
+    private final Set<File> createdDirs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Конструктор.
+     *
+     * @param levels количество уровней вложенности
+     */
+    public ShardedLayout(int levels) {
+        if (levels < 0 || levels > MAX_LEVELS) {
+            throw new IllegalArgumentException("Shard levels must be between 0 and " + MAX_LEVELS + ": " + levels);
+        }
+        this.levels = levels;
+    }
+
+    /**
+     * Возвращает расположение файла согласно раскладке.
+     *
+     * @param root     корневая папка
+     * @param fileName имя файла
+     * @return расположение файла
+     */
+    public File resolve(File root, String fileName) {
+        return resolve(root, fileName, levels);
+    }
+
+    /**
+     * Возвращает расположение файла согласно раскладке, создавая недостающие папки.
+     *
+     * @param root     корневая папка
+     * @param fileName имя файла
+     * @return расположение файла
+     * @throws IOException ошибка при создании папок
+     */
+    public File resolveForWrite(File root, String fileName) throws IOException {
+        final File file = resolve(root, fileName);
+        final File parent = file.getParentFile();
+        if (!createdDirs.contains(parent)) {
+            Files.createDirectories(parent.toPath());
+            createdDirs.add(parent);
+        }
+        return file;
+    }
+
+    /**
+     * Ищет существующий файл. Сначала файл ищется согласно раскладке, затем - согласно остальным раскладкам,
+     * чтобы файлы были доступны во время перераскладки хранилища.
+     *
+     * @param root     корневая папка
+     * @param fileName имя файла
+     * @return расположение файла; если файл не найден - расположение согласно раскладке
+     */
+    public File locate(File root, String fileName) {
+        final File file = resolve(root, fileName);
+        if (file.exists()) {
+            return file;
+        }
+        for (int level = 0; level <= MAX_LEVELS; level++) {
+            if (level == levels) {
+                continue;
+            }
+            final File candidate = resolve(root, fileName, level);
+            if (candidate.exists()) {
+                return candidate;
+            }
+        }
+        // файл мог быть перемещен во время поиска
+        return file;
+    }
+
+    /**
+     * Возвращает расположение файла при заданном количестве уровней вложенности.
+     *
+     * @param root     корневая папка
+     * @param fileName имя файла
+     * @param levels   количество уровней вложенности
+     * @return расположение файла
+     */
+    private static File resolve(File root, String fileName, int levels) {
+        if (fileName.length() < levels * PREFIX_LENGTH) {
+            return new File(root, fileName);
+        }
+        File dir = root;
+        for (int level = 0; level < levels; level++) {
+            dir = new File(dir, fileName.substring(level * PREFIX_LENGTH, (level + 1) * PREFIX_LENGTH));
+        }
+        return new File(dir, fileName);
+    }
+}
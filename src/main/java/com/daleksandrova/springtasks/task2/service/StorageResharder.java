@@ -0,0 +1,157 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Инструмент перераскладки существующего хранилища по текущей раскладке папок (fileStorage.shardLevels).
+ * Работает без остановки приложения: файлы перемещаются атомарно по одному,
+ * а менеджер файлов во время перераскладки находит файлы и в прежней раскладке.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+public class StorageResharder {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(StorageResharder.class);
+
+    /**
+     * Папки хранилища, которые раскладываются по вложенным папкам.
+     */
+    private static final List<String> SHARDED_DIRS = List.of("data", "meta", "refs");
+
+    /**
+     * Суффикс временных файлов, которые не перемещаются.
+     */
+    private static final String TMP_SUFFIX = ".tmp";
+
+    @Value("${dataPath}")
+    private String dataPath;
+
+    /**
+     * Количество уровней вложенности папок хранилища.
+     */
+    @Value("${fileStorage.shardLevels:0}")
+    private int shardLevels;
+
+    /**
+     * Запускать ли перераскладку при старте приложения.
+     */
+    @Value("${fileStorage.reshard.onStartup:false}")
+    private boolean reshardOnStartup;
+
+    /**
+     * Запускает перераскладку в фоне после старта приложения, если она включена.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!reshardOnStartup) {
+            return;
+        }
+        final Thread thread = new Thread(this::reshard, "storage-resharder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Перекладывает файлы хранилища по текущей раскладке.
+     *
+     * @return количество перемещенных файлов
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    public long reshard() throws FileStorageException {
+        final ShardedLayout layout = new ShardedLayout(shardLevels);
+        long moved = 0;
+        for (String dirName : SHARDED_DIRS) {
+            final File root = new File(dataPath, dirName);
+            if (root.isDirectory()) {
+                moved += reshard(root, layout);
+            }
+        }
+        LOG.info("Resharding of {} to {} levels is finished, moved {} files", dataPath, shardLevels, moved);
+        return moved;
+    }
+
+    /**
+     * Перекладывает файлы папки по раскладке и удаляет опустевшие папки прежней раскладки.
+     *
+     * @param root   папка
+     * @param layout раскладка
+     * @return количество перемещенных файлов
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    private long reshard(File root, ShardedLayout layout) throws FileStorageException {
+        long moved = 0;
+        try {
+            final List<Path> files;
+            try (Stream<Path> paths = Files.walk(root.toPath())) {
+                files = paths.filter(Files::isRegularFile)
+                        .filter(path -> !path.getFileName().toString().endsWith(TMP_SUFFIX))
+                        .collect(Collectors.toList());
+            }
+            for (Path source : files) {
+                final File target = layout.resolve(root, source.getFileName().toString());
+                if (target.toPath().equals(source)) {
+                    continue;
+                }
+                if (target.exists()) {
+                    // файл уже записан в новой раскладке, копия в прежней устарела
+                    Files.deleteIfExists(source);
+                    continue;
+                }
+                Files.move(source, layout.resolveForWrite(root, target.getName()).toPath(), StandardCopyOption.ATOMIC_MOVE);
+                moved++;
+            }
+            try (Stream<Path> paths = Files.walk(root.toPath())) {
+                // папки не глубже текущей раскладки могут использоваться менеджером файлов, их не трогаем
+                final List<Path> dirs = paths.filter(Files::isDirectory)
+                        .filter(path -> !path.equals(root.toPath()))
+                        .filter(path -> root.toPath().relativize(path).getNameCount() > shardLevels)
+                        .sorted(Comparator.reverseOrder())
+                        .collect(Collectors.toList());
+                for (Path dir : dirs) {
+                    deleteIfEmpty(dir);
+                }
+            }
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+        return moved;
+    }
+
+    /**
+     * Удаляет папку, если она пуста.
+     *
+     * @param dir папка
+     * @throws IOException ошибка при чтении папки
+     */
+    private void deleteIfEmpty(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            if (entries.findAny().isPresent()) {
+                return;
+            }
+        }
+        if (!dir.toFile().delete()) {
+            LOG.debug("Dir {} is not deleted, it may be in use", dir);
+        }
+    }
+}
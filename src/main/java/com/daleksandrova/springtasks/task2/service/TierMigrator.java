@@ -0,0 +1,166 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.entity.FileEntity;
+import com.daleksandrova.springtasks.task2.entity.StorageTier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.repository.JpaContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перенос контента, к которому давно не обращались, из быстрого хранилища в емкое.
+ * Контент копируется в емкое хранилище, затем у сущностей файлов отмечается новый уровень хранилища,
+ * и только после этого контент удаляется из быстрого хранилища. Если перенос прервется, контент останется
+ * в быстром хранилище и будет перенесен повторно.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Component
+@ConditionalOnProperty(name = "fileStorage.type", havingValue = "tiered")
+public class TierMigrator {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(TierMigrator.class);
+
+    /**
+     * Хранилище с разделением на уровни.
+     */
+    private final TieredFileManager fileManager;
+
+    /**
+     * Менеджер сущностей.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Шаблон транзакции отметки уровня хранилища.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Кеш метаданных файлов.
+     */
+    private final FileMetadataCache fileMetadataCache;
+
+    /**
+     * Время без обращений, после которого контент переносится в емкое хранилище, мс.
+     */
+    @Value("${fileStorage.tiered.coldAfterMs:604800000}")
+    private long coldAfterMs;
+
+    /**
+     * Пауза между проверками, мс.
+     */
+    @Value("${fileStorage.tiered.migrateIntervalMs:3600000}")
+    private long migrateIntervalMs;
+
+    /**
+     * Исполнитель переноса.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Конструктор.
+     *
+     * @param fileManager        хранилище с разделением на уровни
+     * @param jpaContext         контекст
+     * @param transactionManager менеджер транзакций
+     * @param fileMetadataCache  кеш метаданных файлов
+     */
+    public TierMigrator(TieredFileManager fileManager, JpaContext jpaContext,
+                        PlatformTransactionManager transactionManager, FileMetadataCache fileMetadataCache) {
+        this.fileManager = fileManager;
+        this.entityManager = jpaContext.getEntityManagerByManagedType(FileEntity.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fileMetadataCache = fileMetadataCache;
+    }
+
+    /**
+     * Запуск периодического переноса.
+     */
+    @PostConstruct
+    public void postConstruct() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "tier-migrator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::migrate, migrateIntervalMs, migrateIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Остановка переноса.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Переносит в емкое хранилище контент, к которому не обращались дольше fileStorage.tiered.coldAfterMs.
+     *
+     * @return количество перенесенных файлов с контентом
+     */
+    public int migrate() {
+        int migrated = 0;
+        try {
+            final List<String> candidates = fileManager.findColdCandidates(System.currentTimeMillis() - coldAfterMs);
+            for (String externalId : candidates) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                try {
+                    fileManager.copyToCold(externalId);
+                    markCold(externalId);
+                    fileManager.evictHot(externalId);
+                    migrated++;
+                } catch (RuntimeException ex) {
+                    LOG.error("Failed to move content {} to the cold tier", externalId, ex);
+                }
+            }
+        } catch (RuntimeException ex) {
+            LOG.error("Failed to find content for the cold tier", ex);
+        }
+        if (migrated > 0) {
+            LOG.info("Moved {} content files to the cold tier", migrated);
+        }
+        return migrated;
+    }
+
+    /**
+     * Отмечает, что контент сущностей файлов лежит в емком хранилище.
+     *
+     * @param externalId идентификатор хранения
+     */
+    private void markCold(String externalId) {
+        final List<String> fileIds = transactionTemplate.execute(status -> {
+            final List<String> ids = entityManager.createQuery("select f.id from FileEntity f where f.externalId = :externalId", String.class)
+                    .setParameter("externalId", externalId)
+                    .getResultList();
+            entityManager.createQuery("update FileEntity f set f.storageTier = :tier where f.externalId = :externalId")
+                    .setParameter("tier", StorageTier.COLD)
+                    .setParameter("externalId", externalId)
+                    .executeUpdate();
+            return ids;
+        });
+        // массовое изменение не вызывает слушателей сущностей, поэтому кеш сбрасывается явно
+        if (fileIds != null) {
+            fileIds.forEach(fileMetadataCache::invalidate);
+        }
+    }
+}
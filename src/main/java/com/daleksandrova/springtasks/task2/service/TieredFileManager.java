@@ -0,0 +1,336 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.entity.StorageTier;
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище с разделением на быстрый и емкий уровни.
+ * Новый контент пишется в быстрое хранилище (dataPath), а контент, к которому давно не обращались,
+ * переносится в емкое хранилище (fileStorage.tiered.coldPath) с помощью {@link TierMigrator}.
+ * Если уровень хранилища известен из метаданных файла, контент читается сразу с него, иначе ищется сначала в быстром
+ * хранилище, затем в емком.
+ * <p>
+ * Время последнего обращения к контенту в быстром хранилище записывается во время доступа к файлу (atime), так что
+ * оно переживает перезапуск. Запись делается не чаще раза в fileStorage.tiered.accessTimeGranularityMs на файл.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Service
+@ConditionalOnProperty(name = "fileStorage.type", havingValue = "tiered")
+public class TieredFileManager extends FileManagerImpl {
+
+    /**
+     * Логгер.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(TieredFileManager.class);
+
+    /**
+     * Корневая папка емкого хранилища.
+     */
+    @Value("${fileStorage.tiered.coldPath}")
+    private String coldPath;
+
+    /**
+     * Точность записи времени последнего обращения к контенту, мс.
+     */
+    @Value("${fileStorage.tiered.accessTimeGranularityMs:60000}")
+    private long accessTimeGranularityMs;
+
+    /**
+     * Папка контента в емком хранилище.
+     */
+    private File coldStorageDir;
+
+    /**
+     * Папка временных файлов в емком хранилище.
+     */
+    private File coldTmpDir;
+
+    /**
+     * Время последней записи времени обращения к контенту в быстром хранилище с момента запуска, мс.
+     */
+    private final Map<String, Long> lastAccessTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Инициализация папок емкого хранилища.
+     */
+    @PostConstruct
+    @Override
+    public void postConstruct() {
+        super.postConstruct();
+        coldStorageDir = new File(coldPath, "data");
+        coldTmpDir = new File(coldPath, "tmp");
+        if (!coldStorageDir.exists() && !coldStorageDir.mkdirs()) {
+            throw new IllegalStateException("Failed to make dir " + coldStorageDir.getName());
+        }
+        if (!coldTmpDir.exists() && !coldTmpDir.mkdirs()) {
+            throw new IllegalStateException("Failed to make dir " + coldTmpDir.getName());
+        }
+    }
+
+    @Override
+    public void delete(String externalId) throws FileStorageException {
+        super.delete(externalId);
+        try {
+            final Path coldFile = coldPath(externalId);
+            mappedRegions.invalidate(coldFile);
+            Files.deleteIfExists(coldFile);
+            lastAccessTimes.remove(externalId);
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    @Override
+    public Optional<Path> resolveContentFile(String externalId, StorageTier tier) {
+        final Path file = tierPath(externalId, tier);
+        return Files.isRegularFile(file) ? Optional.of(file) : resolveContentFile(externalId);
+    }
+
+    @Override
+    public long transferTo(String externalId, StorageTier tier, long position, long count, WritableByteChannel target)
+            throws FileStorageException {
+        try {
+            return transferTo(tierPath(externalId, tier), position, count, target);
+        } catch (FileStorageException ex) {
+            // уровень в метаданных устарел: контент перенесли после их чтения
+            if (!(ex.getCause() instanceof NoSuchFileException)) {
+                throw ex;
+            }
+            return transferTo(externalId, position, count, target);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel openChannel(String externalId, StorageTier tier, long position) throws FileStorageException {
+        try {
+            return openChannel(tierPath(externalId, tier), position);
+        } catch (FileStorageException ex) {
+            if (!(ex.getCause() instanceof NoSuchFileException)) {
+                throw ex;
+            }
+            return openChannel(externalId, position);
+        }
+    }
+
+    @Override
+    public long transferTo(String externalId, long position, long count, WritableByteChannel target)
+            throws FileStorageException {
+        try {
+            return super.transferTo(externalId, position, count, target);
+        } catch (FileStorageException ex) {
+            // контент перенесли в емкое хранилище между поиском и открытием файла
+            if (!(ex.getCause() instanceof NoSuchFileException)) {
+                throw ex;
+            }
+            return super.transferTo(externalId, position, count, target);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel openChannel(String externalId, long position) throws FileStorageException {
+        try {
+            return super.openChannel(externalId, position);
+        } catch (FileStorageException ex) {
+            if (!(ex.getCause() instanceof NoSuchFileException)) {
+                throw ex;
+            }
+            return super.openChannel(externalId, position);
+        }
+    }
+
+    @Override
+    public ByteBuffer map(String externalId, long position, long length) throws FileStorageException {
+        try {
+            return super.map(externalId, position, length);
+        } catch (FileStorageException ex) {
+            if (!(ex.getCause() instanceof NoSuchFileException)) {
+                throw ex;
+            }
+            return super.map(externalId, position, length);
+        }
+    }
+
+    /**
+     * Возвращает путь к контенту в быстром хранилище, если он там есть, иначе в емком.
+     * Обращение к контенту в быстром хранилище откладывает его перенос.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @return путь к файлу
+     */
+    @Override
+    protected Path contentPath(String externalId) {
+        final Path hotFile = super.contentPath(externalId);
+        if (Files.exists(hotFile)) {
+            recordAccess(externalId, hotFile);
+            return hotFile;
+        }
+        return coldPath(externalId);
+    }
+
+    /**
+     * Возвращает путь к контенту на заданном уровне хранилища без проверки его наличия.
+     * Обращение к контенту в быстром хранилище откладывает его перенос.
+     *
+     * @param externalId идентификатор хранения в файловой системе
+     * @param tier       уровень хранилища
+     * @return путь к файлу
+     */
+    private Path tierPath(String externalId, StorageTier tier) {
+        if (StorageTier.orHot(tier) == StorageTier.COLD) {
+            return coldPath(externalId);
+        }
+        final Path hotFile = super.contentPath(externalId);
+        recordAccess(externalId, hotFile);
+        return hotFile;
+    }
+
+    /**
+     * Возвращает идентификаторы контента в быстром хранилище, к которому не обращались с заданного времени.
+     *
+     * @param accessedBefore время, мс
+     * @return идентификаторы хранения
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    public List<String> findColdCandidates(long accessedBefore) throws FileStorageException {
+        try (Stream<Path> files = Files.walk(storageDir.toPath())) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> lastAccessTime(file) < accessedBefore)
+                    .map(file -> file.getFileName().toString())
+                    .collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    /**
+     * Копирует контент в емкое хранилище. Копия в быстром хранилище остается до {@link #evictHot},
+     * чтобы контент был доступен, пока перенос не зафиксирован.
+     *
+     * @param externalId идентификатор хранения
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    public void copyToCold(String externalId) throws FileStorageException {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(coldTmpDir.toPath(), externalId, ".tmp");
+            Files.copy(super.contentPath(externalId), tmp, StandardCopyOption.REPLACE_EXISTING);
+            moveDurably(tmp, layout.resolveForWrite(coldStorageDir, externalId).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ex) {
+                    LOG.error("Failed to delete temp file {}", tmp.getFileName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Удаляет из быстрого хранилища контент, уже скопированный в емкое.
+     *
+     * @param externalId идентификатор хранения
+     * @throws FileStorageException при ошибках работы с файловой системой
+     */
+    public void evictHot(String externalId) throws FileStorageException {
+        final Path hotFile = super.contentPath(externalId);
+        try {
+            if (!Files.exists(coldPath(externalId))) {
+                throw new IllegalStateException("Content " + externalId + " is not copied to the cold tier");
+            }
+            mappedRegions.invalidate(hotFile);
+            Files.deleteIfExists(hotFile);
+            lastAccessTimes.remove(externalId);
+        } catch (IOException ex) {
+            throw new FileStorageException(ex);
+        }
+    }
+
+    /**
+     * Проверяет, лежит ли контент в быстром хранилище.
+     *
+     * @param externalId идентификатор хранения
+     * @return лежит/нет
+     */
+    public boolean isHot(String externalId) {
+        return Files.exists(super.contentPath(externalId));
+    }
+
+    /**
+     * Возвращает путь к контенту в емком хранилище.
+     *
+     * @param externalId идентификатор хранения
+     * @return путь к файлу
+     */
+    private Path coldPath(String externalId) {
+        return layout.locate(coldStorageDir, externalId).toPath();
+    }
+
+    /**
+     * Возвращает время последнего обращения к контенту в быстром хранилище.
+     *
+     * @param file файл с контентом
+     * @return время, мс
+     */
+    private long lastAccessTime(Path file) {
+        final Long recorded = lastAccessTimes.get(file.getFileName().toString());
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            final long accessTime = Math.max(attributes.lastAccessTime().toMillis(), attributes.lastModifiedTime().toMillis());
+            return recorded != null ? Math.max(recorded, accessTime) : accessTime;
+        } catch (IOException ex) {
+            // файл удален или перенесен во время обхода - переносить нечего
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Записывает время обращения к контенту в быстром хранилище во время доступа к файлу, если с прошлой записи
+     * прошло больше fileStorage.tiered.accessTimeGranularityMs.
+     *
+     * @param externalId идентификатор хранения
+     * @param hotFile    файл с контентом в быстром хранилище
+     */
+    private void recordAccess(String externalId, Path hotFile) {
+        final long now = System.currentTimeMillis();
+        final Long recorded = lastAccessTimes.get(externalId);
+        if (recorded != null && now - recorded < accessTimeGranularityMs) {
+            return;
+        }
+        lastAccessTimes.put(externalId, now);
+        try {
+            Files.setAttribute(hotFile, "basic:lastAccessTime", FileTime.fromMillis(now));
+        } catch (IOException ex) {
+            // контент перенесли или удалили, чтение пойдет с другого уровня или завершится ошибкой
+            LOG.debug("Failed to record access time of content {}", externalId, ex);
+        }
+    }
+}
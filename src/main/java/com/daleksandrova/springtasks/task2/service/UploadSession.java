@@ -0,0 +1,140 @@
+package com.daleksandrova.springtasks.task2.service;
+
+import com.daleksandrova.springtasks.task2.dto.FileProperties;
+import com.daleksandrova.springtasks.task2.dto.UploadSessionDto;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Сессия загрузки файла частями. Части записываются по своим смещениям в заранее созданный временный файл.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@Getter
+public class UploadSession {
+
+    /**
+     * Идентификатор сессии.
+     */
+    private final String sessionId;
+
+    /**
+     * Свойства загружаемого файла.
+     */
+    private final FileProperties fileProperties;
+
+    /**
+     * Размер части, кроме, возможно, последней.
+     */
+    private final long chunkSize;
+
+    /**
+     * Количество частей.
+     */
+    private final int chunkCount;
+
+    /**
+     * Временный файл.
+     */
+    private final Path tmpFile;
+
+    /**
+     * Канал временного файла, общий для параллельной записи частей.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Полученные части.
+     */
+    @Getter(AccessLevel.NONE)
+    private final BitSet receivedChunks;
+
+    /**
+     * Время последнего обращения к сессии, мс.
+     */
+    private volatile long lastAccessTime;
+
+    /**
+     * Конструктор.
+     *
+     * @param sessionId      идентификатор сессии
+     * @param fileProperties свойства загружаемого файла
+     * @param chunkSize      размер части
+     * @param tmpFile        временный файл
+     * @param channel        канал временного файла
+     */
+    public UploadSession(String sessionId, FileProperties fileProperties, long chunkSize, Path tmpFile, FileChannel channel) {
+        this.sessionId = sessionId;
+        this.fileProperties = fileProperties;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) Math.max(1, (fileProperties.getContentSize() + chunkSize - 1) / chunkSize);
+        this.tmpFile = tmpFile;
+        this.channel = channel;
+        this.receivedChunks = new BitSet(chunkCount);
+        this.lastAccessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Возвращает смещение части в файле.
+     *
+     * @param index номер части
+     * @return смещение
+     */
+    public long chunkOffset(int index) {
+        return index * chunkSize;
+    }
+
+    /**
+     * Возвращает размер части.
+     *
+     * @param index номер части
+     * @return размер части
+     */
+    public long chunkLength(int index) {
+        return Math.min(chunkSize, fileProperties.getContentSize() - chunkOffset(index));
+    }
+
+    /**
+     * Отмечает часть полученной.
+     *
+     * @param index номер части
+     */
+    public synchronized void markReceived(int index) {
+        receivedChunks.set(index);
+        touch();
+    }
+
+    /**
+     * Проверяет, получены ли все части.
+     *
+     * @return получены/нет
+     */
+    public synchronized boolean isComplete() {
+        return receivedChunks.cardinality() == chunkCount;
+    }
+
+    /**
+     * Обновляет время последнего обращения к сессии.
+     */
+    public void touch() {
+        lastAccessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Создает ДТО сессии.
+     *
+     * @return ДТО сессии
+     */
+    public synchronized UploadSessionDto toDto() {
+        final List<Integer> received = new ArrayList<>(receivedChunks.cardinality());
+        receivedChunks.stream().forEach(received::add);
+        return new UploadSessionDto(sessionId, chunkSize, chunkCount, received);
+    }
+}
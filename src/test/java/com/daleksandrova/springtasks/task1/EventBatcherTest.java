@@ -0,0 +1,201 @@
+package com.daleksandrova.springtasks.task1;
+
+import com.daleksandrova.springtasks.task1.batch.EventBatcher;
+import com.daleksandrova.springtasks.task1.event.NeedToRestEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тест для проверки доставки событий пачками.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class EventBatcherTest {
+
+    /**
+     * Тест, проверяющий, что полные пачки уходят по размеру, а неполная - при остановке.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testBatchesBySize() throws Exception {
+        final CollectingListener listener = new CollectingListener();
+        final EventBatcher batcher = newBatcher(listener, 10, 60_000, "");
+        for (int i = 0; i < 25; i++) {
+            batcher.onApplicationEvent(new NeedToRestEvent(this, "event " + i));
+        }
+        assertThat(messages(listener.batches.poll(10, TimeUnit.SECONDS))).hasSize(10).first().isEqualTo("event 0");
+        assertThat(messages(listener.batches.poll(10, TimeUnit.SECONDS))).hasSize(10).first().isEqualTo("event 10");
+
+        batcher.close();
+        assertThat(messages(listener.batches.poll(10, TimeUnit.SECONDS))).hasSize(5).last().isEqualTo("event 24");
+    }
+
+    /**
+     * Тест, проверяющий, что неполная пачка уходит по истечении времени ожидания, а события с одинаковым
+     * ключом схлопываются в последнее из них.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testLingerAndCoalescing() throws Exception {
+        final CollectingListener listener = new CollectingListener();
+        final EventBatcher batcher = newBatcher(listener, 1000, 50, "message");
+        final NeedToRestEvent lastA = new NeedToRestEvent(this, "a");
+        batcher.onApplicationEvent(new NeedToRestEvent(this, "a"));
+        batcher.onApplicationEvent(new NeedToRestEvent(this, "b"));
+        batcher.onApplicationEvent(lastA);
+
+        final List<NeedToRestEvent> batch = listener.batches.poll(10, TimeUnit.SECONDS);
+        assertThat(messages(batch)).containsExactly("b", "a");
+        assertThat(batch.get(1)).isSameAs(lastA);
+        batcher.close();
+    }
+
+    /**
+     * Тест, проверяющий, что при заполненных готовых пачках создатель события ждет слушателя, остановка прерывает
+     * ожидание, а события после остановки отбрасываются без исключения у создателя.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testBackPressureAndClose() throws Exception {
+        final CollectingListener listener = new CollectingListener();
+        final EventBatcher batcher = newBatcher(listener, 1, 60_000, 1, "");
+        final AtomicReference<Throwable> publishError = new AtomicReference<>();
+
+        // первая пачка у слушателя, вторая готова, третья текущая, четвертое событие ждет места
+        listener.gate = new CountDownLatch(1);
+        final Thread publisher = publish(batcher, 4, publishError);
+        publisher.join(300);
+        assertThat(publisher.isAlive()).isTrue();
+        listener.gate.countDown();
+        publisher.join(10_000);
+        assertThat(publisher.isAlive()).isFalse();
+        for (int i = 0; i < 4; i++) {
+            assertThat(messages(listener.batches.poll(10, TimeUnit.SECONDS))).containsExactly(Integer.toString(i));
+        }
+
+        // остановка отдает слушателю текущую пачку и отбрасывает событие, ждущее места
+        listener.gate = new CountDownLatch(1);
+        final Thread waitingPublisher = publish(batcher, 4, publishError);
+        waitingPublisher.join(300);
+        assertThat(waitingPublisher.isAlive()).isTrue();
+        batcher.close();
+        waitingPublisher.join(10_000);
+        assertThat(waitingPublisher.isAlive()).isFalse();
+        batcher.onApplicationEvent(new NeedToRestEvent(this, "late"));
+        listener.gate.countDown();
+        for (int i = 0; i < 3; i++) {
+            assertThat(messages(listener.batches.poll(10, TimeUnit.SECONDS))).containsExactly(Integer.toString(i));
+        }
+        assertThat(listener.batches.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(publishError.get()).isNull();
+    }
+
+    /**
+     * Создает слушатель пачек для метода {@link CollectingListener#onNeedToRestEvents(List)}.
+     *
+     * @param listener    бин слушателя
+     * @param batchSize   размер пачки
+     * @param maxLingerMs время ожидания пачки, мс
+     * @param coalesceKey ключ схлопывания
+     * @return слушатель пачек
+     */
+    private static EventBatcher newBatcher(CollectingListener listener, int batchSize, long maxLingerMs, String coalesceKey) {
+        return newBatcher(listener, batchSize, maxLingerMs, 16, coalesceKey);
+    }
+
+    /**
+     * Создает слушатель пачек для метода {@link CollectingListener#onNeedToRestEvents(List)}.
+     *
+     * @param listener          бин слушателя
+     * @param batchSize         размер пачки
+     * @param maxLingerMs       время ожидания пачки, мс
+     * @param maxPendingBatches количество готовых пачек, ждущих слушателя
+     * @param coalesceKey       ключ схлопывания
+     * @return слушатель пачек
+     */
+    private static EventBatcher newBatcher(CollectingListener listener, int batchSize, long maxLingerMs,
+                                           int maxPendingBatches, String coalesceKey) {
+        return new EventBatcher(listener, ReflectionUtils.findMethod(CollectingListener.class, "onNeedToRestEvents", List.class),
+                batchSize, maxLingerMs, maxPendingBatches, coalesceKey);
+    }
+
+    /**
+     * Публикует события с сообщениями "0", "1", ... в отдельном потоке.
+     *
+     * @param batcher слушатель пачек
+     * @param count   количество событий
+     * @param error   исключение публикации
+     * @return поток публикации
+     */
+    private Thread publish(EventBatcher batcher, int count, AtomicReference<Throwable> error) {
+        final Thread publisher = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++) {
+                    batcher.onApplicationEvent(new NeedToRestEvent(this, Integer.toString(i)));
+                }
+            } catch (RuntimeException ex) {
+                error.set(ex);
+            }
+        });
+        publisher.start();
+        return publisher;
+    }
+
+    /**
+     * Возвращает сообщения событий пачки.
+     *
+     * @param batch пачка
+     * @return сообщения
+     */
+    private static List<String> messages(List<NeedToRestEvent> batch) {
+        assertThat(batch).isNotNull();
+        return batch.stream().map(NeedToRestEvent::getMessage).collect(Collectors.toList());
+    }
+
+    /**
+     * Слушатель, сохраняющий полученные пачки.
+     */
+    public static class CollectingListener {
+
+        /**
+         * Полученные пачки.
+         */
+        private final BlockingQueue<List<NeedToRestEvent>> batches = new LinkedBlockingQueue<>();
+
+        /**
+         * Отметка, которую слушатель ждет перед получением пачки, пусто - не ждет.
+         */
+        private volatile CountDownLatch gate;
+
+        /**
+         * Слушатель пачки событий "Нужно отдохнуть".
+         *
+         * @param needToRestEvents события
+         */
+        public void onNeedToRestEvents(List<NeedToRestEvent> needToRestEvents) {
+            final CountDownLatch currentGate = gate;
+            if (currentGate != null) {
+                try {
+                    currentGate.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batches.add(needToRestEvents);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.daleksandrova.springtasks.task1;
+
+import com.daleksandrova.springtasks.task1.event.NeedToRestEvent;
+import com.daleksandrova.springtasks.task1.multicaster.ExecutorEventMulticaster;
+import com.daleksandrova.springtasks.task1.multicaster.ListenerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тест для проверки асинхронной доставки событий слушателям.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ExecutorEventMulticasterTest {
+
+    /**
+     * Количество событий.
+     */
+    private static final int EVENTS = 1000;
+
+    /**
+     * Управляющий доставкой событий.
+     */
+    private ExecutorEventMulticaster multicaster;
+
+    /**
+     * Останавливаем потоки слушателей.
+     */
+    @AfterEach
+    public void tearDown() {
+        if (multicaster != null) {
+            multicaster.destroy();
+        }
+    }
+
+    /**
+     * Тест, проверяющий, что асинхронный слушатель получает события в своем потоке и в порядке публикации,
+     * а синхронный - в потоке создателя события.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testAsyncDeliveryKeepsOrder() throws Exception {
+        multicaster = newMulticaster("", 16, 2);
+        final RecordingListener async = new RecordingListener("test.async", event -> { });
+        final RecordingListener sync = new RecordingListener("other.sync", event -> { });
+        multicaster.addApplicationListener(async);
+        multicaster.addApplicationListener(sync);
+
+        for (int i = 0; i < EVENTS; i++) {
+            multicaster.multicastEvent(new NeedToRestEvent(this, Integer.toString(i)));
+        }
+
+        final List<String> received = async.take(EVENTS);
+        assertThat(received).containsExactlyElementsOf(expectedMessages());
+        assertThat(async.threadNames).hasSize(1).allMatch(name -> name.startsWith("event-listener-"));
+        assertThat(sync.take(EVENTS)).containsExactlyElementsOf(expectedMessages());
+        assertThat(sync.threadNames).containsExactly(Thread.currentThread().getName());
+    }
+
+    /**
+     * Тест, проверяющий, что события типов без порядка доставляются через общий пул потоков.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testUnorderedEventsUseSharedPool() throws Exception {
+        multicaster = newMulticaster(NeedToRestEvent.class.getSimpleName(), 16, 4);
+        final RecordingListener async = new RecordingListener("test.async", event -> { });
+        multicaster.addApplicationListener(async);
+
+        for (int i = 0; i < EVENTS; i++) {
+            multicaster.multicastEvent(new NeedToRestEvent(this, Integer.toString(i)));
+        }
+
+        assertThat(async.take(EVENTS)).containsExactlyInAnyOrderElementsOf(expectedMessages());
+        assertThat(async.threadNames).isNotEmpty().allMatch("event-listener-shared"::equals);
+    }
+
+    /**
+     * Тест, проверяющий, что при заполненной очереди создатель события ждет места, остановка прерывает ожидание,
+     * а слушатель, публикующий событие в собственную заполненную очередь, получает отказ вместо вечного ожидания.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testBackPressure() throws Exception {
+        multicaster = newMulticaster("", 1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicReference<Throwable> selfPublishError = new AtomicReference<>();
+        final RecordingListener async = new RecordingListener("test.async", event -> {
+            if ("0".equals(event.getMessage())) {
+                await(release);
+            } else if ("3".equals(event.getMessage())) {
+                // очередь вмещает одно событие: второе слушатель ждал бы сам от себя
+                try {
+                    multicaster.multicastEvent(new NeedToRestEvent(this, "4"));
+                    multicaster.multicastEvent(new NeedToRestEvent(this, "5"));
+                } catch (RejectedExecutionException ex) {
+                    selfPublishError.set(ex);
+                }
+            }
+        });
+        multicaster.addApplicationListener(async);
+
+        // первое событие занимает поток, второе - очередь, третье ждет места
+        final Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 4; i++) {
+                multicaster.multicastEvent(new NeedToRestEvent(this, Integer.toString(i)));
+            }
+        });
+        publisher.start();
+        publisher.join(300);
+        assertThat(publisher.isAlive()).isTrue();
+
+        release.countDown();
+        publisher.join(10_000);
+        assertThat(publisher.isAlive()).isFalse();
+        assertThat(async.take(5)).containsExactly("0", "1", "2", "3", "4");
+        assertThat(selfPublishError.get()).isInstanceOf(RejectedExecutionException.class);
+
+        // остановка прерывает ожидание места
+        final CountDownLatch never = new CountDownLatch(1);
+        final RecordingListener blocked = new RecordingListener("test.blocked", event -> await(never));
+        multicaster.removeApplicationListener(async);
+        multicaster.addApplicationListener(blocked);
+        final AtomicReference<Throwable> publishError = new AtomicReference<>();
+        final Thread waitingPublisher = new Thread(() -> {
+            try {
+                for (int i = 0; i < 3; i++) {
+                    multicaster.multicastEvent(new NeedToRestEvent(this, Integer.toString(i)));
+                }
+            } catch (RejectedExecutionException ex) {
+                publishError.set(ex);
+            }
+        });
+        waitingPublisher.start();
+        waitingPublisher.join(300);
+        assertThat(waitingPublisher.isAlive()).isTrue();
+        multicaster.destroy();
+        waitingPublisher.join(10_000);
+        assertThat(waitingPublisher.isAlive()).isFalse();
+        assertThat(publishError.get()).isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> multicaster.multicastEvent(new NeedToRestEvent(this, "late")))
+                .isInstanceOf(RejectedExecutionException.class);
+        never.countDown();
+    }
+
+    /**
+     * Тест, проверяющий, что удаление слушателя останавливает его поток и забывает способ доставки,
+     * а после остановки управляющего новые потоки слушателей не создаются.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testRemovedListenerIsReleased() throws Exception {
+        multicaster = newMulticaster("", 16, 1);
+        final Map<?, ?> deliveryModes = (Map<?, ?>) ReflectionTestUtils.getField(multicaster, "deliveryModes");
+        final Map<?, ?> listenerExecutors = (Map<?, ?>) ReflectionTestUtils.getField(multicaster, "listenerExecutors");
+        final RecordingListener async = new RecordingListener("test.async", event -> { });
+        final RecordingListener other = new RecordingListener("test.other", event -> { });
+        multicaster.addApplicationListener(async);
+        multicaster.addApplicationListener(other);
+        multicaster.multicastEvent(new NeedToRestEvent(this, "0"));
+        assertThat(async.take(1)).containsExactly("0");
+        assertThat(other.take(1)).containsExactly("0");
+        final ExecutorService asyncExecutor = (ExecutorService) listenerExecutors.get(async);
+        final ExecutorService otherExecutor = (ExecutorService) listenerExecutors.get(other);
+
+        multicaster.removeApplicationListener(async);
+        assertThat(asyncExecutor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        multicaster.removeApplicationListeners(other::equals);
+        assertThat(otherExecutor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(deliveryModes).isEmpty();
+        assertThat(listenerExecutors).isEmpty();
+
+        // после остановки поток для нового слушателя не создается
+        multicaster.destroy();
+        multicaster.addApplicationListener(new RecordingListener("test.late", event -> { }));
+        assertThatThrownBy(() -> multicaster.multicastEvent(new NeedToRestEvent(this, "late")))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(listenerExecutors).isEmpty();
+    }
+
+    /**
+     * Создает управляющего доставкой событий, асинхронно доставляющего события слушателям с префиксом "test.".
+     *
+     * @param unorderedEventTypes типы событий без порядка доставки
+     * @param queueCapacity       размер очереди слушателя
+     * @param sharedThreads       количество потоков общего пула
+     * @return управляющий доставкой событий
+     */
+    private static ExecutorEventMulticaster newMulticaster(String unorderedEventTypes, int queueCapacity, int sharedThreads) {
+        return new ExecutorEventMulticaster("test.", unorderedEventTypes, queueCapacity, sharedThreads, new ListenerRegistry(""));
+    }
+
+    /**
+     * Возвращает сообщения событий в порядке публикации.
+     *
+     * @return сообщения
+     */
+    private static List<String> expectedMessages() {
+        final List<String> messages = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            messages.add(Integer.toString(i));
+        }
+        return messages;
+    }
+
+    /**
+     * Ждет отметки, не выбрасывая проверяемых исключений.
+     *
+     * @param latch отметка
+     */
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Слушатель, запоминающий сообщения событий и потоки, в которых он вызывался.
+     */
+    private static final class RecordingListener implements SmartApplicationListener {
+
+        /**
+         * Идентификатор слушателя.
+         */
+        private final String listenerId;
+
+        /**
+         * Действие при получении события.
+         */
+        private final Consumer<NeedToRestEvent> action;
+
+        /**
+         * Сообщения полученных событий.
+         */
+        private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+
+        /**
+         * Имена потоков, в которых вызывался слушатель.
+         */
+        private final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Конструктор.
+         *
+         * @param listenerId идентификатор слушателя
+         * @param action     действие при получении события
+         */
+        private RecordingListener(String listenerId, Consumer<NeedToRestEvent> action) {
+            this.listenerId = listenerId;
+            this.action = action;
+        }
+
+        @Override
+        public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+            return NeedToRestEvent.class.isAssignableFrom(eventType);
+        }
+
+        @Override
+        public String getListenerId() {
+            return listenerId;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+            threadNames.add(Thread.currentThread().getName());
+            final NeedToRestEvent needToRestEvent = (NeedToRestEvent) event;
+            messages.add(needToRestEvent.getMessage());
+            action.accept(needToRestEvent);
+        }
+
+        /**
+         * Ждет заданное количество сообщений.
+         *
+         * @param count количество сообщений
+         * @return сообщения в порядке получения
+         * @throws InterruptedException если ожидание прервали
+         */
+        private List<String> take(int count) throws InterruptedException {
+            final List<String> received = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String message = messages.poll(30, TimeUnit.SECONDS);
+                assertThat(message).as("message %d of %d", i, count).isNotNull();
+                received.add(message);
+            }
+            return received;
+        }
+    }
+}
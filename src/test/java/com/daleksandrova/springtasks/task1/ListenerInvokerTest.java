@@ -0,0 +1,338 @@
+package com.daleksandrova.springtasks.task1;
+
+import com.daleksandrova.springtasks.task1.event.NeedToRestEvent;
+import com.daleksandrova.springtasks.task1.multicaster.DeliveryAwareListenerMethodAdapter;
+import com.daleksandrova.springtasks.task1.multicaster.ListenerInvoker;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тест для проверки прямого вызова методов-слушателей.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ListenerInvokerTest {
+
+    /**
+     * Тест, проверяющий вызов методов с параметром и без, ничего не возвращающих и возвращающих объект или примитив,
+     * а также отказ генерировать вызов статического метода и метода с несколькими параметрами.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testCompile() throws Exception {
+        final Listener listener = new Listener();
+        final NeedToRestEvent event = new NeedToRestEvent(this, "hello");
+
+        assertThat(compile("onEvent", NeedToRestEvent.class).invoke(listener, event)).isNull();
+        assertThat(compile("onAnyEvent").invoke(listener, null)).isNull();
+        assertThat(listener.calls).containsExactly("hello", "any");
+        assertThat(compile("reply", NeedToRestEvent.class).invoke(listener, event)).isEqualTo("re: hello");
+        assertThat(compile("length", NeedToRestEvent.class).invoke(listener, event)).isEqualTo(5);
+        assertThat(compile("ready").invoke(listener, null)).isEqualTo(Boolean.TRUE);
+        assertThat(listener.reflective).isFalse();
+
+        assertThat(compile("onStatic", NeedToRestEvent.class)).isNull();
+        assertThat(compile("onTwo", NeedToRestEvent.class, String.class)).isNull();
+    }
+
+    /**
+     * Тест, проверяющий, что исключения метода, в том числе проверяемые, выходят из прямого вызова без изменений,
+     * а адаптер оборачивает проверяемые так же, как Spring при вызове через рефлексию.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testExceptionsPropagateUnchanged() throws Exception {
+        final Listener listener = new Listener();
+        final NeedToRestEvent event = new NeedToRestEvent(this, "hello");
+        final ListenerInvoker invoker = compile("fail", NeedToRestEvent.class);
+
+        listener.failure = new IllegalArgumentException("unchecked");
+        assertThatThrownBy(() -> invoker.invoke(listener, event)).isSameAs(listener.failure);
+        listener.failure = new IOException("checked");
+        assertThatThrownBy(() -> invoker.invoke(listener, event)).isSameAs(listener.failure);
+
+        final TestAdapter adapter = new TestAdapter(listener, Listener.class,
+                Listener.class.getMethod("fail", NeedToRestEvent.class));
+        listener.failure = new IllegalArgumentException("unchecked");
+        assertThatThrownBy(() -> adapter.invoke(event)).isSameAs(listener.failure);
+        listener.failure = new IOException("checked");
+        assertThatThrownBy(() -> adapter.invoke(event))
+                .isInstanceOf(UndeclaredThrowableException.class)
+                .hasCauseReference(listener.failure);
+    }
+
+    /**
+     * Тест, проверяющий, что адаптер вызывает методы бина напрямую, а статический метод - через рефлексию.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testAdapterInvokesDirectly() throws Exception {
+        final Listener listener = new Listener();
+        final NeedToRestEvent event = new NeedToRestEvent(this, "hello");
+
+        assertThat(new TestAdapter(listener, Listener.class,
+                Listener.class.getMethod("length", NeedToRestEvent.class)).invoke(event)).isEqualTo(5);
+        assertThat(new TestAdapter(listener, Listener.class, Listener.class.getMethod("ready")).invoke())
+                .isEqualTo(Boolean.TRUE);
+        assertThat(new TestAdapter(listener, Listener.class,
+                Listener.class.getMethod("onEvent", NeedToRestEvent.class)).invoke(event)).isNull();
+        assertThat(listener.calls).containsExactly("hello");
+        assertThat(listener.reflective).isFalse();
+
+        Listener.staticReflective = false;
+        assertThat(new TestAdapter(listener, Listener.class,
+                Listener.class.getMethod("onStatic", NeedToRestEvent.class)).invoke(event)).isNull();
+        assertThat(Listener.staticReflective).isTrue();
+    }
+
+    /**
+     * Тест, проверяющий, что событие слушателю без условия и результата передается методу сразу,
+     * а бин-одиночка берется из контекста один раз.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testProcessEventDirectly() throws Exception {
+        final Listener listener = new Listener();
+        final TestAdapter singleton = new TestAdapter(listener, Listener.class,
+                Listener.class.getMethod("onEvent", NeedToRestEvent.class), true);
+        singleton.onApplicationEvent(new NeedToRestEvent(this, "first"));
+        singleton.onApplicationEvent(new NeedToRestEvent(this, "second"));
+        assertThat(singleton.targetBeanLookups).isEqualTo(1);
+
+        final TestAdapter prototype = new TestAdapter(listener, Listener.class,
+                Listener.class.getMethod("onAnyEvent"), false);
+        prototype.onApplicationEvent(new NeedToRestEvent(this, "third"));
+        prototype.onApplicationEvent(new NeedToRestEvent(this, "fourth"));
+        assertThat(prototype.targetBeanLookups).isEqualTo(2);
+
+        assertThat(listener.calls).containsExactly("first", "second", "any", "any");
+        assertThat(listener.reflective).isFalse();
+    }
+
+    /**
+     * Тест, проверяющий бин за JDK-прокси: метод интерфейса вызывается напрямую через прокси, а метод класса,
+     * которого прокси не реализует, - через рефлексию Spring с ее же сообщением об ошибке.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testJdkProxyBean() throws Exception {
+        final List<Boolean> reflectiveCalls = new ArrayList<>();
+        final ProxyFactory proxyFactory = new ProxyFactory(new GreeterImpl());
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            reflectiveCalls.add(isReflective());
+            return invocation.proceed();
+        });
+        final Object proxy = proxyFactory.getProxy();
+        assertThat(Proxy.isProxyClass(proxy.getClass())).isTrue();
+        final NeedToRestEvent event = new NeedToRestEvent(this, "hello");
+
+        final TestAdapter interfaceAdapter = new TestAdapter(proxy, GreeterImpl.class,
+                Greeter.class.getMethod("greet", NeedToRestEvent.class));
+        assertThat(interfaceAdapter.invoke(event)).isEqualTo("hi, hello");
+        assertThat(reflectiveCalls).containsExactly(false);
+
+        final TestAdapter classAdapter = new TestAdapter(proxy, GreeterImpl.class,
+                GreeterImpl.class.getMethod("greet", NeedToRestEvent.class));
+        assertThatThrownBy(() -> classAdapter.invoke(event))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("class-based proxying");
+        assertThat(reflectiveCalls).containsExactly(false);
+    }
+
+    /**
+     * Генерирует прямой вызов метода {@link Listener}.
+     *
+     * @param name           имя метода
+     * @param parameterTypes типы параметров
+     * @return прямой вызов
+     * @throws ReflectiveOperationException если метод недоступен
+     */
+    private static ListenerInvoker compile(String name, Class<?>... parameterTypes) throws ReflectiveOperationException {
+        final Method method = ReflectionUtils.findMethod(Listener.class, name, parameterTypes);
+        assertThat(method).as(name).isNotNull();
+        return ListenerInvoker.compile(method);
+    }
+
+    /**
+     * Проверяет, вызван ли вызвавший метод через рефлексию из кода теста.
+     *
+     * @return true, если между кодом теста и вызвавшим методом в стеке есть {@link Method#invoke}
+     */
+    private static boolean isReflective() {
+        return Arrays.stream(new Throwable().getStackTrace())
+                .skip(2)
+                .takeWhile(frame -> !ListenerInvokerTest.class.getName().equals(frame.getClassName()))
+                .anyMatch(frame -> Method.class.getName().equals(frame.getClassName()) && "invoke".equals(frame.getMethodName()));
+    }
+
+    /**
+     * Адаптер, открывающий вызов метода-слушателя для теста и берущий бин не из контекста.
+     */
+    private static final class TestAdapter extends DeliveryAwareListenerMethodAdapter {
+
+        /**
+         * Бин слушателя.
+         */
+        private final Object bean;
+
+        /**
+         * Количество обращений за бином.
+         */
+        private int targetBeanLookups;
+
+        /**
+         * Конструктор.
+         *
+         * @param bean        бин слушателя
+         * @param targetClass класс слушателя
+         * @param method      метод-слушатель
+         */
+        private TestAdapter(Object bean, Class<?> targetClass, Method method) {
+            this(bean, targetClass, method, false);
+        }
+
+        /**
+         * Конструктор.
+         *
+         * @param bean        бин слушателя
+         * @param targetClass класс слушателя
+         * @param method      метод-слушатель
+         * @param singleton   является ли бин одиночкой
+         */
+        private TestAdapter(Object bean, Class<?> targetClass, Method method, boolean singleton) {
+            super("listener", targetClass, method, singleton);
+            this.bean = bean;
+        }
+
+        @Override
+        protected Object getTargetBean() {
+            targetBeanLookups++;
+            return bean;
+        }
+
+        /**
+         * Вызывает метод-слушатель.
+         *
+         * @param args аргументы
+         * @return результат метода
+         */
+        private Object invoke(Object... args) {
+            return doInvoke(args);
+        }
+    }
+
+    /**
+     * Слушатель с методами разных видов.
+     */
+    private static final class Listener {
+
+        /**
+         * Вызван ли последний статический метод через рефлексию.
+         */
+        private static volatile boolean staticReflective;
+
+        /**
+         * Сообщения вызовов.
+         */
+        private final List<String> calls = new ArrayList<>();
+
+        /**
+         * Вызывался ли какой-либо метод через рефлексию.
+         */
+        private boolean reflective;
+
+        /**
+         * Исключение, выбрасываемое {@link #fail(NeedToRestEvent)}.
+         */
+        private Exception failure;
+
+        @EventListener
+        public void onEvent(NeedToRestEvent event) {
+            reflective |= isReflective();
+            calls.add(event.getMessage());
+        }
+
+        @EventListener(NeedToRestEvent.class)
+        public void onAnyEvent() {
+            reflective |= isReflective();
+            calls.add("any");
+        }
+
+        @EventListener
+        public String reply(NeedToRestEvent event) {
+            reflective |= isReflective();
+            return "re: " + event.getMessage();
+        }
+
+        @EventListener
+        public int length(NeedToRestEvent event) {
+            reflective |= isReflective();
+            return event.getMessage().length();
+        }
+
+        @EventListener(NeedToRestEvent.class)
+        public boolean ready() {
+            reflective |= isReflective();
+            return true;
+        }
+
+        @EventListener
+        public void fail(NeedToRestEvent event) throws Exception {
+            throw failure;
+        }
+
+        @EventListener
+        public static void onStatic(NeedToRestEvent event) {
+            staticReflective = isReflective();
+        }
+
+        public void onTwo(NeedToRestEvent event, String extra) {
+        }
+    }
+
+    /**
+     * Интерфейс бина за JDK-прокси.
+     */
+    public interface Greeter {
+
+        /**
+         * Приветствует.
+         *
+         * @param event событие
+         * @return приветствие
+         */
+        String greet(NeedToRestEvent event);
+    }
+
+    /**
+     * Реализация бина за JDK-прокси.
+     */
+    public static class GreeterImpl implements Greeter {
+
+        @Override
+        @EventListener
+        public String greet(NeedToRestEvent event) {
+            return "hi, " + event.getMessage();
+        }
+    }
+}
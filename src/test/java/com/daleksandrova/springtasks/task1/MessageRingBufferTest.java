@@ -0,0 +1,151 @@
+package com.daleksandrova.springtasks.task1;
+
+import com.daleksandrova.springtasks.task1.bus.MessageRingBuffer;
+import com.daleksandrova.springtasks.task1.bus.MessageSlot;
+import com.daleksandrova.springtasks.task1.bus.RingEventHandler;
+import com.daleksandrova.springtasks.task1.event.NeedToRestEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Тест для проверки кольцевого буфера событий.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class MessageRingBufferTest {
+
+    /**
+     * Количество событий от каждого создателя.
+     */
+    private static final int EVENTS_PER_PRODUCER = 100_000;
+
+    /**
+     * Тест, проверяющий, что при нескольких создателях и маленьком буфере каждый обработчик получает
+     * все события, а события одного создателя - в порядке публикации.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testAllEventsDeliveredInOrder() throws Exception {
+        final String[][] messages = new String[2][EVENTS_PER_PRODUCER];
+        for (int producer = 0; producer < 2; producer++) {
+            for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                messages[producer][i] = producer + ":" + i;
+            }
+        }
+
+        final MessageRingBuffer ringBuffer = new MessageRingBuffer("test", 64);
+        final OrderCheckingHandler first = new OrderCheckingHandler();
+        final OrderCheckingHandler second = new OrderCheckingHandler();
+        ringBuffer.addHandler(first);
+        ringBuffer.addHandler(second);
+        ringBuffer.start();
+
+        final Thread[] producers = new Thread[2];
+        for (int producer = 0; producer < 2; producer++) {
+            final String[] producerMessages = messages[producer];
+            producers[producer] = new Thread(() -> {
+                for (String message : producerMessages) {
+                    ringBuffer.publish(message);
+                }
+            });
+            producers[producer].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertThat(first.done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.outOfOrder).isZero();
+        assertThat(second.outOfOrder).isZero();
+        ringBuffer.close();
+    }
+
+    /**
+     * Тест, проверяющий, что остановка дожидается завершения потоков обработчиков, а публикация после нее
+     * отклоняется сразу, даже если буфер заполнен и ячейки освобождать некому.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testPublishAfterClose() throws Exception {
+        final MessageRingBuffer ringBuffer = new MessageRingBuffer("test", 4);
+        final OrderCheckingHandler handler = new OrderCheckingHandler();
+        ringBuffer.addHandler(handler);
+        ringBuffer.start();
+        for (int i = 0; i < 10; i++) {
+            ringBuffer.publish("0:" + i);
+        }
+        ringBuffer.close();
+
+        assertThat(handler.received).isEqualTo(10);
+        assertThat(handler.thread.isAlive()).isFalse();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 10; i++) {
+                assertThatThrownBy(() -> ringBuffer.publish("late"))
+                        .isInstanceOf(IllegalStateException.class);
+            }
+        });
+    }
+
+    /**
+     * Обработчик, проверяющий порядок событий каждого создателя.
+     */
+    private static final class OrderCheckingHandler implements RingEventHandler {
+
+        /**
+         * Последний полученный номер события по создателям.
+         */
+        private final int[] lastIndexes = {-1, -1};
+
+        /**
+         * Количество событий не по порядку.
+         */
+        private int outOfOrder;
+
+        /**
+         * Количество полученных событий.
+         */
+        private int received;
+
+        /**
+         * Отметка получения всех событий.
+         */
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        /**
+         * Поток обработчика.
+         */
+        private volatile Thread thread;
+
+        @Override
+        public Class<?> getEventType() {
+            return NeedToRestEvent.class;
+        }
+
+        @Override
+        public void onEvent(MessageSlot slot, long sequence, boolean endOfBatch) {
+            thread = Thread.currentThread();
+            final String message = slot.getMessage();
+            final int separator = message.indexOf(':');
+            final int producer = Integer.parseInt(message.substring(0, separator));
+            final int index = Integer.parseInt(message.substring(separator + 1));
+            if (index != lastIndexes[producer] + 1) {
+                outOfOrder++;
+            }
+            lastIndexes[producer] = index;
+            if (++received == 2 * EVENTS_PER_PRODUCER) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.daleksandrova.springtasks.task1.event.NeedToRestEvent;
 import com.daleksandrova.springtasks.task1.listener.NeedToPassSpringExamEventExternalListener;
 import com.daleksandrova.springtasks.task1.listener.NeedToPassSpringExamEventMyListener;
 import com.daleksandrova.springtasks.task1.listener.NeedToRestEventExternalListener;
+import com.daleksandrova.springtasks.task1.multicaster.ListenerRegistry;
 import com.daleksandrova.springtasks.task1.publisher.NeedToPassSpringExamEventPublisher;
 import com.daleksandrova.springtasks.task1.publisher.NeedToRestEventPublisher;
 import org.junit.jupiter.api.Test;
@@ -52,6 +53,12 @@ public class ReplaceEventListenerTest {
     @Autowired
     private ApplicationEventMulticaster applicationEventMulticaster;
 
+    /**
+     * Реестр отключенных слушателей.
+     */
+    @Autowired
+    private ListenerRegistry listenerRegistry;
+
     /**
      * Спай-бин для проверок внешнего слушателя.
      */
@@ -139,4 +146,39 @@ public class ReplaceEventListenerTest {
 
         // нечестная замена произошла :)
     }
+
+    /**
+     * Тест, проверяющий отключение и замену слушателей через реестр слушателей во время работы приложения.
+     * В отличие от удаления из ApplicationEventMulticaster, слушателя можно включить обратно,
+     * а в отличие от аспекта, отключенный слушатель не вызывается вовсе.
+     */
+    @Test
+    void testDisableEventListenerWithRegistry() {
+        // бин обернут в спай, поэтому слушатели указываются по имени бина, а не по идентификатору с именем класса
+        final String mainListenerId = "needToPassSpringExamEventMyListener.onNeedToPassSpringExamEvent";
+        final String aspectListenerId = "needToPassSpringExamEventMyListener.onNeedToPassSpringExamEventForAspect";
+        try {
+            // отключаем слушателя
+            listenerRegistry.disable(mainListenerId);
+
+            // публикуем событие "Нужно сдать экзамен по Spring"
+            needToPassSpringExamEventPublisher.publishNeedToPassSpringExamEvent("Really need!");
+
+            // проверяем, что метод отключенного слушателя НЕ был вызван, а соседний метод того же бина БЫЛ вызван
+            verify(needToPassSpringExamEventMyListener, times(0)).onNeedToPassSpringExamEvent(any(NeedToPassSpringExamEvent.class));
+            verify(needToPassSpringExamEventMyListener, times(1)).onNeedToPassSpringExamEventForAspect(any(NeedToPassSpringExamEvent.class));
+
+            // меняем слушателей местами: отключенный включается, включенный отключается
+            listenerRegistry.swap(aspectListenerId, mainListenerId);
+            needToPassSpringExamEventPublisher.publishNeedToPassSpringExamEvent("Really need!");
+
+            verify(needToPassSpringExamEventMyListener, times(1)).onNeedToPassSpringExamEvent(any(NeedToPassSpringExamEvent.class));
+            verify(needToPassSpringExamEventMyListener, times(1)).onNeedToPassSpringExamEventForAspect(any(NeedToPassSpringExamEvent.class));
+        } finally {
+            // контекст общий для всех тестов класса, поэтому включаем слушателей обратно
+            listenerRegistry.enable(mainListenerId);
+            listenerRegistry.enable(aspectListenerId);
+        }
+        assertThat(listenerRegistry.getDisabledListeners()).isEmpty();
+    }
 }
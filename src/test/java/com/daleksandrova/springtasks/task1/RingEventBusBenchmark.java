@@ -0,0 +1,148 @@
+package com.daleksandrova.springtasks.task1;
+
+import com.daleksandrova.springtasks.task1.bus.MessageSlot;
+import com.daleksandrova.springtasks.task1.bus.RingEventBus;
+import com.daleksandrova.springtasks.task1.bus.RingEventHandler;
+import com.daleksandrova.springtasks.task1.event.NeedToRestEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение публикации события "Нужно отдохнуть" через шину на кольцевых буферах {@link RingEventBus}
+ * с публикацией через {@link SimpleApplicationEventMulticaster} Spring. У обоих один обработчик, который
+ * только считает события. Multicaster вызывает слушателя в потоке создателя, а шина - в своем потоке, поэтому
+ * при постоянной публикации время шины ограничено скоростью ее обработчика (создатель ждет свободной ячейки).
+ * Смотреть стоит на время публикации и на gc.alloc.rate.norm.
+ * <p>
+ * Не тест, поэтому surefire его не запускает. Запуск после {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<classpath теста> com.daleksandrova.springtasks.task1.RingEventBusBenchmark}
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingEventBusBenchmark {
+
+    /**
+     * Сообщение события.
+     */
+    private static final String MESSAGE = "rest";
+
+    /**
+     * Шина событий.
+     */
+    private RingEventBus ringEventBus;
+
+    /**
+     * Управляющий доставкой событий Spring.
+     */
+    private SimpleApplicationEventMulticaster multicaster;
+
+    /**
+     * Создает шину и управляющего доставкой, каждому - свой считающий обработчик.
+     */
+    @Setup
+    public void setUp() {
+        ringEventBus = new RingEventBus(List.of(new CountingHandler()), 65536);
+        ringEventBus.postConstruct();
+        multicaster = new SimpleApplicationEventMulticaster();
+        multicaster.addApplicationListener(new CountingListener());
+    }
+
+    /**
+     * Останавливает шину.
+     */
+    @TearDown
+    public void tearDown() {
+        ringEventBus.preDestroy();
+    }
+
+    /**
+     * Публикация в шину: сообщение кладется в готовую ячейку.
+     */
+    @Benchmark
+    public void ringEventBus() {
+        ringEventBus.publishNeedToRestEvent(MESSAGE);
+    }
+
+    /**
+     * Публикация через Spring: объект события на каждую публикацию и вызов слушателя в потоке создателя.
+     */
+    @Benchmark
+    public void simpleMulticaster() {
+        multicaster.multicastEvent(new NeedToRestEvent(this, MESSAGE));
+    }
+
+    /**
+     * Запуск сравнения с профилировщиком сборки мусора.
+     *
+     * @param args не используются
+     * @throws RunnerException ошибка запуска
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RingEventBusBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Обработчик шины, считающий события.
+     */
+    private static final class CountingHandler implements RingEventHandler {
+
+        /**
+         * Количество событий.
+         */
+        private long count;
+
+        @Override
+        public Class<?> getEventType() {
+            return NeedToRestEvent.class;
+        }
+
+        @Override
+        public void onEvent(MessageSlot slot, long sequence, boolean endOfBatch) {
+            count++;
+        }
+    }
+
+    /**
+     * Слушатель Spring, считающий события.
+     */
+    private static final class CountingListener implements ApplicationListener<NeedToRestEvent> {
+
+        /**
+         * Количество событий.
+         */
+        private long count;
+
+        @Override
+        public void onApplicationEvent(NeedToRestEvent event) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.daleksandrova.springtasks.task1;
+
+import com.daleksandrova.springtasks.task1.listener.NeedToRestEventBatchListener;
+import com.daleksandrova.springtasks.task1.listener.NeedToRestEventExternalListener;
+import com.daleksandrova.springtasks.task1.publisher.NeedToPassSpringExamEventPublisher;
+import com.daleksandrova.springtasks.task1.publisher.NeedToRestEventPublisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тест для проверки публикации событий task1 через шину на кольцевых буферах. Шина по умолчанию выключена,
+ * поэтому включается только для этого теста.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@SpringBootTest
+@TestPropertySource(properties = {"task1.bus.enabled=true", "task1.bus.bufferSize=64"})
+public class RingEventBusTest {
+
+    /**
+     * Количество событий, больше размера буфера.
+     */
+    private static final int EVENTS = 1000;
+
+    /**
+     * Создатель события "Нужно отдохнуть".
+     */
+    @Autowired
+    private NeedToRestEventPublisher needToRestEventPublisher;
+
+    /**
+     * Создатель события "Нужно сдать экзамен по Spring".
+     */
+    @Autowired
+    private NeedToPassSpringExamEventPublisher needToPassSpringExamEventPublisher;
+
+    /**
+     * Слушатель пачек событий "Нужно отдохнуть", он же обработчик шины.
+     */
+    @Autowired
+    private NeedToRestEventBatchListener needToRestEventBatchListener;
+
+    /**
+     * Слушатель событий "Нужно отдохнуть" через Spring.
+     */
+    @Autowired
+    private NeedToRestEventExternalListener needToRestEventExternalListener;
+
+    /**
+     * Тест, проверяющий, что создатели событий публикуют в шину: обработчик шины получает все события,
+     * а слушатели Spring - ни одного.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testPublishersUseBus() throws Exception {
+        final int hoursOfRest = needToRestEventBatchListener.getHoursOfRest();
+        final int externalHoursOfRest = needToRestEventExternalListener.getHoursOfRest();
+        for (int i = 0; i < EVENTS; i++) {
+            needToRestEventPublisher.publishNeedToRestEvent("rest " + i);
+            needToPassSpringExamEventPublisher.publishNeedToPassSpringExamEvent("exam " + i);
+        }
+
+        final long deadline = System.currentTimeMillis() + 30_000;
+        while (needToRestEventBatchListener.getHoursOfRest() < hoursOfRest + EVENTS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(needToRestEventBatchListener.getHoursOfRest()).isEqualTo(hoursOfRest + EVENTS);
+        assertThat(needToRestEventExternalListener.getHoursOfRest()).isEqualTo(externalHoursOfRest);
+    }
+}
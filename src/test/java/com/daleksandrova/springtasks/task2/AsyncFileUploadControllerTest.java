@@ -0,0 +1,133 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.controller.AsyncFileUploadController;
+import com.daleksandrova.springtasks.task2.controller.FileUploadController;
+import com.daleksandrova.springtasks.task2.entity.FileEntity;
+import com.daleksandrova.springtasks.task2.service.FileMetaInformationWriter;
+import org.hamcrest.Matchers;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Тест для проверки асинхронной загрузки файла. Асинхронная загрузка по умолчанию выключена,
+ * поэтому включается только для этого теста.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "fileStorage.async.enabled=true")
+public class AsyncFileUploadControllerTest {
+
+    /**
+     * Местоположение данных.
+     */
+    @Value("${dataPath}")
+    private String dataPath;
+
+    /**
+     * Мокмвс.
+     */
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Менеджер сущностей.
+     */
+    @PersistenceContext
+    EntityManager entityManager;
+
+    /**
+     * Подсистема записи метаданных.
+     */
+    @Autowired
+    private FileMetaInformationWriter fileMetaInformationWriter;
+
+    /**
+     * Создатель запросов.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Тест, проверяющий асинхронную загрузку файла: поток контейнера освобождается, а ответ приходит после сохранения.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testPositiveAsyncFileUpload() throws Exception {
+        final String content = "Hello, Async!";
+        final String boundary = "asyncBoundary";
+        final String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"async.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + content + "\r\n"
+                + "--" + boundary + "--\r\n";
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.post(FileUploadController.FILE_API_PATH + AsyncFileUploadController.FILE_ASYNC_UPLOAD_PATH)
+                .contentType("multipart/form-data; boundary=" + boundary)
+                .content(body.getBytes()))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        String fileId = new JSONObject(result.getResponse().getContentAsString()).getString("fileId");
+        FileEntity savedFileEntity = entityManager.find(FileEntity.class, fileId);
+        assertNotNull(savedFileEntity);
+        assertThat(savedFileEntity.getContentSize()).isEqualTo(content.length());
+        Path dataFilePath = Paths.get(dataPath + "/data", savedFileEntity.getExternalId());
+        assertThat(Files.readAllBytes(dataFilePath)).isEqualTo(content.getBytes());
+
+        // Загрузка учтена в статистике
+        mockMvc.perform(MockMvcRequestBuilders.get(FileUploadController.FILE_API_PATH + AsyncFileUploadController.FILE_ASYNC_UPLOAD_STATS_PATH))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.submitted", Matchers.greaterThanOrEqualTo(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.inFlight").value(0));
+    }
+
+    /**
+     * Удаляем данные, созданные тестами.
+     *
+     * @throws IOException исключение
+     */
+    @AfterEach
+    public void cleanup() throws IOException {
+        fileMetaInformationWriter.flush();
+        jdbcTemplate.update("delete file_entity");
+
+        Files.walk(Paths.get(dataPath + "/data"))
+                .filter(Files::isRegularFile)
+                .map(Path::toFile)
+                .forEach(File::delete);
+
+        Files.walk(Paths.get(dataPath + "/meta"))
+                .filter(Files::isRegularFile)
+                .map(Path::toFile)
+                .forEach(File::delete);
+    }
+}
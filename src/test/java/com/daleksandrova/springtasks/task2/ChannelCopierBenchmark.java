@@ -0,0 +1,188 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.io.ChannelCopier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение копирования контента на диск через {@link ChannelCopier} с копированием потока через
+ * {@link InputStream#transferTo} (буфер 8 КиБ) при разных размерах файла и буфера копирования.
+ * Источник - поток в памяти (как часть multipart-запроса в памяти) или файл (как часть, выгруженная на диск).
+ * <p>
+ * Не тест, поэтому surefire его не запускает. Запуск после {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<classpath теста> com.daleksandrova.springtasks.task2.ChannelCopierBenchmark}
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChannelCopierBenchmark {
+
+    /**
+     * Размер файла.
+     */
+    @Param({"65536", "1048576", "16777216"})
+    public int fileSize;
+
+    /**
+     * Размер буфера копирования.
+     */
+    @Param({"8192", "65536", "262144", "1048576"})
+    public int bufferSize;
+
+    /**
+     * Временная папка.
+     */
+    private Path directory;
+
+    /**
+     * Исходный файл.
+     */
+    private Path source;
+
+    /**
+     * Файл назначения.
+     */
+    private Path target;
+
+    /**
+     * Контент.
+     */
+    private byte[] content;
+
+    /**
+     * Копировщик.
+     */
+    private ChannelCopier copier;
+
+    /**
+     * Подготавливает контент и файлы.
+     *
+     * @throws IOException ошибка ввода-вывода
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("copier-benchmark");
+        content = new byte[fileSize];
+        new Random(fileSize).nextBytes(content);
+        source = Files.write(directory.resolve("source"), content);
+        target = directory.resolve("target");
+        copier = new ChannelCopier(bufferSize, 1);
+    }
+
+    /**
+     * Удаляет файлы.
+     *
+     * @throws IOException ошибка ввода-вывода
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Поток в памяти через {@link InputStream#transferTo}.
+     *
+     * @return количество скопированных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    @Benchmark
+    public long streamTransferTo() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(content); OutputStream out = Files.newOutputStream(target)) {
+            return in.transferTo(out);
+        }
+    }
+
+    /**
+     * Поток в памяти через копировщик.
+     *
+     * @return количество скопированных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    @Benchmark
+    public long streamCopier() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(content); FileChannel out = openTarget()) {
+            return copier.copy(in, out);
+        }
+    }
+
+    /**
+     * Файл через {@link InputStream#transferTo}.
+     *
+     * @return количество скопированных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    @Benchmark
+    public long fileTransferTo() throws IOException {
+        try (InputStream in = new FileInputStream(source.toFile()); OutputStream out = Files.newOutputStream(target)) {
+            return in.transferTo(out);
+        }
+    }
+
+    /**
+     * Файл через копировщик.
+     *
+     * @return количество скопированных байт
+     * @throws IOException ошибка ввода-вывода
+     */
+    @Benchmark
+    public long fileCopier() throws IOException {
+        try (InputStream in = new FileInputStream(source.toFile()); FileChannel out = openTarget()) {
+            return copier.copy(in, out);
+        }
+    }
+
+    /**
+     * Открывает файл назначения на перезапись.
+     *
+     * @return канал
+     * @throws IOException ошибка ввода-вывода
+     */
+    private FileChannel openTarget() throws IOException {
+        return FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Запуск сравнения.
+     *
+     * @param args не используются
+     * @throws RunnerException ошибка запуска
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ChannelCopierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.io.ChannelCopier;
+import com.daleksandrova.springtasks.task2.io.ChecksumAlgorithm;
+import com.daleksandrova.springtasks.task2.io.ChecksumInputStream;
+import com.daleksandrova.springtasks.task2.io.CountingInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тест для проверки копирования контента в файловый канал через обертки, считающие размер и контрольную сумму.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ChannelCopierTest {
+
+    /**
+     * Временная папка.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Тест, проверяющий, что при копировании из файла и из потока в памяти размер и контрольная сумма
+     * совпадают с посчитанными по исходному контенту.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testCopyThroughCountingAndChecksumStreams() throws Exception {
+        final byte[] content = new byte[100_000];
+        new Random(42).nextBytes(content);
+        final Path source = Files.write(directory.resolve("source"), content);
+        final Path target = directory.resolve("target");
+        final ChannelCopier copier = new ChannelCopier(4096, 1);
+
+        for (ChecksumAlgorithm algorithm : new ChecksumAlgorithm[]{ChecksumAlgorithm.CRC32C, ChecksumAlgorithm.SHA_256}) {
+            final ChecksumAlgorithm.Digest expected = algorithm.newDigest();
+            expected.update(content, 0, content.length);
+            final String expectedChecksum = expected.finish();
+
+            for (InputStream in : new InputStream[]{new FileInputStream(source.toFile()), new ByteArrayInputStream(content)}) {
+                final CountingInputStream countingStream = new CountingInputStream(in);
+                final ChecksumInputStream checksumStream = new ChecksumInputStream(countingStream, algorithm);
+                try (checksumStream; FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    assertThat(copier.copy(checksumStream, out)).isEqualTo(content.length);
+                }
+                assertThat(countingStream.getCount()).isEqualTo(content.length);
+                assertThat(checksumStream.getChecksum()).isEqualTo(expectedChecksum);
+                assertThat(Files.readAllBytes(target)).isEqualTo(content);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.service.ContentAddressedFileManager;
+import com.daleksandrova.springtasks.task2.service.DurabilityMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тест для проверки дедупликации контента в хранилище с адресацией по содержимому.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class ContentAddressedFileManagerTest {
+
+    /**
+     * Временная папка с данными.
+     */
+    @TempDir
+    Path dataPath;
+
+    /**
+     * Менеджер файлов.
+     */
+    private ContentAddressedFileManager fileManager;
+
+    /**
+     * Создаем менеджер файлов во временной папке.
+     */
+    @BeforeEach
+    public void setUp() {
+        fileManager = new ContentAddressedFileManager();
+        ReflectionTestUtils.setField(fileManager, "dataPath", dataPath.toString());
+        // буфер меньше контента, чтобы копирование шло в несколько заходов
+        ReflectionTestUtils.setField(fileManager, "copyBufferSize", 4);
+        ReflectionTestUtils.setField(fileManager, "copyPooledBuffers", 1);
+        // самый сложный режим надежности, чтобы проверить ожидание общих пачек сброса на диск
+        ReflectionTestUtils.setField(fileManager, "durabilityMode", DurabilityMode.GROUP_COMMIT);
+        ReflectionTestUtils.setField(fileManager, "groupCommitIntervalMs", 1L);
+        ReflectionTestUtils.setField(fileManager, "mappedMaxFileSize", 1024L);
+        ReflectionTestUtils.setField(fileManager, "mappedCacheSize", 4096L);
+        fileManager.postConstruct();
+    }
+
+    /**
+     * Останавливаем менеджер файлов.
+     */
+    @AfterEach
+    public void tearDown() {
+        fileManager.preDestroy();
+    }
+
+    /**
+     * Тест, проверяющий, что одинаковый контент хранится один раз, а удаляется только вместе с последней ссылкой.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testDuplicateContentStoredOnce() throws Exception {
+        final byte[] content = "Hello, World!".getBytes();
+
+        final String firstId = fileManager.store(new ByteArrayInputStream(content));
+        final String secondId = fileManager.store(new ByteArrayInputStream(content));
+        final String otherId = fileManager.store(new ByteArrayInputStream("Other".getBytes()));
+
+        // одинаковый контент получил один и тот же идентификатор и хранится один раз
+        assertThat(firstId).isEqualTo(secondId).isNotEqualTo(otherId);
+        assertThat(fileManager.readReferenceCount(firstId)).isEqualTo(2);
+        assertThat(Files.list(dataPath.resolve("data")).count()).isEqualTo(2);
+        assertThat(Files.list(dataPath.resolve("tmp")).count()).isEqualTo(0);
+
+        // после первого удаления контент остается, после второго - удаляется
+        fileManager.delete(firstId);
+        assertThat(Files.readAllBytes(dataPath.resolve("data").resolve(firstId))).isEqualTo(content);
+        fileManager.delete(firstId);
+        assertThat(Files.exists(dataPath.resolve("data").resolve(firstId))).isFalse();
+        assertThat(fileManager.readReferenceCount(firstId)).isEqualTo(0);
+    }
+
+    /**
+     * Тест, проверяющий, что при одновременном сохранении и удалении одного контента не теряется ни одна ссылка:
+     * счетчик готовится вне блокировки и при изменении другим потоком готовится заново.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testConcurrentStoreCountsEveryReference() throws Exception {
+        final byte[] content = "Hello, World!".getBytes();
+        final String contentId = fileManager.store(new ByteArrayInputStream(content));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> stored = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                stored.add(executor.submit(() -> fileManager.store(new ByteArrayInputStream(content))));
+            }
+            // удаления начинаются, когда ссылок заведомо больше, чем удалений, чтобы контент не удалился целиком
+            for (Future<String> future : stored.subList(0, 20)) {
+                future.get();
+            }
+            final List<Future<?>> deleted = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                deleted.add(executor.submit(() -> fileManager.delete(contentId)));
+            }
+            for (Future<String> future : stored) {
+                assertThat(future.get()).isEqualTo(contentId);
+            }
+            for (Future<?> future : deleted) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(fileManager.readReferenceCount(contentId)).isEqualTo(21);
+        assertThat(Files.readAllBytes(dataPath.resolve("data").resolve(contentId))).isEqualTo(content);
+        assertThat(Files.list(dataPath.resolve("tmp")).count()).isEqualTo(0);
+        assertThat(Files.list(dataPath.resolve("refs")).count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.service.DurabilityMode;
+import com.daleksandrova.springtasks.task2.service.DurableFileSync;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Тест для проверки сброса файлов и папок хранилища на диск в разных режимах надежности.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class DurableFileSyncTest {
+
+    /**
+     * Временная папка.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Тест, проверяющий, что каждый режим сбрасывает только то, что ему положено:
+     * отсутствующий файл или папка дают ошибку только тогда, когда режим пытается их сбросить.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testModes() throws Exception {
+        final Path file = Files.write(directory.resolve("file"), new byte[]{1});
+        final Path missing = directory.resolve("missing");
+
+        final DurableFileSync none = new DurableFileSync(DurabilityMode.NONE, 5);
+        none.syncFile(missing);
+        none.syncDir(missing);
+
+        final DurableFileSync fsyncFile = new DurableFileSync(DurabilityMode.FSYNC_FILE, 5);
+        fsyncFile.syncFile(file);
+        fsyncFile.syncDir(missing);
+        assertThatThrownBy(() -> fsyncFile.syncFile(missing)).isInstanceOf(NoSuchFileException.class);
+
+        final DurableFileSync fsyncFileAndDir = new DurableFileSync(DurabilityMode.FSYNC_FILE_AND_DIR, 5);
+        fsyncFileAndDir.syncFile(file);
+        fsyncFileAndDir.syncDir(directory);
+        assertThatThrownBy(() -> fsyncFileAndDir.syncDir(missing)).isInstanceOf(NoSuchFileException.class);
+
+        final DurableFileSync groupCommit = new DurableFileSync(DurabilityMode.GROUP_COMMIT, 5);
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                groupCommit.syncFile(file);
+                groupCommit.syncDir(directory);
+            });
+        } finally {
+            groupCommit.close();
+        }
+    }
+
+    /**
+     * Тест, проверяющий, что ошибка сброса одного файла пачки достается только ждущему его,
+     * а остальные записи той же пачки завершаются успешно.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testGroupCommitFailureIsPerPath() throws Exception {
+        final Path file = Files.write(directory.resolve("file"), new byte[]{1});
+        final Path missing = directory.resolve("missing");
+        final DurableFileSync groupCommit = new DurableFileSync(DurabilityMode.GROUP_COMMIT, 200);
+        final ExecutorService writers = Executors.newFixedThreadPool(3);
+        try {
+            // период длинный, поэтому все три записи попадают в одну пачку
+            final CompletableFuture<Void> fileSync = CompletableFuture.runAsync(() -> sync(groupCommit, file, false), writers);
+            final CompletableFuture<Void> dirSync = CompletableFuture.runAsync(() -> sync(groupCommit, directory, true), writers);
+            final CompletableFuture<Void> missingSync = CompletableFuture.runAsync(() -> sync(groupCommit, missing, false), writers);
+
+            fileSync.get(10, TimeUnit.SECONDS);
+            dirSync.get(10, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> missingSync.get(10, TimeUnit.SECONDS))
+                    .hasRootCauseInstanceOf(NoSuchFileException.class);
+        } finally {
+            writers.shutdownNow();
+            groupCommit.close();
+        }
+    }
+
+    /**
+     * Тест, проверяющий, что после остановки групповой записи сброс выполняется сразу, а не ждет пачки,
+     * которую уже некому сбросить.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testSyncAfterClose() throws Exception {
+        final Path file = Files.write(directory.resolve("file"), new byte[]{1});
+        final DurableFileSync groupCommit = new DurableFileSync(DurabilityMode.GROUP_COMMIT, 60_000);
+        groupCommit.close();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            groupCommit.syncFile(file);
+            groupCommit.syncDir(directory);
+        });
+        assertThatThrownBy(() -> groupCommit.syncFile(directory.resolve("missing")))
+                .isInstanceOf(NoSuchFileException.class);
+        assertThat(file).exists();
+    }
+
+    /**
+     * Сбрасывает файл или папку, оборачивая ошибку в непроверяемое исключение.
+     *
+     * @param fileSync сброс на диск
+     * @param path     файл или папка
+     * @param isDir    папка/нет
+     */
+    private static void sync(DurableFileSync fileSync, Path path, boolean isDir) {
+        try {
+            if (isDir) {
+                fileSync.syncDir(path);
+            } else {
+                fileSync.syncFile(path);
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
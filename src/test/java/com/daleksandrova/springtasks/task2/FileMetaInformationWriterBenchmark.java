@@ -0,0 +1,117 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
+import com.daleksandrova.springtasks.task2.entity.StorageTier;
+import com.daleksandrova.springtasks.task2.io.ContentCodec;
+import com.daleksandrova.springtasks.task2.service.FileMetaInformationWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение сериализации метаданных файла общим потоковым сериализатором {@link FileMetaInformationWriter}
+ * с прежним способом: новый {@link ObjectMapper} на каждый вызов, json в строку, строка в массив байт
+ * и поток из массива. Оба способа пишут в один переиспользуемый буфер, поэтому разница в выделениях памяти -
+ * это разница самих способов. Смотреть стоит на gc.alloc.rate.norm.
+ * <p>
+ * Не тест, поэтому surefire его не запускает. Запуск после {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<classpath теста> com.daleksandrova.springtasks.task2.FileMetaInformationWriterBenchmark}
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileMetaInformationWriterBenchmark {
+
+    /**
+     * Метаданные файла.
+     */
+    private FileEntityDto fileEntityDto;
+
+    /**
+     * Буфер, в который пишется json, - вместо мета-файла.
+     */
+    private ByteArrayOutputStream out;
+
+    /**
+     * Подготавливает метаданные.
+     */
+    @Setup
+    public void setUp() {
+        fileEntityDto = new FileEntityDto(UUID.randomUUID().toString(), "report.pdf", "application/pdf",
+                UUID.randomUUID().toString(), LocalDateTime.of(2026, 10, 18, 12, 0), 1_048_576, ContentCodec.NONE,
+                "crc32c:1a2b3c4d", StorageTier.HOT);
+        out = new ByteArrayOutputStream(1024);
+    }
+
+    /**
+     * Общий сериализатор пишет json непосредственно в поток.
+     *
+     * @return количество записанных байт
+     * @throws IOException ошибка записи
+     */
+    @Benchmark
+    public int sharedWriter() throws IOException {
+        out.reset();
+        FileMetaInformationWriter.writeTo(fileEntityDto, out);
+        return out.size();
+    }
+
+    /**
+     * Прежний способ: ObjectMapper на вызов, строка, массив байт и поток из него.
+     *
+     * @return количество записанных байт
+     * @throws IOException ошибка записи
+     */
+    @Benchmark
+    public int mapperPerCall() throws IOException {
+        out.reset();
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        final String jsonString = objectMapper.writeValueAsString(fileEntityDto);
+        final byte[] jsonBytes = jsonString.getBytes();
+        try (InputStream inputStream = new ByteArrayInputStream(jsonBytes)) {
+            inputStream.transferTo(out);
+        }
+        return out.size();
+    }
+
+    /**
+     * Запуск сравнения с профилировщиком сборки мусора.
+     *
+     * @param args не используются
+     * @throws RunnerException ошибка запуска
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FileMetaInformationWriterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.dto.FileEntityDto;
+import com.daleksandrova.springtasks.task2.service.FileMetadataCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тест для проверки отбрасывания снимков метаданных, загруженных одновременно со сбросом записи.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class FileMetadataCacheTest {
+
+    /**
+     * Тест, проверяющий, что сброс записи одного файла не мешает кешировать другие,
+     * а снимок самого сброшенного файла, загрузка которого началась до сброса, отбрасывается.
+     */
+    @Test
+    public void testInvalidationIsPerFile() {
+        final FileMetadataCache cache = new FileMetadataCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+
+        // загрузка "a" и "b" началась, пока сбрасывалась запись "b"
+        final long version = cache.getVersion();
+        cache.invalidate("b");
+        cache.put(file("a"), version);
+        cache.put(file("b"), version);
+        assertThat(cache.get("a")).isPresent();
+        assertThat(cache.get("b")).isEmpty();
+
+        // загрузка, начатая после сброса, кешируется
+        cache.put(file("b"), cache.getVersion());
+        assertThat(cache.get("b")).isPresent();
+
+        // метки сверх размера кеша вытесняются, и начатые до них загрузки отбрасываются для любых файлов
+        final long staleVersion = cache.getVersion();
+        cache.invalidate("x");
+        cache.invalidate("y");
+        cache.invalidate("z");
+        cache.put(file("c"), staleVersion);
+        assertThat(cache.get("c")).isEmpty();
+        cache.put(file("c"), cache.getVersion());
+        assertThat(cache.get("c")).isPresent();
+    }
+
+    /**
+     * Создает метаданные файла.
+     *
+     * @param fileId идентификатор файла
+     * @return метаданные
+     */
+    private static FileEntityDto file(String fileId) {
+        final FileEntityDto fileEntityDto = new FileEntityDto();
+        fileEntityDto.setId(fileId);
+        return fileEntityDto;
+    }
+}
@@ -1,15 +1,25 @@
 package com.daleksandrova.springtasks.task2;
 
+import com.daleksandrova.springtasks.task2.controller.ChunkedUploadController;
+import com.daleksandrova.springtasks.task2.controller.FileDownloadController;
+import com.daleksandrova.springtasks.task2.controller.FileMetadataCacheController;
 import com.daleksandrova.springtasks.task2.controller.FileUploadController;
 import com.daleksandrova.springtasks.task2.dto.FileProperties;
 import com.daleksandrova.springtasks.task2.entity.FileEntity;
 import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import com.daleksandrova.springtasks.task2.io.ContentCodec;
+import com.daleksandrova.springtasks.task2.service.CompressionPolicy;
+import com.daleksandrova.springtasks.task2.service.ContentScrubber;
 import com.daleksandrova.springtasks.task2.service.FileManager;
+import com.daleksandrova.springtasks.task2.service.FileMetaInformationWriter;
 import com.daleksandrova.springtasks.task2.service.FileService;
+import com.daleksandrova.springtasks.task2.service.PendingContentRegistry;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -19,10 +29,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -34,11 +48,17 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.zip.CRC32C;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Тест для проверки синхронного сохранения файла в БД и файловую систему.
@@ -80,6 +100,30 @@ public class FileUploadControllerTest {
     @SpyBean
     FileService fileService;
 
+    /**
+     * Политика сжатия контента.
+     */
+    @Autowired
+    private CompressionPolicy compressionPolicy;
+
+    /**
+     * Проверка целостности контента.
+     */
+    @Autowired
+    private ContentScrubber contentScrubber;
+
+    /**
+     * Реестр контента, ожидающего фиксации транзакции.
+     */
+    @Autowired
+    private PendingContentRegistry pendingContentRegistry;
+
+    /**
+     * Подсистема записи метаданных.
+     */
+    @Autowired
+    private FileMetaInformationWriter fileMetaInformationWriter;
+
     /**
      * Создатель запросов.
      */
@@ -119,6 +163,9 @@ public class FileUploadControllerTest {
         assertThat(savedFileEntity.getContent()).isNull();
         assertThat(jdbcTemplate.queryForList("select * from file_entity").size()).isEqualTo(1);
 
+        // Метаданные пишутся асинхронно, дожидаемся их записи
+        fileMetaInformationWriter.flush();
+
         // Проверяем, что в папке "meta" есть JSON файл
         Path metaFilePath = Paths.get(dataPath + "/meta", fileId + ".json");
         assertTrue(Files.exists(metaFilePath));
@@ -134,6 +181,294 @@ public class FileUploadControllerTest {
         Path dataFilePath = Paths.get(dataPath + "/data", savedFileEntity.getExternalId());
         assertTrue(Files.exists(dataFilePath));
         assertThat(Files.readAllBytes(dataFilePath)).isEqualTo(content.getBytes());
+
+        // Контрольная сумма возвращается в ответе, а после повреждения контента проверка ее не сходится
+        CRC32C crc = new CRC32C();
+        crc.update(content.getBytes());
+        String checksum = String.format("crc32c:%08x", crc.getValue());
+        assertThat(new JSONObject(resultString).getString("checksum")).isEqualTo(checksum);
+        assertThat(savedFileEntity.getChecksum()).isEqualTo(checksum);
+        assertTrue(contentScrubber.verify(fileId));
+        Files.write(dataFilePath, "Hello, Wordl!".getBytes());
+        assertThat(contentScrubber.verify(fileId)).isFalse();
+    }
+
+    /**
+     * Тест, проверяющий потоковую загрузку файла: тело multipart-запроса формируется вручную,
+     * размер файла заранее не передается и вычисляется при записи в хранилище.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testPositiveFileStreamUpload() throws Exception {
+        final String content = "Hello, Stream!";
+        final String fileName = "stream.txt";
+        final String contentType = "text/plain";
+        final String boundary = "streamBoundary";
+
+        final String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n"
+                + content + "\r\n"
+                + "--" + boundary + "--\r\n";
+
+        // Обращаемся к контроллеру
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(FileUploadController.FILE_API_PATH + FileUploadController.FILE_STREAM_UPLOAD_PATH)
+                .contentType("multipart/form-data; boundary=" + boundary)
+                .content(body.getBytes()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        String fileId = new JSONObject(result.getResponse().getContentAsString()).getString("fileId");
+
+        // Проверяем, что сохранилась сущность FileEntity в БД с вычисленным размером
+        FileEntity savedFileEntity = entityManager.find(FileEntity.class, fileId);
+        assertNotNull(savedFileEntity);
+        assertThat(savedFileEntity.getContentSize()).isEqualTo(content.length());
+        assertThat(savedFileEntity.getName()).isEqualTo(fileName);
+        assertThat(savedFileEntity.getMimeType()).isEqualTo(contentType);
+
+        // Проверяем, что в папке "data" есть файл с содержимым
+        Path dataFilePath = Paths.get(dataPath + "/data", savedFileEntity.getExternalId());
+        assertThat(Files.readAllBytes(dataFilePath)).isEqualTo(content.getBytes());
+    }
+
+    /**
+     * Тест, проверяющий загрузку пачки файлов одним запросом.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testPositiveBatchUpload() throws Exception {
+        // пакет меньше пачки файлов, чтобы контекст персистентности сбрасывался и очищался посреди вставки
+        final Object batchSize = ReflectionTestUtils.getField(fileService, "batchSize");
+        ReflectionTestUtils.setField(fileService, "batchSize", 2);
+        try {
+            final String[] contents = {"First", "Second!", ""};
+            final MockMultipartHttpServletRequestBuilder request = MockMvcRequestBuilders.multipart(
+                    FileUploadController.FILE_API_PATH + FileUploadController.FILE_BATCH_UPLOAD_PATH);
+            for (int i = 0; i < contents.length; i++) {
+                request.file(new MockMultipartFile(FileUploadController.FILES_PART_NAME, "batch" + i + ".txt", "text/plain", contents[i].getBytes()));
+            }
+
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.fileIds", Matchers.hasSize(contents.length)))
+                    .andReturn();
+
+            // Проверяем, что сущности сохранились в порядке частей запроса, а контент - в папке "data"
+            JSONArray fileIds = new JSONObject(result.getResponse().getContentAsString()).getJSONArray("fileIds");
+            for (int i = 0; i < contents.length; i++) {
+                FileEntity savedFileEntity = entityManager.find(FileEntity.class, fileIds.getString(i));
+                assertNotNull(savedFileEntity);
+                assertThat(savedFileEntity.getName()).isEqualTo("batch" + i + ".txt");
+                assertThat(savedFileEntity.getContentSize()).isEqualTo(contents[i].length());
+                if (!contents[i].isEmpty()) {
+                    Path dataFilePath = Paths.get(dataPath + "/data", savedFileEntity.getExternalId());
+                    assertThat(Files.readAllBytes(dataFilePath)).isEqualTo(contents[i].getBytes());
+                }
+            }
+            assertThat(jdbcTemplate.queryForList("select * from file_entity").size()).isEqualTo(contents.length);
+        } finally {
+            ReflectionTestUtils.setField(fileService, "batchSize", batchSize);
+        }
+    }
+
+    /**
+     * Тест, проверяющий скачивание загруженного файла целиком, по диапазону и условным запросом.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testDownloadUploadedFile() throws Exception {
+        final String content = "Hello, World!";
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", content.getBytes());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.multipart(FileUploadController.FILE_API_PATH + FileUploadController.FILE_UPLOAD_PATH)
+                .file(file))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        String fileId = new JSONObject(result.getResponse().getContentAsString()).getString("fileId");
+        String downloadPath = FileUploadController.FILE_API_PATH + FileDownloadController.FILE_DOWNLOAD_PATH;
+
+        // Скачиваем файл целиком
+        MvcResult download = mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_TYPE, "text/plain"))
+                .andExpect(MockMvcResultMatchers.content().bytes(content.getBytes()))
+                .andReturn();
+        String eTag = download.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        // Скачиваем часть файла
+        mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId).header(HttpHeaders.RANGE, "bytes=7-11"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-11/" + content.length()))
+                .andExpect(MockMvcResultMatchers.content().string("World"));
+
+        // Недопустимый диапазон
+        mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId).header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(MockMvcResultMatchers.status().isRequestedRangeNotSatisfiable());
+
+        // Файл не изменился - контент не отдается
+        mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        // Несуществующий файл
+        mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, "unknown"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        // Повторные скачивания берут метаданные из кеша
+        mockMvc.perform(MockMvcRequestBuilders.get(FileUploadController.FILE_API_PATH + FileMetadataCacheController.FILE_META_CACHE_STATS_PATH))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hits", Matchers.greaterThanOrEqualTo(3)));
+    }
+
+    /**
+     * Тест, проверяющий хранение небольшого файла прямо в БД и его прозрачное скачивание.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testInlineSmallFileUpload() throws Exception {
+        ReflectionTestUtils.setField(fileService, "inlineMaxSize", 64);
+        try {
+            final String content = "Hello, World!";
+            MockMultipartFile file = new MockMultipartFile("file", "small.txt", "text/plain", content.getBytes());
+
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.multipart(FileUploadController.FILE_API_PATH + FileUploadController.FILE_UPLOAD_PATH)
+                    .file(file))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn();
+            String fileId = new JSONObject(result.getResponse().getContentAsString()).getString("fileId");
+
+            // Контент хранится в БД, в папку "data" ничего не записано
+            FileEntity savedFileEntity = entityManager.find(FileEntity.class, fileId);
+            assertThat(savedFileEntity.getExternalId()).isNull();
+            assertThat(savedFileEntity.getContentSize()).isEqualTo(content.length());
+            assertThat(fileService.findInlineContent(fileId)).hasValueSatisfying(bytes -> assertThat(bytes).isEqualTo(content.getBytes()));
+            assertThat(Files.list(Paths.get(dataPath + "/data")).count()).isEqualTo(0);
+
+            // Скачивание не зависит от места хранения
+            String downloadPath = FileUploadController.FILE_API_PATH + FileDownloadController.FILE_DOWNLOAD_PATH;
+            mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.content().bytes(content.getBytes()));
+            mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId).header(HttpHeaders.RANGE, "bytes=7-11"))
+                    .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                    .andExpect(MockMvcResultMatchers.content().string("World"));
+
+            // Контент удален после чтения метаданных: 404 без заголовков успешного ответа
+            doReturn(Optional.empty()).when(fileService).findInlineContent(fileId);
+            mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId).header(HttpHeaders.RANGE, "bytes=7-11"))
+                    .andExpect(MockMvcResultMatchers.status().isNotFound())
+                    .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_LENGTH))
+                    .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_RANGE));
+        } finally {
+            ReflectionTestUtils.setField(fileService, "inlineMaxSize", 0);
+        }
+    }
+
+    /**
+     * Тест, проверяющий сжатие текстового файла в хранилище и его распаковку при скачивании.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testCompressedFileUpload() throws Exception {
+        ReflectionTestUtils.setField(compressionPolicy, "codec", ContentCodec.DEFLATE);
+        try {
+            final String content = "Hello, World! ".repeat(1000);
+            MockMultipartFile file = new MockMultipartFile("file", "log.txt", "text/plain", content.getBytes());
+
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.multipart(FileUploadController.FILE_API_PATH + FileUploadController.FILE_UPLOAD_PATH)
+                    .file(file))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn();
+            String fileId = new JSONObject(result.getResponse().getContentAsString()).getString("fileId");
+
+            // В хранилище лежит сжатый контент, а размер файла - исходный
+            FileEntity savedFileEntity = entityManager.find(FileEntity.class, fileId);
+            assertThat(savedFileEntity.getContentCodec()).isEqualTo(ContentCodec.DEFLATE);
+            assertThat(savedFileEntity.getContentSize()).isEqualTo(content.length());
+            Path storedFile = fileManager.resolveContentFile(savedFileEntity.getExternalId()).orElseThrow();
+            assertThat(Files.size(storedFile)).isLessThan(content.length() / 10);
+
+            // Скачивается исходный контент, диапазон отсчитывается по нему
+            String downloadPath = FileUploadController.FILE_API_PATH + FileDownloadController.FILE_DOWNLOAD_PATH;
+            mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.content().bytes(content.getBytes()));
+            mockMvc.perform(MockMvcRequestBuilders.get(downloadPath, fileId).header(HttpHeaders.RANGE, "bytes=7007-7011"))
+                    .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                    .andExpect(MockMvcResultMatchers.content().string("World"));
+        } finally {
+            ReflectionTestUtils.setField(compressionPolicy, "codec", ContentCodec.NONE);
+        }
+    }
+
+    /**
+     * Тест, проверяющий загрузку файла частями в произвольном порядке и ее возобновление.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testChunkedUpload() throws Exception {
+        final String content = "Hello, World!";
+        final String sessionsPath = FileUploadController.FILE_API_PATH + ChunkedUploadController.UPLOAD_SESSIONS_PATH;
+        final String chunkPath = FileUploadController.FILE_API_PATH + ChunkedUploadController.UPLOAD_CHUNK_PATH;
+        final String completePath = FileUploadController.FILE_API_PATH + ChunkedUploadController.UPLOAD_COMPLETE_PATH;
+
+        // Начинаем сессию: 13 байт частями по 5 байт - 3 части
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(sessionsPath)
+                .param("chunkSize", "5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new JSONObject().put("name", "test.txt").put("contentType", "text/plain")
+                        .put("contentSize", content.length()).toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.chunkCount").value(3))
+                .andReturn();
+        String sessionId = new JSONObject(result.getResponse().getContentAsString()).getString("sessionId");
+
+        // Загружаем части не по порядку
+        mockMvc.perform(MockMvcRequestBuilders.put(chunkPath, sessionId, 2)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM).content("ld!".getBytes()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.put(chunkPath, sessionId, 0)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM).content("Hello".getBytes()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // Часть неверного размера не принимается, завершить загрузку без всех частей нельзя
+        mockMvc.perform(MockMvcRequestBuilders.put(chunkPath, sessionId, 1)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM).content(", Wo".getBytes()))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.post(completePath, sessionId))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+
+        // Возобновляем загрузку: узнаем, каких частей не хватает, и догружаем их
+        mockMvc.perform(MockMvcRequestBuilders.get(FileUploadController.FILE_API_PATH + ChunkedUploadController.UPLOAD_SESSION_PATH, sessionId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.receivedChunks").value(Matchers.contains(0, 2)));
+        mockMvc.perform(MockMvcRequestBuilders.put(chunkPath, sessionId, 1)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM).content(", Wor".getBytes()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        result = mockMvc.perform(MockMvcRequestBuilders.post(completePath, sessionId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        String fileId = new JSONObject(result.getResponse().getContentAsString()).getString("fileId");
+
+        // Проверяем сущность и содержимое файла
+        FileEntity savedFileEntity = entityManager.find(FileEntity.class, fileId);
+        assertNotNull(savedFileEntity);
+        assertThat(savedFileEntity.getContentSize()).isEqualTo(content.length());
+        Path dataFilePath = Paths.get(dataPath + "/data", savedFileEntity.getExternalId());
+        assertThat(Files.readAllBytes(dataFilePath)).isEqualTo(content.getBytes());
+
+        // Контрольная сумма считается и для собранного из частей файла
+        CRC32C crc = new CRC32C();
+        crc.update(content.getBytes());
+        assertThat(savedFileEntity.getChecksum()).isEqualTo(String.format("crc32c:%08x", crc.getValue()));
+        assertTrue(contentScrubber.verify(fileId));
     }
 
 
@@ -211,6 +546,61 @@ public class FileUploadControllerTest {
         assertThat(Files.list(dataFolder).count()).isEqualTo(0);
     }
 
+    /**
+     * Тест, проверяющий удаление контента, сохраненного до транзакции, если сущность не удалось вставить в БД.
+     * Имя файла длиннее колонки, поэтому INSERT падает уже после записи контента в хранилище.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testNegativeFileUploadWhenInsertFails() throws Exception {
+        final String fileName = "a".repeat(300) + ".txt";
+        MockMultipartFile file = new MockMultipartFile("file", fileName, "text/plain", "Hello, orphan!".getBytes());
+
+        // Обращаемся к контроллеру, ожидаем ошибку
+        Assertions
+                .assertThatThrownBy(() -> mockMvc.perform(MockMvcRequestBuilders.multipart(FileUploadController.FILE_API_PATH + FileUploadController.FILE_UPLOAD_PATH)
+                        .file(file)));
+
+        // Данных в БД нет
+        assertThat(jdbcTemplate.queryForList("select * from file_entity").size()).isEqualTo(0);
+
+        // Проверяем, что контент удален, а отметок ожидающего контента не осталось
+        assertThat(Files.list(Paths.get(dataPath + "/data")).count()).isEqualTo(0);
+        assertThat(Files.list(Paths.get(dataPath + "/pending")).count()).isEqualTo(0);
+    }
+
+    /**
+     * Тест, проверяющий разбор отметок, оставшихся после аварийной остановки: ссылка на контент освобождается
+     * только у загрузки, сущность которой не была зафиксирована, даже если на тот же контент ссылается другая сущность.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testOrphanMarkerReleasesOneReference() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", "Hello, World!".getBytes());
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.multipart(FileUploadController.FILE_API_PATH + FileUploadController.FILE_UPLOAD_PATH)
+                        .file(file))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        String fileId = new JSONObject(result.getResponse().getContentAsString()).getString("fileId");
+        String externalId = entityManager.find(FileEntity.class, fileId).getExternalId();
+
+        // отметки зафиксированной загрузки и загрузки того же контента, сущность которой не успели вставить
+        Path pendingDir = Paths.get(dataPath, "pending");
+        Path committedMarker = Files.write(pendingDir.resolve("committed"), (externalId + "\n" + fileId).getBytes());
+        Path orphanMarker = Files.write(pendingDir.resolve("orphan"), (externalId + "\nnot-committed").getBytes());
+        for (Path marker : new Path[]{committedMarker, orphanMarker}) {
+            assertTrue(marker.toFile().setLastModified(System.currentTimeMillis() - 2 * 3_600_000L));
+        }
+        doNothing().when(fileManager).delete(externalId);
+
+        assertThat(pendingContentRegistry.deleteOrphans()).isEqualTo(1);
+        verify(fileManager, times(1)).delete(externalId);
+        assertThat(committedMarker).doesNotExist();
+        assertThat(orphanMarker).doesNotExist();
+    }
+
     /**
      * Удаляем данные, созданные тестами.
      *
@@ -218,6 +608,7 @@ public class FileUploadControllerTest {
      */
     @AfterEach
     public void cleanup() throws IOException {
+        fileMetaInformationWriter.flush();
         jdbcTemplate.update("delete file_entity");
 
         Files.walk(Paths.get(dataPath + "/data"))
@@ -0,0 +1,161 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import com.daleksandrova.springtasks.task2.service.DurabilityMode;
+import com.daleksandrova.springtasks.task2.service.SegmentFileManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тест для проверки хранилища, дописывающего контент в файлы-сегменты.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class SegmentFileManagerTest {
+
+    /**
+     * Размер заголовка записи сегмента без идентификатора.
+     */
+    private static final int FIXED_HEADER_SIZE = 15;
+
+    /**
+     * Временная папка с данными.
+     */
+    @TempDir
+    Path dataPath;
+
+    /**
+     * Менеджер файлов.
+     */
+    private SegmentFileManager fileManager;
+
+    /**
+     * Создаем менеджер файлов во временной папке.
+     */
+    @BeforeEach
+    public void setUp() {
+        fileManager = open();
+    }
+
+    /**
+     * Останавливаем менеджер файлов.
+     */
+    @AfterEach
+    public void tearDown() {
+        fileManager.preDestroy();
+    }
+
+    /**
+     * Тест, проверяющий запись, чтение, удаление и уплотнение сегментов, а также восстановление индекса после перезапуска.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testStoreCompactAndRecover() throws Exception {
+        // маленький контент накапливается в памяти, большой - во временном файле
+        final String small = fileManager.store(new ByteArrayInputStream("Hello".getBytes()));
+        final String large = fileManager.store(new ByteArrayInputStream("Hello, large World!".getBytes()));
+        final String deleted = fileManager.store(new ByteArrayInputStream("Bye".getBytes()));
+        assertThat(read(small)).isEqualTo("Hello");
+        assertThat(read(large)).isEqualTo("Hello, large World!");
+        assertThat(fileManager.getSegmentCount()).isGreaterThan(1);
+
+        // часть контента читается из отображенного в память сегмента
+        try (InputStream in = fileManager.openStream(large, 7, 5)) {
+            assertThat(new String(in.readAllBytes())).isEqualTo("large");
+        }
+        assertThat(fileManager.map(small, 1, 3).remaining()).isEqualTo(3);
+
+        // удаленный контент недоступен, а после уплотнения сегментов остается меньше
+        fileManager.delete(deleted);
+        final int segmentCount = fileManager.getSegmentCount();
+        assertThatThrownBy(() -> read(deleted)).isInstanceOf(FileStorageException.class);
+        assertThat(fileManager.compact()).isGreaterThan(0);
+        assertThat(fileManager.getSegmentCount()).isLessThan(segmentCount);
+
+        // после перезапуска индекс восстанавливается по сегментам, удаленный контент не оживает
+        fileManager.preDestroy();
+        fileManager = open();
+        assertThat(read(small)).isEqualTo("Hello");
+        assertThat(read(large)).isEqualTo("Hello, large World!");
+        assertThatThrownBy(() -> read(deleted)).isInstanceOf(FileStorageException.class);
+    }
+
+    /**
+     * Тест, проверяющий, что контент больше отображаемого в память читается прямо из файла сегмента,
+     * а запись, не помещающаяся в активный сегмент, начинает новый сегмент.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testLargeContentAndSegmentRollover() throws Exception {
+        ReflectionTestUtils.setField(fileManager, "mappedMaxFileSize", 8L);
+        final String small = fileManager.store(new ByteArrayInputStream("Hello".getBytes()));
+        final String content = "Hello, large World! ".repeat(5);
+        final String large = fileManager.store(new ByteArrayInputStream(content.getBytes()));
+
+        assertThat(read(large)).isEqualTo(content);
+        try (InputStream in = fileManager.openStream(large, 7, 13)) {
+            assertThat(new String(in.readAllBytes())).isEqualTo("large World! ");
+        }
+        try (InputStream in = Channels.newInputStream(fileManager.openChannel(large, 80))) {
+            assertThat(new String(in.readAllBytes())).isEqualTo(content.substring(80));
+        }
+        assertThat(read(small)).isEqualTo("Hello");
+
+        // контент больше сегмента занимает сегмент один, маленький контент к нему не дописан
+        final long largeRecordSize = FIXED_HEADER_SIZE + large.length() + content.length();
+        try (Stream<Path> segments = Files.list(dataPath.resolve("segments"))) {
+            assertThat(segments.mapToLong(segment -> segment.toFile().length()))
+                    .allMatch(size -> size <= largeRecordSize);
+        }
+    }
+
+    /**
+     * Создает менеджер файлов с маленькими сегментами, чтобы запись шла в несколько сегментов.
+     *
+     * @return менеджер файлов
+     */
+    private SegmentFileManager open() {
+        final SegmentFileManager manager = new SegmentFileManager();
+        ReflectionTestUtils.setField(manager, "dataPath", dataPath.toString());
+        ReflectionTestUtils.setField(manager, "copyBufferSize", 4096);
+        ReflectionTestUtils.setField(manager, "copyPooledBuffers", 1);
+        ReflectionTestUtils.setField(manager, "durabilityMode", DurabilityMode.NONE);
+        ReflectionTestUtils.setField(manager, "mappedMaxFileSize", 1024L);
+        ReflectionTestUtils.setField(manager, "mappedCacheSize", 4096L);
+        ReflectionTestUtils.setField(manager, "maxSegmentSize", 64L);
+        ReflectionTestUtils.setField(manager, "maxBufferedSize", 8);
+        ReflectionTestUtils.setField(manager, "compactIntervalMs", 60000L);
+        ReflectionTestUtils.setField(manager, "compactDeadRatio", 0.1);
+        manager.postConstruct();
+        return manager;
+    }
+
+    /**
+     * Читает контент целиком.
+     *
+     * @param externalId идентификатор хранения
+     * @return контент
+     */
+    private String read(String externalId) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        fileManager.transferTo(externalId, 0, Long.MAX_VALUE, Channels.newChannel(out));
+        return out.toString();
+    }
+}
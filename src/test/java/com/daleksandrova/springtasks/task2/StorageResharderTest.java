@@ -0,0 +1,110 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.service.ShardedLayout;
+import com.daleksandrova.springtasks.task2.service.StorageResharder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тест для проверки раскладки файлов по вложенным папкам и перераскладки хранилища.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class StorageResharderTest {
+
+    /**
+     * Временная папка с данными.
+     */
+    @TempDir
+    Path dataPath;
+
+    /**
+     * Тест, проверяющий расположение файлов при разном количестве уровней и поиск файлов,
+     * записанных в другой раскладке.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testResolveAndLocateAcrossLevels() throws Exception {
+        final File root = dataPath.toFile();
+        final String fileName = "abcdef0123";
+
+        assertThat(new ShardedLayout(0).resolveForWrite(root, fileName)).isEqualTo(new File(root, fileName));
+        final File twoLevels = new ShardedLayout(2).resolveForWrite(root, fileName);
+        assertThat(twoLevels).isEqualTo(root.toPath().resolve("ab").resolve("cd").resolve(fileName).toFile());
+        assertThat(twoLevels.getParentFile()).isDirectory();
+        // имя короче префиксов всех уровней - файл лежит в корне
+        assertThat(new ShardedLayout(2).resolve(root, "abc")).isEqualTo(new File(root, "abc"));
+
+        // файл, записанный при одном уровне, находится и при двух, и без вложенности
+        final File oneLevel = new ShardedLayout(1).resolveForWrite(root, fileName);
+        Files.write(oneLevel.toPath(), new byte[]{1});
+        assertThat(new ShardedLayout(2).locate(root, fileName)).isEqualTo(oneLevel);
+        assertThat(new ShardedLayout(0).locate(root, fileName)).isEqualTo(oneLevel);
+
+        // не найденный файл - расположение согласно раскладке
+        assertThat(new ShardedLayout(2).locate(root, "ffffffff")).isEqualTo(new ShardedLayout(2).resolve(root, "ffffffff"));
+    }
+
+    /**
+     * Тест, проверяющий, что прерванная перераскладка при повторном запуске доводится до конца:
+     * уже перемещенные файлы остаются на месте, устаревшие копии удаляются, временные файлы не трогаются.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testInterruptedReshardIsResumed() throws Exception {
+        final File data = dataPath.resolve("data").toFile();
+        final ShardedLayout flat = new ShardedLayout(0);
+        final ShardedLayout sharded = new ShardedLayout(2);
+        final List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final String fileName = UUID.randomUUID().toString();
+            fileNames.add(fileName);
+            Files.write(flat.resolveForWrite(data, fileName).toPath(), fileName.getBytes());
+        }
+        Files.write(flat.resolveForWrite(data, "upload.tmp").toPath(), new byte[]{1});
+
+        // прерванная перераскладка: часть файлов уже перемещена, один записан заново в новой раскладке,
+        // а его копия в прежней еще не удалена
+        for (String fileName : fileNames.subList(0, 4)) {
+            Files.move(flat.resolve(data, fileName).toPath(), sharded.resolveForWrite(data, fileName).toPath());
+        }
+        final String duplicated = fileNames.get(4);
+        Files.write(sharded.resolveForWrite(data, duplicated).toPath(), duplicated.getBytes());
+
+        final StorageResharder resharder = new StorageResharder();
+        ReflectionTestUtils.setField(resharder, "dataPath", dataPath.toString());
+        ReflectionTestUtils.setField(resharder, "shardLevels", 2);
+        assertThat(resharder.reshard()).isEqualTo(5);
+
+        for (String fileName : fileNames) {
+            assertThat(flat.resolve(data, fileName)).doesNotExist();
+            assertThat(Files.readAllBytes(sharded.resolve(data, fileName).toPath())).isEqualTo(fileName.getBytes());
+            assertThat(sharded.locate(data, fileName)).isEqualTo(sharded.resolve(data, fileName));
+        }
+        assertThat(new File(data, "upload.tmp")).exists();
+
+        // повторный запуск ничего не перемещает
+        assertThat(resharder.reshard()).isZero();
+
+        // обратная перераскладка возвращает плоскую раскладку и удаляет опустевшие папки
+        ReflectionTestUtils.setField(resharder, "shardLevels", 0);
+        assertThat(resharder.reshard()).isEqualTo(10);
+        try (Stream<Path> entries = Files.list(data.toPath())) {
+            assertThat(entries.filter(Files::isDirectory).count()).isZero();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.daleksandrova.springtasks.task2;
+
+import com.daleksandrova.springtasks.task2.entity.StorageTier;
+import com.daleksandrova.springtasks.task2.exception.FileStorageException;
+import com.daleksandrova.springtasks.task2.service.DurabilityMode;
+import com.daleksandrova.springtasks.task2.service.TieredFileManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тест для проверки хранилища с разделением на быстрый и емкий уровни.
+ *
+ * @author Darya Alexandrova
+ * @since 2026.10.18
+ */
+public class TieredFileManagerTest {
+
+    /**
+     * Временная папка быстрого хранилища.
+     */
+    @TempDir
+    Path hotPath;
+
+    /**
+     * Временная папка емкого хранилища.
+     */
+    @TempDir
+    Path coldPath;
+
+    /**
+     * Менеджер файлов.
+     */
+    private TieredFileManager fileManager;
+
+    /**
+     * Создаем менеджер файлов во временных папках.
+     */
+    @BeforeEach
+    public void setUp() {
+        fileManager = createFileManager();
+    }
+
+    /**
+     * Останавливаем менеджер файлов.
+     */
+    @AfterEach
+    public void tearDown() {
+        fileManager.preDestroy();
+    }
+
+    /**
+     * Тест, проверяющий перенос контента в емкое хранилище и чтение после переноса.
+     */
+    @Test
+    public void testMoveToColdTier() {
+        final String externalId = fileManager.store(new ByteArrayInputStream("Hello, World!".getBytes()));
+        assertThat(fileManager.isHot(externalId)).isTrue();
+
+        // к контенту только что обращались, поэтому переносить его рано
+        assertThat(read(externalId)).isEqualTo("Hello, World!");
+        assertThat(fileManager.findColdCandidates(System.currentTimeMillis() - 60000)).isEmpty();
+
+        // контент переносится, а читается так же, как до переноса
+        assertThat(fileManager.findColdCandidates(System.currentTimeMillis() + 1)).containsExactly(externalId);
+        fileManager.copyToCold(externalId);
+        fileManager.evictHot(externalId);
+        assertThat(fileManager.isHot(externalId)).isFalse();
+        assertThat(coldPath.resolve("data").resolve(externalId)).exists();
+        assertThat(read(externalId)).isEqualTo("Hello, World!");
+
+        // удаление убирает контент со всех уровней
+        fileManager.delete(externalId);
+        assertThat(coldPath.resolve("data").resolve(externalId)).doesNotExist();
+        assertThatThrownBy(() -> read(externalId)).isInstanceOf(FileStorageException.class);
+    }
+
+    /**
+     * Тест, проверяющий, что время обращения к контенту переживает перезапуск, а чтение по уровню из метаданных
+     * идет сразу с этого уровня и находит контент, даже если уровень в метаданных устарел.
+     *
+     * @throws Exception исключение
+     */
+    @Test
+    public void testAccessTimeSurvivesRestartAndTierRouting() throws Exception {
+        final String externalId = fileManager.store(new ByteArrayInputStream("Hello, World!".getBytes()));
+        final Path hotFile = hotPath.resolve("data").resolve(externalId);
+        final FileTime twoDaysAgo = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+        Files.getFileAttributeView(hotFile, BasicFileAttributeView.class).setTimes(twoDaysAgo, twoDaysAgo, null);
+        final long dayAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        assertThat(fileManager.findColdCandidates(dayAgo)).containsExactly(externalId);
+
+        // к контенту обратились, и после перезапуска он по-прежнему не кажется давно не использованным
+        assertThat(read(externalId, StorageTier.HOT)).isEqualTo("Hello, World!");
+        fileManager.preDestroy();
+        fileManager = createFileManager();
+        assertThat(fileManager.findColdCandidates(dayAgo)).isEmpty();
+
+        // после переноса контент читается с емкого уровня, а по устаревшему уровню - с повторным поиском
+        fileManager.copyToCold(externalId);
+        fileManager.evictHot(externalId);
+        assertThat(fileManager.resolveContentFile(externalId, StorageTier.COLD))
+                .hasValue(coldPath.resolve("data").resolve(externalId));
+        assertThat(read(externalId, StorageTier.COLD)).isEqualTo("Hello, World!");
+        assertThat(read(externalId, StorageTier.HOT)).isEqualTo("Hello, World!");
+    }
+
+    /**
+     * Создает менеджер файлов во временных папках.
+     *
+     * @return менеджер файлов
+     */
+    private TieredFileManager createFileManager() {
+        final TieredFileManager manager = new TieredFileManager();
+        ReflectionTestUtils.setField(manager, "dataPath", hotPath.toString());
+        ReflectionTestUtils.setField(manager, "coldPath", coldPath.toString());
+        ReflectionTestUtils.setField(manager, "copyBufferSize", 4096);
+        ReflectionTestUtils.setField(manager, "copyPooledBuffers", 1);
+        ReflectionTestUtils.setField(manager, "durabilityMode", DurabilityMode.NONE);
+        ReflectionTestUtils.setField(manager, "mappedMaxFileSize", 1024L);
+        ReflectionTestUtils.setField(manager, "mappedCacheSize", 4096L);
+        ReflectionTestUtils.setField(manager, "accessTimeGranularityMs", 60000L);
+        manager.postConstruct();
+        return manager;
+    }
+
+    /**
+     * Читает контент целиком с заданного уровня хранилища.
+     *
+     * @param externalId идентификатор хранения
+     * @param tier       уровень хранилища
+     * @return контент
+     */
+    private String read(String externalId, StorageTier tier) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        fileManager.transferTo(externalId, tier, 0, 13, Channels.newChannel(out));
+        return out.toString();
+    }
+
+    /**
+     * Читает контент целиком.
+     *
+     * @param externalId идентификатор хранения
+     * @return контент
+     */
+    private String read(String externalId) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        fileManager.transferTo(externalId, 0, 13, Channels.newChannel(out));
+        return out.toString();
+    }
+}